@@ -0,0 +1,46 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.benchmark.fixture.BenchmarkFixtures;
+import app.quizstream.util.vector.PgVector;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a 1536-dimensional pgvector value as returned by the JDBC driver, comparing the former JSON based
+ * List&lt;Double&gt; mapping with the float[] mapping. Run with {@code -Djmh.args="EmbeddingParse -prof gc"} to
+ * compare the allocation per operation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingParseBenchmark {
+
+    private static final TypeReference<List<Double>> DOUBLE_LIST = new TypeReference<>() {
+    };
+
+    private ObjectMapper objectMapper;
+    private String vectorText;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        vectorText = PgVector.format(new BenchmarkFixtures(42).vector());
+    }
+
+    @Benchmark
+    public List<Double> parseAsJsonDoubleList() throws Exception {
+        return objectMapper.readValue(vectorText, DOUBLE_LIST);
+    }
+
+    @Benchmark
+    public float[] parseAsFloatArray() {
+        return PgVector.parse(vectorText);
+    }
+}
@@ -0,0 +1,70 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.benchmark.fixture.BenchmarkFixtures;
+import app.quizstream.entity.collection.CollectionMetadata;
+import app.quizstream.entity.embedding.EmbeddingMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialization of the JSON columns that are read for every quiz, i.e. the collection metadata including the
+ * video transcript, the per question metadata and the embedding vector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private String collectionMetadataJson;
+    private EmbeddingMetadata embeddingMetadata;
+    private String embeddingMetadataJson;
+    private List<Double> embedding;
+    private String embeddingJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+
+        collectionMetadataJson = fixtures.collectionMetadataJson(objectMapper);
+
+        embeddingMetadata = fixtures.embeddingMetadata();
+        embeddingMetadataJson = objectMapper.writeValueAsString(embeddingMetadata);
+
+        embedding = fixtures.embedding();
+        embeddingJson = objectMapper.writeValueAsString(embedding);
+    }
+
+    @Benchmark
+    public CollectionMetadata readCollectionMetadata() throws Exception {
+        return objectMapper.readValue(collectionMetadataJson, CollectionMetadata.class);
+    }
+
+    @Benchmark
+    public EmbeddingMetadata readEmbeddingMetadata() throws Exception {
+        return objectMapper.readValue(embeddingMetadataJson, EmbeddingMetadata.class);
+    }
+
+    @Benchmark
+    public String writeEmbeddingMetadata() throws Exception {
+        return objectMapper.writeValueAsString(embeddingMetadata);
+    }
+
+    @Benchmark
+    public List<?> readEmbedding() throws Exception {
+        return objectMapper.readValue(embeddingJson, List.class);
+    }
+
+    @Benchmark
+    public String writeEmbedding() throws Exception {
+        return objectMapper.writeValueAsString(embedding);
+    }
+}
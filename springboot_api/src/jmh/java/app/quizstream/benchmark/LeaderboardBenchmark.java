@@ -0,0 +1,76 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.benchmark.fixture.BenchmarkFixtures;
+import app.quizstream.dto.quiz.LeaderboardTotals;
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import app.quizstream.service.LeaderboardIndex;
+import app.quizstream.util.mapper.QuizMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serving leaderboard pages and ranks from the in-memory index, the path behind GET /quizzes/leaderboard, plus the
+ * cost of rebuilding the index at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LeaderboardBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int numberOfUsers;
+
+    @Param({ "score", "answers" })
+    private String sortProperty;
+
+    private List<LeaderboardTotals> totals;
+    private LeaderboardIndex leaderboardIndex;
+    private QuizMapper quizMapper;
+    private Pageable deepPage;
+    private UUID rankedUserId;
+
+    @Setup
+    public void setUp() {
+        totals = new BenchmarkFixtures(42).leaderboardTotals(numberOfUsers);
+
+        leaderboardIndex = new LeaderboardIndex();
+        leaderboardIndex.rebuild(totals.stream());
+
+        quizMapper = new QuizMapper(BenchmarkFixtures.objectMapper());
+        deepPage = PageRequest.of(numberOfUsers / 40, 20, Sort.by(Sort.Order.desc(sortProperty)));
+        rankedUserId = totals.get(numberOfUsers / 2)
+                .userId();
+    }
+
+    @Benchmark
+    public Page<QuizLeaderboardEntry> getLeaderboardPage() {
+        return leaderboardIndex.page(deepPage)
+                .orElseThrow()
+                .map(quizMapper::convertToLeaderboardEntry);
+    }
+
+    @Benchmark
+    public long getRankOfUser() {
+        return leaderboardIndex.rankOf(rankedUserId, Sort.Order.desc(sortProperty))
+                .orElseThrow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LeaderboardIndex rebuildIndex() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.rebuild(totals.stream());
+        return index;
+    }
+}
@@ -0,0 +1,100 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+import app.quizstream.util.json.ScoreSerializer;
+import app.quizstream.util.ranking.LeaderboardComparators;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former leaderboard pipeline, which formatted every score with String.format and sorted the entries
+ * by that string, with sorting the numeric totals and formatting only the returned page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LeaderboardSortBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    // shape of the leaderboard entry before the score was kept numeric
+    record LegacyLeaderboardEntry(String username, Long numberQuizzes, Long numberAttempts, Long numberQuestions,
+            Long numberCorrectAnswers, String score) {
+    }
+
+    @Param({ "1000000" })
+    private int numberOfUsers;
+
+    private List<LeaderboardTotals> totals;
+    private List<LegacyLeaderboardEntry> legacyEntries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        totals = new ArrayList<>(numberOfUsers);
+        for (int i = 0; i < numberOfUsers; i++) {
+            long quizzes = 1 + random.nextInt(50);
+            long questions = quizzes * (5 + random.nextInt(10));
+            long correct = random.nextLong(questions + 1);
+            totals.add(new LeaderboardTotals(new UUID(random.nextLong(), random.nextLong()), "user_" + i, quizzes,
+                    quizzes + random.nextInt(100), questions, correct, (double) correct / questions * 100.0));
+        }
+
+        legacyEntries = totals.stream()
+                .map(LeaderboardSortBenchmark::toLegacyEntry)
+                .toList();
+    }
+
+    @Benchmark
+    public List<LegacyLeaderboardEntry> sortByLegacyStringScore() {
+        List<LegacyLeaderboardEntry> entries = new ArrayList<>(legacyEntries);
+        entries.sort(Comparator.comparing(LegacyLeaderboardEntry::score)
+                .reversed());
+        return entries;
+    }
+
+    @Benchmark
+    public List<LeaderboardTotals> sortByNumericScore() {
+        List<LeaderboardTotals> entries = new ArrayList<>(totals);
+        entries.sort(LeaderboardComparators.BY_SCORE.reversed());
+        return entries;
+    }
+
+    @Benchmark
+    public void buildAndSortLegacyLeaderboard(Blackhole blackhole) {
+        List<LegacyLeaderboardEntry> entries = new ArrayList<>(totals.size());
+        for (LeaderboardTotals userTotals : totals) {
+            entries.add(toLegacyEntry(userTotals));
+        }
+        entries.sort(Comparator.comparing(LegacyLeaderboardEntry::score)
+                .reversed());
+
+        entries.subList(0, PAGE_SIZE)
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sortAndFormatNumericLeaderboardPage(Blackhole blackhole) {
+        List<LeaderboardTotals> entries = new ArrayList<>(totals);
+        entries.sort(LeaderboardComparators.BY_SCORE.reversed());
+
+        entries.subList(0, PAGE_SIZE)
+                .forEach(entry -> blackhole.consume(ScoreSerializer.format(entry.score())));
+    }
+
+    private static LegacyLeaderboardEntry toLegacyEntry(LeaderboardTotals totals) {
+        return new LegacyLeaderboardEntry(totals.username(), totals.numQuizzes(), totals.numAttempts(),
+                totals.numQuestions(), totals.numCorrect(), String.format("%.2f", totals.score()));
+    }
+}
@@ -0,0 +1,37 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.benchmark.fixture.BenchmarkFixtures;
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.service.QuizCreationSQS;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the quiz creation message published to SQS. Only the message body is built, so no AWS access is
+ * needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizCreationMessageBenchmark {
+
+    private QuizCreationSQS quizCreationSQS;
+    private QuizCreateRequestDto quizCreateRequest;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+
+        quizCreationSQS = new QuizCreationSQS(null, BenchmarkFixtures.objectMapper(), null, null);
+        quizCreateRequest = fixtures.quizCreateRequest(fixtures.user(0), 0);
+    }
+
+    @Benchmark
+    public String createMessageBody() throws Exception {
+        return quizCreationSQS.createMessageBody(quizCreateRequest);
+    }
+}
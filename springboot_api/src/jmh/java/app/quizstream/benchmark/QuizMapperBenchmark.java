@@ -0,0 +1,110 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.benchmark.fixture.BenchmarkFixtures;
+import app.quizstream.dto.quiz.QuizCreateResultDto;
+import app.quizstream.dto.quiz.QuizOutboundDto;
+import app.quizstream.dto.quiz.QuizQuestionDetailsDto;
+import app.quizstream.dto.quiz.QuizRequestDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.embedding.LangchainPGEmbedding;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.repository.projection.QuizQuestion;
+import app.quizstream.util.mapper.QuizMapper;
+import app.quizstream.util.mapper.QuizRequestMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of entities to the DTOs returned by the quiz endpoints, measured per page of 20 quizzes resp. per quiz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private QuizMapper quizMapper;
+    private QuizRequestMapper quizRequestMapper;
+
+    private List<UserQuiz> quizPage;
+    private List<QuizQuestion> questions;
+    private List<QuizRequest> requestPage;
+    private String quizCreateResultJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+
+        quizMapper = new QuizMapper(objectMapper);
+        quizRequestMapper = new QuizRequestMapper();
+
+        User user = fixtures.user(0);
+        quizPage = new ArrayList<>(PAGE_SIZE);
+        requestPage = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            quizPage.add(fixtures.userQuiz(user, i));
+            requestPage.add(fixtures.quizRequest(fixtures.quizCreateRequest(user, i), user));
+        }
+
+        // the questions are read as projections backed by the query's tuples, like the repository returns them
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        questions = new ArrayList<>();
+        for (LangchainPGEmbedding embedding : quizPage.getFirst()
+                .getLangchainCollection()
+                .getEmbeddings()) {
+            questions.add(projectionFactory.createProjection(QuizQuestion.class, Map.of(
+                    "document", embedding.getDocument(),
+                    "cmetadata", embedding.getCmetadata())));
+        }
+
+        quizCreateResultJson = objectMapper.writeValueAsString(Map.of(
+                "user_id", user.getId(),
+                "quiz_id", quizPage.getFirst()
+                        .getId()
+                        .getQuizId(),
+                "quiz_name", "quiz 0"));
+    }
+
+    @Benchmark
+    public void convertToQuizOutboundDtoPage(Blackhole blackhole) {
+        for (UserQuiz userQuiz : quizPage) {
+            QuizOutboundDto dto = quizMapper.convertToQuizOutboundDto(userQuiz);
+            blackhole.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public void convertToQuizDetailsDto(Blackhole blackhole) {
+        for (QuizQuestion question : questions) {
+            QuizQuestionDetailsDto dto = quizMapper.convertToQuizDetailsDto(question);
+            blackhole.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public QuizCreateResultDto convertQuizCreateResult() {
+        return quizMapper.convertToQuizOutboundDto(quizCreateResultJson);
+    }
+
+    @Benchmark
+    public void mapQuizRequestDtoPage(Blackhole blackhole) {
+        for (QuizRequest quizRequest : requestPage) {
+            QuizRequestDto dto = quizRequestMapper.mapFromEntityOutbound(quizRequest);
+            blackhole.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package app.quizstream.benchmark;
+
+import app.quizstream.benchmark.fixture.BenchmarkFixtures;
+import app.quizstream.repository.QuizSearchRepositoryImpl;
+import app.quizstream.util.vector.PgVector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the quiz search query against a local Postgres with pgvector, with and without the HNSW index. The
+ * data is seeded into a separate schema which is dropped afterwards. Connection settings default to the integration
+ * test database and can be overridden with -Dbenchmark.db.url, -Dbenchmark.db.user and -Dbenchmark.db.password.
+ * Excluded from the default benchmark run, see the benchmark profile in the pom for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QuizSearchBenchmark {
+
+    private static final String SCHEMA = "quiz_search_benchmark";
+    private static final int DIMENSIONS = BenchmarkFixtures.EMBEDDING_DIMENSIONS;
+
+    @Param({ "100", "1000" })
+    private int quizzesPerUser;
+
+    @Param({ "true", "false" })
+    private boolean withIndex;
+
+    private final int numberOfUsers = 20;
+
+    private Connection connection;
+    private PreparedStatement search;
+    private UUID userId;
+    private String queryVector;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/quizstream_db_test"),
+                System.getProperty("benchmark.db.user", "admin"),
+                System.getProperty("benchmark.db.password", "my_password"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+            statement.execute("CREATE TABLE langchain_pg_collection (uuid UUID PRIMARY KEY, name VARCHAR NOT NULL)");
+            statement.execute("CREATE TABLE user_quiz (user_id UUID NOT NULL, quiz_id UUID NOT NULL, " +
+                    "quiz_name VARCHAR, PRIMARY KEY (user_id, quiz_id))");
+            statement.execute("CREATE TABLE langchain_pg_embedding (id VARCHAR PRIMARY KEY, collection_id UUID, " +
+                    "embedding vector, document VARCHAR)");
+        }
+
+        seed();
+
+        try (Statement statement = connection.createStatement()) {
+            if (withIndex) {
+                statement.execute("CREATE INDEX ON langchain_pg_embedding USING hnsw " +
+                        "((CAST(embedding AS vector(" + DIMENSIONS + "))) vector_cosine_ops) " +
+                        "WHERE vector_dims(embedding) = " + DIMENSIONS);
+            }
+            statement.execute("ANALYZE");
+            // session wide here, the repository sets both per transaction
+            statement.execute("SET hnsw.iterative_scan = relaxed_order");
+            statement.execute("SET hnsw.ef_search = 100");
+        }
+
+        // the repository uses named parameters, JDBC positional ones
+        String sql = QuizSearchRepositoryImpl.nearestQuestionsQuery(DIMENSIONS)
+                .replace(":queryVector", "?")
+                .replace(":userId", "?")
+                .replace(":excludedQuestionId", "?")
+                .replace(":limit", "?");
+        search = connection.prepareStatement(sql);
+    }
+
+    private void seed() throws SQLException {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures(42);
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement collection = connection.prepareStatement(
+                "INSERT INTO langchain_pg_collection (uuid, name) VALUES (?, ?)");
+                PreparedStatement userQuiz = connection.prepareStatement(
+                        "INSERT INTO user_quiz (user_id, quiz_id) VALUES (?, ?)");
+                PreparedStatement embedding = connection.prepareStatement(
+                        "INSERT INTO langchain_pg_embedding (id, collection_id, embedding, document) " +
+                                "VALUES (?, ?, CAST(? AS vector), ?)")) {
+
+            for (int user = 0; user < numberOfUsers; user++) {
+                UUID seededUserId = UUID.randomUUID();
+                if (user == 0) {
+                    userId = seededUserId;
+                }
+                for (int quiz = 0; quiz < quizzesPerUser; quiz++) {
+                    UUID quizId = UUID.randomUUID();
+                    collection.setObject(1, quizId);
+                    collection.setString(2, "quiz " + quiz + " of " + seededUserId);
+                    collection.addBatch();
+                    userQuiz.setObject(1, seededUserId);
+                    userQuiz.setObject(2, quizId);
+                    userQuiz.addBatch();
+
+                    for (int question = 0; question < BenchmarkFixtures.QUESTIONS_PER_QUIZ; question++) {
+                        embedding.setString(1, UUID.randomUUID()
+                                .toString());
+                        embedding.setObject(2, quizId);
+                        embedding.setString(3, PgVector.format(fixtures.vector()));
+                        embedding.setString(4, "question " + question);
+                        embedding.addBatch();
+                    }
+                }
+                collection.executeBatch();
+                userQuiz.executeBatch();
+                embedding.executeBatch();
+                connection.commit();
+            }
+        }
+
+        connection.setAutoCommit(true);
+        queryVector = PgVector.format(fixtures.vector());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void searchNearestQuestions(Blackhole blackhole) throws SQLException {
+        search.setString(1, queryVector);
+        search.setObject(2, userId);
+        search.setString(3, "");
+        search.setInt(4, 10);
+        try (ResultSet resultSet = search.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getString(3));
+                blackhole.consume(resultSet.getDouble(5));
+            }
+        }
+    }
+}
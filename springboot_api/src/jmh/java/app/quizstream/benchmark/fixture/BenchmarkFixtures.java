@@ -0,0 +1,222 @@
+package app.quizstream.benchmark.fixture;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.CollectionMetadata;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.entity.collection.VideoMetadata;
+import app.quizstream.entity.embedding.Answers;
+import app.quizstream.entity.embedding.EmbeddingMetadata;
+import app.quizstream.entity.embedding.LangchainPGEmbedding;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.entity.request.RequestMetadata;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic, realistically sized test data for the benchmarks: quizzes backed by a video transcript of a
+ * typical 15 minute video, ten questions per quiz and 1536-dimensional embeddings as produced by OpenAI models.
+ */
+public final class BenchmarkFixtures {
+
+    public static final int EMBEDDING_DIMENSIONS = 1536;
+    public static final int QUESTIONS_PER_QUIZ = 10;
+    public static final int TRANSCRIPT_WORDS = 2_500;
+
+    private static final String[] WORDS = { "the", "video", "explains", "how", "energy", "markets", "react", "to",
+            "policy", "changes", "while", "economists", "argue", "about", "inflation", "growth", "and", "climate",
+            "transition", "in", "latin", "america", "europe", "with", "new", "data", "from", "recent", "studies" };
+
+    private final Random random;
+
+    public BenchmarkFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * ObjectMapper configured the way Spring Boot configures the application one.
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .build();
+    }
+
+    public User user(int index) {
+        User user = new User();
+        user.setId(new UUID(random.nextLong(), random.nextLong()));
+        user.setUsername("user_" + index);
+        user.setEmail("user_" + index + "@mail.com");
+        return user;
+    }
+
+    public VideoMetadata videoMetadata() {
+        return new VideoMetadata(
+                randomVideoId(),
+                sentence(8),
+                sentence(60),
+                600 + random.nextInt(1200),
+                "Channel " + random.nextInt(1000),
+                sentence(TRANSCRIPT_WORDS),
+                random.nextInt(5_000_000),
+                "https://i.ytimg.com/vi/" + randomVideoId() + "/hq720.jpg",
+                LocalDate.of(2020, 1, 1)
+                        .plusDays(random.nextInt(1500)));
+    }
+
+    /**
+     * Collection metadata JSON as written by the quiz generator, i.e. the content of langchain_pg_collection.cmetadata.
+     */
+    public String collectionMetadataJson(ObjectMapper objectMapper) {
+        VideoMetadata videoMetadata = videoMetadata();
+        Map<String, Object> json = Map.of("video_metadata", Map.of(
+                "source", videoMetadata.source(),
+                "title", videoMetadata.title(),
+                "description", videoMetadata.description(),
+                "length", videoMetadata.length(),
+                "author", videoMetadata.author(),
+                "transcript", videoMetadata.transcript(),
+                "view_count", videoMetadata.viewCount(),
+                "thumbnail_url", videoMetadata.thumbnailUrl(),
+                "publish_date", videoMetadata.publishDate() + " 00:00:00"));
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public EmbeddingMetadata embeddingMetadata() {
+        int startIndex = random.nextInt(10_000);
+        return new EmbeddingMetadata(
+                UUID.randomUUID()
+                        .toString(),
+                sentence(80),
+                new Answers(sentence(6), List.of(sentence(6), sentence(6), sentence(6))),
+                startIndex,
+                startIndex + 500);
+    }
+
+    public List<Double> embedding() {
+        List<Double> embedding = new ArrayList<>(EMBEDDING_DIMENSIONS);
+        for (int i = 0; i < EMBEDDING_DIMENSIONS; i++) {
+            embedding.add(random.nextGaussian() * 0.05);
+        }
+        return embedding;
+    }
+
+    public float[] vector() {
+        float[] vector = new float[EMBEDDING_DIMENSIONS];
+        for (int i = 0; i < EMBEDDING_DIMENSIONS; i++) {
+            vector[i] = (float) (random.nextGaussian() * 0.05);
+        }
+        return vector;
+    }
+
+    public LangchainPGEmbedding questionEmbedding(UUID collectionId) {
+        LangchainPGEmbedding embedding = new LangchainPGEmbedding();
+        embedding.setId(UUID.randomUUID()
+                .toString());
+        embedding.setCollectionId(collectionId);
+        embedding.setDocument(sentence(15) + "?");
+        embedding.setEmbedding(vector());
+        embedding.setCmetadata(embeddingMetadata());
+        return embedding;
+    }
+
+    public UserQuiz userQuiz(User user, int index) {
+        LangchainPGCollection collection = new LangchainPGCollection();
+        collection.setUuid(UUID.randomUUID());
+        collection.setName("quiz " + index + " of " + user.getUsername());
+        collection.setCmetadata(new CollectionMetadata(videoMetadata()));
+
+        for (int i = 0; i < QUESTIONS_PER_QUIZ; i++) {
+            LangchainPGEmbedding question = questionEmbedding(collection.getUuid());
+            question.setCollection(collection);
+            collection.getEmbeddings()
+                    .add(question);
+        }
+
+        UserQuiz userQuiz = new UserQuiz();
+        userQuiz.setId(new UserQuizId(user.getId(), collection.getUuid()));
+        userQuiz.setUser(user);
+        userQuiz.setLangchainCollection(collection);
+        userQuiz.setNumQuestions(QUESTIONS_PER_QUIZ);
+        userQuiz.setNumTries(random.nextInt(20));
+        userQuiz.setNumCorrect(random.nextInt(userQuiz.getNumTries() * QUESTIONS_PER_QUIZ + 1));
+        userQuiz.setLanguage(UserQuiz.Language.values()[random.nextInt(UserQuiz.Language.values().length)]);
+        userQuiz.setDifficulty(UserQuiz.Difficulty.values()[random.nextInt(UserQuiz.Difficulty.values().length)]);
+        userQuiz.setType(UserQuiz.Type.MULTIPLE_CHOICE);
+        userQuiz.setDateCreated(LocalDateTime.of(2024, 1, 1, 12, 0)
+                .plusMinutes(random.nextInt(500_000)));
+        collection.getUserQuizzes()
+                .add(userQuiz);
+
+        return userQuiz;
+    }
+
+    public QuizCreateRequestDto quizCreateRequest(User user, int index) {
+        return new QuizCreateRequestDto(
+                user.getId(),
+                user.getUsername(),
+                "quiz " + index,
+                "https://www.youtube.com/watch?v=" + randomVideoId(),
+                Map.of("OPENAI_API_KEY", "sk-" + UUID.randomUUID()),
+                UserQuiz.Language.EN,
+                UserQuiz.Type.MULTIPLE_CHOICE,
+                UserQuiz.Difficulty.MEDIUM);
+    }
+
+    public QuizRequest quizRequest(QuizCreateRequestDto quizCreateDto, User user) {
+        return QuizRequest.builder()
+                .id(new QuizRequestId(user.getId(), quizCreateDto.quizName()))
+                .user(user)
+                .requestMetadata(new RequestMetadata(quizCreateDto.videoUrl(), quizCreateDto.language(),
+                        quizCreateDto.difficulty(), quizCreateDto.type()))
+                .build();
+    }
+
+    public List<LeaderboardTotals> leaderboardTotals(int numberOfUsers) {
+        List<LeaderboardTotals> totals = new ArrayList<>(numberOfUsers);
+        for (int i = 0; i < numberOfUsers; i++) {
+            long quizzes = 1 + random.nextInt(50);
+            long questions = quizzes * QUESTIONS_PER_QUIZ;
+            long correct = random.nextLong(questions + 1);
+            totals.add(new LeaderboardTotals(new UUID(random.nextLong(), random.nextLong()), "user_" + i, quizzes,
+                    quizzes + random.nextInt(100), questions, correct, (double) correct / questions * 100.0));
+        }
+        return totals;
+    }
+
+    private String sentence(int words) {
+        StringBuilder builder = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    private String randomVideoId() {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        StringBuilder builder = new StringBuilder(11);
+        for (int i = 0; i < 11; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
@@ -2,17 +2,31 @@ package app.quizstream.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import app.quizstream.security.config.EnvConfigs;
+import app.quizstream.service.SqsBatchPublisher;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
+import java.time.Duration;
+
 @Configuration
 public class AwsConfig {
 
     @Value("${aws.region:us-east-1}")
     private String awsRegion;
 
+    @Value("${quizstream.sqs.batch.max-size:10}")
+    private int batchMaxSize;
+
+    @Value("${quizstream.sqs.batch.max-delay-ms:20}")
+    private long batchMaxDelayMs;
+
     @Bean
     public SqsClient sqsClient() {
         return SqsClient.builder()
@@ -20,4 +34,34 @@ public class AwsConfig {
                 .credentialsProvider(DefaultCredentialsProvider.create())
                 .build();
     }
-}
\ No newline at end of file
+
+    @Value("${quizstream.sqs.async.max-in-flight:64}")
+    private int asyncMaxInFlight;
+
+    @Bean(destroyMethod = "close")
+    @Profile("prod")
+    @ConditionalOnProperty(name = "quizstream.sqs.client", havingValue = "batch", matchIfMissing = true)
+    public SqsBatchPublisher sqsBatchPublisher(SqsClient sqsClient, EnvConfigs envConfigs) {
+        return new SqsBatchPublisher(sqsClient, envConfigs.getSqsQueueUrl(), batchMaxSize,
+                Duration.ofMillis(batchMaxDelayMs));
+    }
+
+    @Bean
+    @Profile("prod")
+    @ConditionalOnProperty(name = "quizstream.sqs.client", havingValue = "async")
+    public SqsAsyncClient sqsAsyncClient() {
+        // one connection per in-flight message, requests beyond that are held back by the initiator
+        return SqsAsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(DefaultCredentialsProvider.create())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxInFlight)
+                        .connectionAcquisitionTimeout(Duration.ofSeconds(2))
+                        .connectionTimeout(Duration.ofSeconds(2))
+                        .readTimeout(Duration.ofSeconds(10))
+                        .writeTimeout(Duration.ofSeconds(10))
+                        .connectionMaxIdleTime(Duration.ofSeconds(60))
+                        .tcpKeepAlive(true))
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package app.quizstream.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Profile("!prod")
+public class QuizCreationExecutorConfig {
+
+    @Value("${quizstream.quiz.http.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${quizstream.quiz.http.queue-capacity:50}")
+    private int queueCapacity;
+
+    // quiz generation calls block for the whole generation, so they run on virtual threads. The pool only bounds
+    // how many run at once and how many may wait, further requests are rejected
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor quizCreationThreadPool() {
+        return new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual()
+                        .name("quiz-creation-", 0)
+                        .factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
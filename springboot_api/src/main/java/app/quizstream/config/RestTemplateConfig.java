@@ -1,8 +1,20 @@
 package app.quizstream.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -11,8 +23,53 @@ import org.springframework.web.client.RestTemplate;
 )
 public class RestTemplateConfig {
 
+    @Value("${quizstream.quiz.http.pool.max-total:20}")
+    private int maxTotal;
+
+    @Value("${quizstream.quiz.http.pool.max-per-route:10}")
+    private int maxPerRoute;
+
+    @Value("${quizstream.quiz.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${quizstream.quiz.http.connection-request-timeout-ms:5000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${quizstream.quiz.http.read-timeout-ms:300000}")
+    private long readTimeoutMs;
+
+    // connections are reused across requests, stale ones are validated before reuse and idle ones evicted
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        // httpcomponents.httpclient.pool.* gauges tagged with httpclient=quiz-generator
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "quiz-generator")
+                .bindTo(meterRegistry);
+
+        return connectionManager;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 }
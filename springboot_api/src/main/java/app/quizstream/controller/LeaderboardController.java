@@ -1,7 +1,10 @@
 package app.quizstream.controller;
 
 import app.quizstream.dto.quiz.*;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.leaderboard.LeaderboardWindow;
 import app.quizstream.exception.ErrorResponse;
+import app.quizstream.service.LeaderboardService;
 import app.quizstream.service.QuizService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,10 +14,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/quizzes")
@@ -22,20 +30,54 @@ import org.springframework.web.bind.annotation.*;
 public class LeaderboardController {
 
     private final QuizService quizService;
+    private final LeaderboardService leaderboardService;
 
-    public LeaderboardController(QuizService quizService) {
+    public LeaderboardController(QuizService quizService, LeaderboardService leaderboardService) {
         this.quizService = quizService;
+        this.leaderboardService = leaderboardService;
     }
 
     // GET leaderboard data
     @GetMapping(value = "/leaderboard", produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Returns leaderboard data")
+    @Operation(summary = "Returns leaderboard data of all time or of the current day or week in UTC, all-time data can be filtered by quiz language and difficulty")
     @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "Filters combined with a daily or weekly window", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Fetching data failed", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "200", description = "Successful retrieval data", content = @Content(schema = @Schema(implementation = QuizLeaderboardEntry.class))),
     })
-    public ResponseEntity<Page<QuizLeaderboardEntry>> getLeaderboardData(Pageable pageable) {
-        Page<QuizLeaderboardEntry> data = quizService.getLeaderboardData(pageable);
+    public ResponseEntity<Page<QuizLeaderboardEntry>> getLeaderboardData(
+            @RequestParam(defaultValue = "ALL_TIME") LeaderboardWindow window,
+            @RequestParam(required = false) UserQuiz.Language language,
+            @RequestParam(required = false) UserQuiz.Difficulty difficulty, Pageable pageable) {
+
+        boolean segmented = language != null || difficulty != null;
+        if (segmented && window.isRolling()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Language and difficulty filters are only supported for the all-time leaderboard.");
+        }
+
+        // the unfiltered all-time leaderboard is served from the leaderboard cache
+        Page<QuizLeaderboardEntry> data;
+        if (window.isRolling()) {
+            data = leaderboardService.getLeaderboard(window, pageable);
+        } else if (segmented) {
+            data = leaderboardService.getLeaderboard(language, difficulty, pageable);
+        } else {
+            data = quizService.getLeaderboardData(pageable);
+        }
         return new ResponseEntity<>(data, HttpStatus.OK);
     }
+
+    // GET leaderboard rank of user
+    @GetMapping(value = "/leaderboard/users/{userId}/rank", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
+    @Operation(summary = "Returns the leaderboard rank of the user for the given sort order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "404", description = "User is not on the leaderboard", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of rank", content = @Content(schema = @Schema(implementation = QuizLeaderboardRankDto.class))),
+    })
+    public ResponseEntity<QuizLeaderboardRankDto> getLeaderboardRank(@PathVariable UUID userId, Sort sort) {
+        QuizLeaderboardRankDto rank = leaderboardService.getRank(userId, sort);
+        return new ResponseEntity<>(rank, HttpStatus.OK);
+    }
 }
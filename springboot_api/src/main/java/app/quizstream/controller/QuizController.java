@@ -1,10 +1,15 @@
 package app.quizstream.controller;
 
 import app.quizstream.dto.quiz.*;
+import app.quizstream.entity.attempt.QuizAttemptRollup;
 import app.quizstream.entity.request.QuizRequest;
 import app.quizstream.exception.ErrorResponse;
+import app.quizstream.service.QuizProgressService;
+import app.quizstream.service.QuizRequestEventService;
 import app.quizstream.service.QuizRequestService;
+import app.quizstream.service.QuizSearchService;
 import app.quizstream.service.QuizService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,13 +19,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -30,10 +42,20 @@ public class QuizController {
 
     private final QuizService quizService;
     private final QuizRequestService quizRequestsService;
-
-    public QuizController(QuizService quizService, QuizRequestService quizJobsService) {
+    private final QuizSearchService quizSearchService;
+    private final QuizRequestEventService quizRequestEventService;
+    private final QuizProgressService quizProgressService;
+    private final ObjectMapper objectMapper;
+
+    public QuizController(QuizService quizService, QuizRequestService quizJobsService,
+            QuizSearchService quizSearchService, QuizRequestEventService quizRequestEventService,
+            QuizProgressService quizProgressService, ObjectMapper objectMapper) {
         this.quizService = quizService;
         this.quizRequestsService = quizJobsService;
+        this.quizSearchService = quizSearchService;
+        this.quizRequestEventService = quizRequestEventService;
+        this.quizProgressService = quizProgressService;
+        this.objectMapper = objectMapper;
     }
 
     // GET quiz by quiz id
@@ -63,6 +85,41 @@ public class QuizController {
         return new ResponseEntity<>(userQuizzes, HttpStatus.OK);
     }
 
+    // GET progress of user over time
+    @GetMapping(value = "/progress", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
+    @Operation(summary = "Returns the attempt totals of the user per hour or day in UTC, buckets without attempts are omitted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "Invalid range", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of progress", content = @Content(array = @ArraySchema(schema = @Schema(implementation = QuizProgressPointDto.class)))),
+    })
+    public ResponseEntity<List<QuizProgressPointDto>> getProgress(@PathVariable UUID userId,
+            @RequestParam(defaultValue = "DAY") QuizAttemptRollup.Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        List<QuizProgressPointDto> progress = quizProgressService.getProgress(userId, granularity, from, to);
+
+        return new ResponseEntity<>(progress, HttpStatus.OK);
+    }
+
+    // SEARCH questions of all quizzes of user by vector similarity
+    @PostMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
+    @Operation(summary = "Returns the questions of the user's quizzes closest to a query vector or an existing question")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful search", content = @Content(array = @ArraySchema(schema = @Schema(implementation = QuizSearchResultDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request: invalid query vector", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Question doesn't exist", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+    })
+    public ResponseEntity<List<QuizSearchResultDto>> searchQuizzes(@PathVariable UUID userId,
+            @Valid @RequestBody QuizSearchRequestDto quizSearchDto) {
+
+        List<QuizSearchResultDto> results = quizSearchService.searchQuestions(userId, quizSearchDto);
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     // CREATE quiz by userid
     @PostMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
@@ -126,6 +183,34 @@ public class QuizController {
         return new ResponseEntity<>(quizDetails, HttpStatus.OK);
     }
 
+    // GET quiz details as newline delimited json, questions are written while they are read from the database
+    @GetMapping(value = "/{quizId}/details", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
+    @Operation(summary = "Streams the questions of a quiz based on provided user and quiz id, one json object per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "404", description = "Quiz details don't exist", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of quiz details", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = QuizQuestionDetailsDto.class))),
+    })
+    public ResponseEntity<StreamingResponseBody> streamQuizDetailsByUserQuizId(@PathVariable UUID userId,
+            @PathVariable UUID quizId) {
+
+        // checked up front so that a missing quiz still results in a 404 before the response is committed
+        quizService.assertQuizExists(userId, quizId);
+
+        StreamingResponseBody body = outputStream -> quizService.streamQuizDetailsByUserQuizId(quizId, question -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(question));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // GET returns list of quiz jobs of user
     @GetMapping(value = "/requests", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
@@ -142,6 +227,15 @@ public class QuizController {
         return new ResponseEntity<>(quizJobs, HttpStatus.OK);
     }
 
+    // GET stream of status changes of the user's quiz jobs
+    @GetMapping(value = "/requests/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("#userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
+    @Operation(summary = "Streams status changes of the quiz requests of given user id as Server-Sent Events")
+    @ApiResponse(responseCode = "200", description = "Stream of 'quiz-request' events", content = @Content(schema = @Schema(implementation = QuizRequestDto.class)))
+    public SseEmitter streamQuizRequestEvents(@PathVariable UUID userId) {
+        return quizRequestEventService.subscribe(userId);
+    }
+
     // DELETE quiz job
     @DeleteMapping("/requests")
     @PreAuthorize("#quizDeleteRequestDto.userId.toString() == principal.claims['sub'] or hasAuthority('ADMIN')")
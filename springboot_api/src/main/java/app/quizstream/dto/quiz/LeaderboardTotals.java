@@ -0,0 +1,19 @@
+package app.quizstream.dto.quiz;
+
+import java.util.UUID;
+
+public record LeaderboardTotals(
+
+        UUID userId,
+        String username,
+        long numQuizzes,
+        long numAttempts,
+        long numQuestions,
+        long numCorrect,
+        double score) {
+
+    // users only show up on the leaderboard once they solved at least one question
+    public boolean isRanked() {
+        return numQuizzes > 0 && numAttempts > 0 && numCorrect > 0;
+    }
+}
@@ -1,5 +1,8 @@
 package app.quizstream.dto.quiz;
 
+import app.quizstream.util.json.ScoreSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 
 public record QuizLeaderboardEntry(
@@ -9,6 +12,7 @@ public record QuizLeaderboardEntry(
         @NotNull Long numberAttempts,
         @NotNull Long numberQuestions,
         @NotNull Long numberCorrectAnswers,
-        @NotNull String score) {
+        @Schema(type = "string", example = "87.50")
+        @JsonSerialize(using = ScoreSerializer.class) double score) {
 
 }
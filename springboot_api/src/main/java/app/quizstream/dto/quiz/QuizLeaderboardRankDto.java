@@ -0,0 +1,14 @@
+package app.quizstream.dto.quiz;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record QuizLeaderboardRankDto(
+
+        @NotNull UUID userId,
+        @NotNull Long rank,
+        @NotNull Long numberRanked,
+        @NotNull QuizLeaderboardEntry entry) {
+
+}
@@ -0,0 +1,20 @@
+package app.quizstream.dto.quiz;
+
+import app.quizstream.util.json.ScoreSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+// totals of the attempts made in the hour or day starting at bucketStart, in UTC
+public record QuizProgressPointDto(
+
+        @NotNull LocalDateTime bucketStart,
+        @NotNull Long numberAttempts,
+        @NotNull Long numberQuestions,
+        @NotNull Long numberCorrectAnswers,
+        @Schema(type = "string", example = "87.50")
+        @JsonSerialize(using = ScoreSerializer.class) double score) {
+
+}
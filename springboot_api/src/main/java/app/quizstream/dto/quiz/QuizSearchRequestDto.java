@@ -0,0 +1,13 @@
+package app.quizstream.dto.quiz;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Either a query vector or the id of one of the user's questions whose embedding is used as query vector.
+ */
+public record QuizSearchRequestDto(
+        float[] queryVector,
+        String questionId,
+        @Min(1) @Max(100) Integer limit) {
+}
@@ -0,0 +1,13 @@
+package app.quizstream.dto.quiz;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record QuizSearchResultDto(
+        @NotNull UUID quizId,
+        @NotNull String quizName,
+        @NotNull String questionId,
+        @NotNull String question,
+        @NotNull Double distance) {
+}
@@ -40,11 +40,16 @@ public class UserQuiz {
     @JoinColumn(name = "user_id", nullable = false, referencedColumnName = "id")
     private User user;
 
-    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    // generated quizzes may be shared between users, see QuizDeduplicationService
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("quizId")
     @JoinColumn(name = "quiz_id", nullable = false, referencedColumnName = "uuid")
     private LangchainPGCollection langchainCollection;
 
+    // name chosen by the user, overrides the collection name if the collection is shared
+    @Column(name = "quiz_name")
+    private String quizName;
+
     @Column(name = "num_tries", nullable = false, columnDefinition = "int default 0")
     private int numTries = 0;
 
@@ -69,5 +74,9 @@ public class UserQuiz {
     @Column(name = "date_created", nullable = false, updatable = false)
     private LocalDateTime dateCreated;
 
+    public String getDisplayName() {
+        return quizName != null ? quizName : langchainCollection.getName();
+    }
+
 
 }
\ No newline at end of file
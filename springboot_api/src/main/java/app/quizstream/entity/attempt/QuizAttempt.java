@@ -0,0 +1,45 @@
+package app.quizstream.entity.attempt;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A single attempt of a quiz. The log is append-only and written in batches by {@code QuizAttemptLog}, progress over
+ * time is read from {@link QuizAttemptRollup} instead. Kept when the quiz is deleted, removed with the user.
+ */
+@Entity
+@Table(name = "quiz_attempt", indexes = @Index(name = "ix_quiz_attempt_user_id", columnList = "user_id, attempted_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class QuizAttempt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "quiz_id", nullable = false, updatable = false)
+    private UUID quizId;
+
+    // UTC, bound as a plain LocalDateTime like the JDBC writes of QuizAttemptLog
+    @JdbcTypeCode(SqlTypes.LOCAL_DATE_TIME)
+    @Column(name = "attempted_at", nullable = false, updatable = false)
+    private LocalDateTime attemptedAt;
+
+    @Column(name = "num_correct", nullable = false, updatable = false)
+    private int numCorrect;
+
+    @Column(name = "num_questions", nullable = false, updatable = false)
+    private int numQuestions;
+
+}
@@ -0,0 +1,53 @@
+package app.quizstream.entity.attempt;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Attempt totals of a user per hour or day, incremented whenever attempts are written to the {@link QuizAttempt} log,
+ * so that progress series only read one row per bucket no matter how many attempts were made.
+ */
+@Entity
+@Table(name = "quiz_attempt_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+public class QuizAttemptRollup {
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime bucketOf(LocalDateTime timestamp) {
+            return timestamp.truncatedTo(unit);
+        }
+
+        public Duration getDuration() {
+            return unit.getDuration();
+        }
+    }
+
+    @EmbeddedId
+    private QuizAttemptRollupId id;
+
+    @Column(name = "num_attempts", nullable = false)
+    private long numAttempts;
+
+    @Column(name = "num_correct", nullable = false)
+    private long numCorrect;
+
+    @Column(name = "num_questions", nullable = false)
+    private long numQuestions;
+
+}
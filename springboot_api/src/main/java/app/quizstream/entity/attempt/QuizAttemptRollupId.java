@@ -0,0 +1,35 @@
+package app.quizstream.entity.attempt;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizAttemptRollupId implements Serializable {
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 16)
+    private QuizAttemptRollup.Granularity granularity;
+
+    // UTC, bound as a plain LocalDateTime like the JDBC writes of QuizAttemptLog
+    @JdbcTypeCode(SqlTypes.LOCAL_DATE_TIME)
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+}
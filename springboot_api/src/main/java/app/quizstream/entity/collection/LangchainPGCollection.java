@@ -41,6 +41,7 @@ public class LangchainPGCollection {
     @OneToMany(mappedBy = "collection", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<LangchainPGEmbedding> embeddings = new ArrayList<>();
 
-    @OneToOne(mappedBy = "langchainCollection", cascade = CascadeType.ALL, orphanRemoval = true)
-    private UserQuiz userQuiz;
+    // quizzes referencing this collection, the collection is deleted together with the last one
+    @OneToMany(mappedBy = "langchainCollection", fetch = FetchType.LAZY)
+    private List<UserQuiz> userQuizzes = new ArrayList<>();
 }
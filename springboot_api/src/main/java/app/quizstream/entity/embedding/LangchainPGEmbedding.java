@@ -1,7 +1,6 @@
 package app.quizstream.entity.embedding;
 
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
-import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,8 +8,8 @@ import lombok.Setter;
 import org.hibernate.annotations.Type;
 
 import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.util.vector.FloatVectorType;
 
-import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -27,9 +26,9 @@ public class LangchainPGEmbedding {
     @Column(name = "collection_id")
     private UUID collectionId;
 
-    @Type(JsonType.class)
+    @Type(FloatVectorType.class)
     @Column(name = "embedding", columnDefinition = "vector", insertable = false, updatable = false)
-    private List<Double> embedding;
+    private float[] embedding;
 
     @Column(name = "document")
     private String document;
@@ -0,0 +1,15 @@
+package app.quizstream.entity.leaderboard;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Domain event of leaderboard totals that were refreshed or removed by this service, applied to the in-memory
+ * leaderboard index once the transaction that wrote them committed.
+ */
+public record LeaderboardTotalsChanged(List<LeaderboardTotals> updated, Collection<UUID> removedUserIds) {
+
+}
@@ -0,0 +1,28 @@
+package app.quizstream.entity.leaderboard;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time span a leaderboard covers. Daily and weekly leaderboards start at midnight UTC, weeks on Monday, and roll over
+ * to a new window without resetting anything, the totals of the new window simply start out empty.
+ */
+public enum LeaderboardWindow {
+    DAILY, WEEKLY, ALL_TIME;
+
+    public boolean isRolling() {
+        return this != ALL_TIME;
+    }
+
+    // start of the window containing the given UTC time
+    public LocalDateTime startOf(LocalDateTime timestamp) {
+        LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAILY -> day;
+            case WEEKLY -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case ALL_TIME -> LocalDateTime.MIN;
+        };
+    }
+}
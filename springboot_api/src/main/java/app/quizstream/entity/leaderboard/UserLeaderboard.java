@@ -0,0 +1,51 @@
+package app.quizstream.entity.leaderboard;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user leaderboard totals, kept up to date whenever one of the users quizzes is created, attempted or deleted,
+ * so that leaderboard pages can be sorted and sliced by the database instead of aggregating every user in memory.
+ */
+@Entity
+@Table(name = "user_leaderboard")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserLeaderboard {
+
+    @Id
+    @Column(name = "user_id", updatable = false, nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "num_quizzes", nullable = false)
+    private long numQuizzes;
+
+    @Column(name = "num_attempts", nullable = false)
+    private long numAttempts;
+
+    @Column(name = "num_questions", nullable = false)
+    private long numQuestions;
+
+    @Column(name = "num_correct", nullable = false)
+    private long numCorrect;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "date_modified", nullable = false)
+    private LocalDateTime dateModified;
+
+    // tombstone of a removed user, its totals are zeroed and the row is purged once every instance synced it
+    @Column(nullable = false)
+    private boolean deleted;
+
+}
@@ -0,0 +1,48 @@
+package app.quizstream.entity.leaderboard;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user leaderboard totals restricted to the quizzes of one language and/or difficulty, {@link #ANY} stands for
+ * all values of the other one. Refreshed together with {@link UserLeaderboard}, the totals over all quizzes are kept
+ * there only.
+ */
+@Entity
+@Table(name = "user_leaderboard_segment")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserLeaderboardSegment {
+
+    public static final String ANY = "ANY";
+
+    @EmbeddedId
+    private UserLeaderboardSegmentId id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "num_quizzes", nullable = false)
+    private long numQuizzes;
+
+    @Column(name = "num_attempts", nullable = false)
+    private long numAttempts;
+
+    @Column(name = "num_questions", nullable = false)
+    private long numQuestions;
+
+    @Column(name = "num_correct", nullable = false)
+    private long numCorrect;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "date_modified", nullable = false)
+    private LocalDateTime dateModified;
+
+}
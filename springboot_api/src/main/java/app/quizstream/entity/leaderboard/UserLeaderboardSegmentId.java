@@ -0,0 +1,29 @@
+package app.quizstream.entity.leaderboard;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserLeaderboardSegmentId implements Serializable {
+
+    // a UserQuiz.Language or ANY
+    @Column(name = "language", length = 16)
+    private String language;
+
+    // a UserQuiz.Difficulty or ANY
+    @Column(name = "difficulty", length = 16)
+    private String difficulty;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+}
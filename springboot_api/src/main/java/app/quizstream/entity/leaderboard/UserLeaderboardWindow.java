@@ -0,0 +1,40 @@
+package app.quizstream.entity.leaderboard;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-user leaderboard totals of a daily or weekly window, incremented whenever attempts are written to the attempt
+ * log. Quizzes count the distinct quizzes attempted in the window. Rows of past windows are purged on schedule.
+ */
+@Entity
+@Table(name = "user_leaderboard_window")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserLeaderboardWindow {
+
+    @EmbeddedId
+    private UserLeaderboardWindowId id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "num_quizzes", nullable = false)
+    private long numQuizzes;
+
+    @Column(name = "num_attempts", nullable = false)
+    private long numAttempts;
+
+    @Column(name = "num_questions", nullable = false)
+    private long numQuestions;
+
+    @Column(name = "num_correct", nullable = false)
+    private long numCorrect;
+
+    @Column(nullable = false)
+    private double score;
+
+}
@@ -0,0 +1,35 @@
+package app.quizstream.entity.leaderboard;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserLeaderboardWindowId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leaderboard_window", length = 16)
+    private LeaderboardWindow window;
+
+    // UTC, bound as a plain LocalDateTime like the JDBC writes of QuizAttemptLog so no JDBC time zone shifts it
+    @JdbcTypeCode(SqlTypes.LOCAL_DATE_TIME)
+    @Column(name = "window_start")
+    private LocalDateTime windowStart;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+}
@@ -0,0 +1,61 @@
+package app.quizstream.entity.outbox;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Quiz creation request that still has to be handed to the quiz generator. Written in the same transaction as the
+ * quiz request and deleted by {@code QuizRequestOutboxRelay} once the request was passed on. The payload holds no
+ * secrets, the API keys are stored encrypted next to it.
+ */
+@Entity
+@Table(name = "quiz_request_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class QuizRequestOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "quiz_name", nullable = false, updatable = false)
+    private String quizName;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // encrypted JSON object of the API keys
+    @Column(name = "api_keys", updatable = false, columnDefinition = "TEXT")
+    private String apiKeys;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "date_created", nullable = false, updatable = false)
+    private LocalDateTime dateCreated;
+
+    public QuizRequestOutbox(UUID userId, String quizName, String payload, String apiKeys) {
+        this.userId = userId;
+        this.quizName = quizName;
+        this.payload = payload;
+        this.apiKeys = apiKeys;
+        this.dateCreated = LocalDateTime.now();
+        this.nextAttemptAt = this.dateCreated;
+    }
+
+}
@@ -4,6 +4,7 @@ import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Type;
+import org.springframework.data.domain.AbstractAggregateRoot;
 
 import app.quizstream.entity.User;
 
@@ -17,7 +18,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "quiz_requests")
-public class QuizRequest {
+public class QuizRequest extends AbstractAggregateRoot<QuizRequest> {
 
     public enum Status {
         CREATING, PROCESSING, FINISHED, FAILED, QUEUED
@@ -68,6 +69,8 @@ public class QuizRequest {
         this.messageInternal = messageInternal;
         this.messageExternal = messageExternal;
         this.dateModified = LocalDateTime.now();
+        // published by the repository on save, see QuizRequestEventService
+        registerEvent(new QuizRequestStatusChanged(this));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package app.quizstream.entity.request;
+
+/**
+ * Domain event of a quiz request whose state was updated by this service.
+ */
+public record QuizRequestStatusChanged(QuizRequest quizRequest) {
+
+}
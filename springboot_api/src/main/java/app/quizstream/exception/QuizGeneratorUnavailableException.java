@@ -0,0 +1,9 @@
+package app.quizstream.exception;
+
+public class QuizGeneratorUnavailableException extends RuntimeException {
+
+    public QuizGeneratorUnavailableException(String reason) {
+        super(String.format("Quiz generator call rejected: %s", reason));
+    }
+
+}
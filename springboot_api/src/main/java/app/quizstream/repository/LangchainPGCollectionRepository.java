@@ -1,6 +1,9 @@
 package app.quizstream.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import app.quizstream.entity.collection.LangchainPGCollection;
 
@@ -11,5 +14,37 @@ public interface LangchainPGCollectionRepository extends JpaRepository<Langchain
 
     Optional<LangchainPGCollection> findByName(String quizName);
 
+    boolean existsByName(String quizName);
+
+    // row lock serializing the reference counting of shared collections
+    @Query(value = "SELECT uuid FROM langchain_pg_collection WHERE uuid = :uuid FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockForUpdate(@Param("uuid") UUID uuid);
+
+    @Modifying
+    @Query(value = "UPDATE langchain_pg_collection SET name = :name WHERE uuid = :uuid", nativeQuery = true)
+    int rename(@Param("uuid") UUID uuid, @Param("name") String name);
+
+    @Modifying
+    @Query(value = "DELETE FROM langchain_pg_embedding WHERE collection_id = :uuid", nativeQuery = true)
+    int deleteEmbeddings(@Param("uuid") UUID uuid);
+
+    @Modifying
+    @Query(value = "DELETE FROM langchain_pg_collection WHERE uuid = :uuid", nativeQuery = true)
+    int deleteCollection(@Param("uuid") UUID uuid);
+
+    @Modifying
+    @Query(value = "INSERT INTO langchain_pg_collection (uuid, name, cmetadata) " +
+            "SELECT :targetId, :name, cmetadata FROM langchain_pg_collection WHERE uuid = :sourceId",
+            nativeQuery = true)
+    int copyCollection(@Param("sourceId") UUID sourceId, @Param("targetId") UUID targetId,
+            @Param("name") String name);
+
+    // copies the questions including their embeddings, every copy gets a new id
+    @Modifying
+    @Query(value = "INSERT INTO langchain_pg_embedding (id, collection_id, embedding, document, cmetadata) " +
+            "SELECT CAST(gen_random_uuid() AS varchar), :targetId, embedding, document, cmetadata " +
+            "FROM langchain_pg_embedding WHERE collection_id = :sourceId", nativeQuery = true)
+    int copyEmbeddings(@Param("sourceId") UUID sourceId, @Param("targetId") UUID targetId);
+
 
 }
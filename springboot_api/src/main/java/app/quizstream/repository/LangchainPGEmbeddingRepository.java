@@ -1,9 +1,35 @@
 package app.quizstream.repository;
 
+import app.quizstream.repository.projection.QuizQuestion;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import app.quizstream.entity.embedding.LangchainPGEmbedding;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface LangchainPGEmbeddingRepository extends JpaRepository<LangchainPGEmbedding, String> {
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface LangchainPGEmbeddingRepository extends JpaRepository<LangchainPGEmbedding, String>,
+        QuizSearchRepository {
+
+    String FIND_QUESTIONS = "SELECT e.document AS document, e.cmetadata AS cmetadata " +
+            "FROM LangchainPGEmbedding e WHERE e.collectionId = :collectionId";
+
+    long countByCollectionId(UUID collectionId);
+
+    @Query(FIND_QUESTIONS)
+    List<QuizQuestion> findQuestionsByCollectionId(@Param("collectionId") UUID collectionId);
+
+    // must be consumed within a transaction, rows are read from a cursor in batches of the fetch size
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "50"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    @Query(FIND_QUESTIONS)
+    Stream<QuizQuestion> streamQuestionsByCollectionId(@Param("collectionId") UUID collectionId);
 
 }
@@ -0,0 +1,16 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.attempt.QuizAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+
+    @Modifying
+    @Query("DELETE FROM QuizAttempt a WHERE a.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,28 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.attempt.QuizAttemptRollup;
+import app.quizstream.entity.attempt.QuizAttemptRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizAttemptRollupRepository extends JpaRepository<QuizAttemptRollup, QuizAttemptRollupId> {
+
+    // range scan on the primary key, buckets without attempts have no row
+    @Query("SELECT r FROM QuizAttemptRollup r " +
+            "WHERE r.id.userId = :userId AND r.id.granularity = :granularity " +
+            "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+            "ORDER BY r.id.bucketStart")
+    List<QuizAttemptRollup> findSeries(@Param("userId") UUID userId,
+            @Param("granularity") QuizAttemptRollup.Granularity granularity, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM QuizAttemptRollup r WHERE r.id.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
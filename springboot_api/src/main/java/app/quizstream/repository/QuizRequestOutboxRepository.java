@@ -0,0 +1,22 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.outbox.QuizRequestOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface QuizRequestOutboxRepository extends JpaRepository<QuizRequestOutbox, Long> {
+
+    // only the oldest entry of each user is due so that requests of a user are relayed in order, entries locked by
+    // another relay are skipped instead of waited for
+    @Query(value = "SELECT o.* FROM quiz_request_outbox o " +
+            "WHERE o.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT 1 FROM quiz_request_outbox p WHERE p.user_id = o.user_id AND p.id < o.id) " +
+            "ORDER BY o.id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<QuizRequestOutbox> lockDueEntries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
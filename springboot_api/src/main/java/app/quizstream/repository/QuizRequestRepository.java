@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface QuizRequestRepository extends JpaRepository<QuizRequest, QuizRequestId> {
@@ -19,4 +20,17 @@ public interface QuizRequestRepository extends JpaRepository<QuizRequest, QuizRe
             "AND (:status IS NULL OR req.status = :status)")
     Page<QuizRequest> findByUserIdAndIsDeletedFalseAndStatus(
             @Param("userId") UUID userId, @Param("status") QuizRequest.Status status, Pageable pageable);
+
+    // most recent finished quiz generated from the same video and settings that still exists
+    @Query(value = "SELECT r.quiz_id FROM quiz_requests r " +
+            "JOIN user_quiz uq ON uq.quiz_id = r.quiz_id " +
+            "WHERE r.status = 'FINISHED' " +
+            "AND r.request_metadata ->> 'videoUrl' = :videoUrl " +
+            "AND r.request_metadata ->> 'language' = :language " +
+            "AND r.request_metadata ->> 'difficulty' = :difficulty " +
+            "AND r.request_metadata ->> 'type' = :type " +
+            "ORDER BY r.date_modified DESC NULLS LAST " +
+            "LIMIT 1", nativeQuery = true)
+    Optional<UUID> findFinishedQuizIdByRequestMetadata(@Param("videoUrl") String videoUrl,
+            @Param("language") String language, @Param("difficulty") String difficulty, @Param("type") String type);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.QuizSearchResultDto;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface QuizSearchRepository {
+
+    /**
+     * Returns the questions of the user's quizzes closest to the given vector by cosine distance, excluding the
+     * question with the given id if present.
+     */
+    List<QuizSearchResultDto> findNearestQuestions(UUID userId, float[] queryVector, String excludedQuestionId,
+            int limit);
+
+    Optional<float[]> findQuestionVector(UUID userId, String questionId);
+}
@@ -0,0 +1,100 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.QuizSearchResultDto;
+import app.quizstream.util.vector.PgVector;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class QuizSearchRepositoryImpl implements QuizSearchRepository {
+
+    private static final String FIND_QUESTION_VECTOR = "SELECT CAST(e.embedding AS text) " +
+            "FROM langchain_pg_embedding e JOIN user_quiz uq ON uq.quiz_id = e.collection_id " +
+            "WHERE uq.user_id = :userId AND e.id = :questionId";
+
+    // scoped to the transaction, see nearestQuestionsQuery
+    private static final String CONFIGURE_INDEX_SCAN = "SELECT " +
+            "set_config('hnsw.iterative_scan', 'relaxed_order', true), " +
+            "set_config('hnsw.ef_search', :efSearch, true)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String findNearestQuestions;
+    private final int efSearch;
+
+    public QuizSearchRepositoryImpl(@Value("${quizstream.search.embedding-dimensions}") int embeddingDimensions,
+            @Value("${quizstream.search.ef-search:100}") int efSearch) {
+        this.findNearestQuestions = nearestQuestionsQuery(embeddingDimensions);
+        this.efSearch = efSearch;
+    }
+
+    /**
+     * The embedding column has no fixed dimension, so the HNSW index is built on the expression
+     * {@code embedding::vector(n)} restricted to vectors of that dimension (see V0_4 migration). The query repeats
+     * both verbatim with the dimension inlined, otherwise the planner can not match the partial expression index.
+     * <p>
+     * The index is shared by all users and the user filter is applied to the candidates it returns, so a user with
+     * few questions would get short or empty results from a single pass. The scan is therefore run iteratively until
+     * enough rows pass the filter, in relaxed order, which is why the candidates are sorted again.
+     */
+    public static String nearestQuestionsQuery(int embeddingDimensions) {
+        String vector = "CAST(e.embedding AS vector(" + embeddingDimensions + "))";
+        return "WITH candidates AS MATERIALIZED (" +
+                "SELECT e.collection_id, COALESCE(uq.quiz_name, c.name) AS quiz_name, e.id, e.document, " +
+                vector + " <=> CAST(:queryVector AS vector(" + embeddingDimensions + ")) AS distance " +
+                "FROM langchain_pg_embedding e " +
+                "JOIN user_quiz uq ON uq.quiz_id = e.collection_id " +
+                "JOIN langchain_pg_collection c ON c.uuid = e.collection_id " +
+                "WHERE uq.user_id = :userId AND vector_dims(e.embedding) = " + embeddingDimensions + " " +
+                "AND e.id <> :excludedQuestionId " +
+                "ORDER BY distance " +
+                "LIMIT :limit) " +
+                "SELECT * FROM candidates ORDER BY distance";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<QuizSearchResultDto> findNearestQuestions(UUID userId, float[] queryVector,
+            String excludedQuestionId, int limit) {
+
+        entityManager.createNativeQuery(CONFIGURE_INDEX_SCAN)
+                .setParameter("efSearch", String.valueOf(efSearch))
+                .getSingleResult();
+
+        List<Object[]> rows = entityManager.createNativeQuery(findNearestQuestions)
+                .setParameter("userId", userId)
+                .setParameter("queryVector", PgVector.format(queryVector))
+                .setParameter("excludedQuestionId", excludedQuestionId == null ? "" : excludedQuestionId)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new QuizSearchResultDto(
+                        (UUID) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        ((Number) row[4]).doubleValue()))
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<float[]> findQuestionVector(UUID userId, String questionId) {
+        List<String> vectors = entityManager.createNativeQuery(FIND_QUESTION_VECTOR)
+                .setParameter("userId", userId)
+                .setParameter("questionId", questionId)
+                .getResultList();
+
+        return vectors.stream()
+                .findFirst()
+                .map(PgVector::parse);
+    }
+}
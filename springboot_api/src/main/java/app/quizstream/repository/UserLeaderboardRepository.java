@@ -0,0 +1,83 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+import app.quizstream.entity.leaderboard.UserLeaderboard;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface UserLeaderboardRepository extends JpaRepository<UserLeaderboard, UUID> {
+
+    String UPSERT_TOTALS = "INSERT INTO user_leaderboard " +
+            "(user_id, username, num_quizzes, num_attempts, num_questions, num_correct, score, date_modified) " +
+            "SELECT u.id, u.username, COUNT(uq.quiz_id), " +
+            "COALESCE(SUM(uq.num_tries), 0), COALESCE(SUM(uq.num_questions), 0), COALESCE(SUM(uq.num_correct), 0), " +
+            "CASE WHEN COALESCE(SUM(uq.num_questions), 0) > 0 " +
+            "THEN CAST(SUM(uq.num_correct) * 100.0 / SUM(uq.num_questions) AS double precision) ELSE 0 END, " +
+            "now() " +
+            "FROM users u LEFT JOIN user_quiz uq ON uq.user_id = u.id ";
+
+    String ON_CONFLICT_UPDATE = " GROUP BY u.id, u.username " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "username = EXCLUDED.username, " +
+            "num_quizzes = EXCLUDED.num_quizzes, " +
+            "num_attempts = EXCLUDED.num_attempts, " +
+            "num_questions = EXCLUDED.num_questions, " +
+            "num_correct = EXCLUDED.num_correct, " +
+            "score = EXCLUDED.score, " +
+            "date_modified = EXCLUDED.date_modified, " +
+            "deleted = false";
+
+    @Query("SELECT lb " +
+            "FROM UserLeaderboard lb " +
+            "WHERE lb.numQuizzes > 0 AND lb.numAttempts > 0 AND lb.numCorrect > 0")
+    Page<UserLeaderboard> findRanked(Pageable pageable);
+
+    @Modifying
+    @Query(value = UPSERT_TOTALS + "WHERE u.id = :userId" + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int refreshForUser(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = UPSERT_TOTALS + "WHERE u.id IN (:userIds)" + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int refreshForUsers(@Param("userIds") Collection<UUID> userIds);
+
+    // other instances only learn about the removal through the modified row, see LeaderboardService#syncIndex
+    @Modifying
+    @Query(value = "UPDATE user_leaderboard SET deleted = true, num_quizzes = 0, num_attempts = 0, " +
+            "num_questions = 0, num_correct = 0, score = 0, date_modified = now() " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int markDeleted(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_leaderboard " +
+            "WHERE deleted AND date_modified < now() - make_interval(secs => :retentionSeconds)", nativeQuery = true)
+    int deleteTombstones(@Param("retentionSeconds") long retentionSeconds);
+
+    @Query(value = "SELECT DISTINCT qr.user_id FROM quiz_requests qr " +
+            "WHERE qr.status = 'FINISHED' AND qr.date_modified >= now() - make_interval(secs => :lookbackSeconds)",
+            nativeQuery = true)
+    List<UUID> findUsersWithRecentlyFinishedRequests(@Param("lookbackSeconds") long lookbackSeconds);
+
+    @Query(value = "SELECT * FROM user_leaderboard " +
+            "WHERE date_modified >= now() - make_interval(secs => :lookbackSeconds)", nativeQuery = true)
+    List<UserLeaderboard> findRecentlyModified(@Param("lookbackSeconds") long lookbackSeconds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new app.quizstream.dto.quiz.LeaderboardTotals(" +
+            "lb.userId, lb.username, lb.numQuizzes, lb.numAttempts, lb.numQuestions, lb.numCorrect, lb.score) " +
+            "FROM UserLeaderboard lb " +
+            "WHERE lb.numQuizzes > 0 AND lb.numAttempts > 0 AND lb.numCorrect > 0")
+    Stream<LeaderboardTotals> streamRankedTotals();
+}
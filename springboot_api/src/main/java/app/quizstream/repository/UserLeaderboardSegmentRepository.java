@@ -0,0 +1,71 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.leaderboard.UserLeaderboardSegment;
+import app.quizstream.entity.leaderboard.UserLeaderboardSegmentId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserLeaderboardSegmentRepository
+        extends JpaRepository<UserLeaderboardSegment, UserLeaderboardSegmentId> {
+
+    // language only, difficulty only and both, the totals over all quizzes are kept in user_leaderboard
+    @Modifying
+    @Query(value = "INSERT INTO user_leaderboard_segment " +
+            "(language, difficulty, user_id, username, num_quizzes, num_attempts, num_questions, num_correct, " +
+            "score, date_modified) " +
+            "SELECT CASE WHEN GROUPING(uq.language) = 1 THEN 'ANY' ELSE uq.language END, " +
+            "CASE WHEN GROUPING(uq.difficulty) = 1 THEN 'ANY' ELSE uq.difficulty END, " +
+            "u.id, u.username, COUNT(uq.quiz_id), SUM(uq.num_tries), SUM(uq.num_questions), SUM(uq.num_correct), " +
+            "CASE WHEN SUM(uq.num_questions) > 0 " +
+            "THEN CAST(SUM(uq.num_correct) * 100.0 / SUM(uq.num_questions) AS double precision) ELSE 0 END, " +
+            "now() " +
+            "FROM users u JOIN user_quiz uq ON uq.user_id = u.id " +
+            "WHERE u.id IN (:userIds) " +
+            "GROUP BY GROUPING SETS ((u.id, u.username, uq.language, uq.difficulty), " +
+            "(u.id, u.username, uq.language), (u.id, u.username, uq.difficulty)) " +
+            "ON CONFLICT (language, difficulty, user_id) DO UPDATE SET " +
+            "username = EXCLUDED.username, " +
+            "num_quizzes = EXCLUDED.num_quizzes, " +
+            "num_attempts = EXCLUDED.num_attempts, " +
+            "num_questions = EXCLUDED.num_questions, " +
+            "num_correct = EXCLUDED.num_correct, " +
+            "score = EXCLUDED.score, " +
+            "date_modified = EXCLUDED.date_modified", nativeQuery = true)
+    int refreshForUsers(@Param("userIds") Collection<UUID> userIds);
+
+    // segments the users no longer have quizzes in were not touched by the refresh of this transaction
+    @Modifying
+    @Query(value = "DELETE FROM user_leaderboard_segment " +
+            "WHERE user_id IN (:userIds) AND date_modified < now()", nativeQuery = true)
+    int deleteStaleForUsers(@Param("userIds") Collection<UUID> userIds);
+
+    // users that have quizzes but no segment rows yet, e.g. because they were ranked before segments existed
+    @Query(value = "SELECT DISTINCT uq.user_id FROM user_quiz uq " +
+            "WHERE uq.user_id > :lastUserId AND NOT EXISTS " +
+            "(SELECT 1 FROM user_leaderboard_segment s WHERE s.user_id = uq.user_id) " +
+            "ORDER BY uq.user_id LIMIT :limit", nativeQuery = true)
+    List<UUID> findUsersWithoutSegmentsAfter(@Param("lastUserId") UUID lastUserId, @Param("limit") int limit);
+
+    // served by the partial index of the sort column, the total is counted separately so it can be cached
+    @Query("SELECT lb FROM UserLeaderboardSegment lb " +
+            "WHERE lb.id.language = :language AND lb.id.difficulty = :difficulty " +
+            "AND lb.numQuizzes > 0 AND lb.numAttempts > 0 AND lb.numCorrect > 0")
+    List<UserLeaderboardSegment> findRanked(@Param("language") String language,
+            @Param("difficulty") String difficulty, Pageable pageable);
+
+    @Query("SELECT COUNT(lb) FROM UserLeaderboardSegment lb " +
+            "WHERE lb.id.language = :language AND lb.id.difficulty = :difficulty " +
+            "AND lb.numQuizzes > 0 AND lb.numAttempts > 0 AND lb.numCorrect > 0")
+    long countRanked(@Param("language") String language, @Param("difficulty") String difficulty);
+
+    @Modifying
+    @Query("DELETE FROM UserLeaderboardSegment lb WHERE lb.id.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
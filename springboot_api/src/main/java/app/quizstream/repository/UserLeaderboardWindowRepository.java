@@ -0,0 +1,36 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.leaderboard.LeaderboardWindow;
+import app.quizstream.entity.leaderboard.UserLeaderboardWindow;
+import app.quizstream.entity.leaderboard.UserLeaderboardWindowId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserLeaderboardWindowRepository
+        extends JpaRepository<UserLeaderboardWindow, UserLeaderboardWindowId> {
+
+    // served by the partial index of the sort column, the total is counted separately so it can be cached
+    @Query("SELECT lb FROM UserLeaderboardWindow lb " +
+            "WHERE lb.id.window = :window AND lb.id.windowStart = :windowStart AND lb.numCorrect > 0")
+    List<UserLeaderboardWindow> findRanked(@Param("window") LeaderboardWindow window,
+            @Param("windowStart") LocalDateTime windowStart, Pageable pageable);
+
+    @Query("SELECT COUNT(lb) FROM UserLeaderboardWindow lb " +
+            "WHERE lb.id.window = :window AND lb.id.windowStart = :windowStart AND lb.numCorrect > 0")
+    long countRanked(@Param("window") LeaderboardWindow window, @Param("windowStart") LocalDateTime windowStart);
+
+    @Modifying
+    @Query("DELETE FROM UserLeaderboardWindow lb WHERE lb.id.window = :window AND lb.id.windowStart < :windowStart")
+    int deleteExpired(@Param("window") LeaderboardWindow window, @Param("windowStart") LocalDateTime windowStart);
+
+    @Modifying
+    @Query("DELETE FROM UserLeaderboardWindow lb WHERE lb.id.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
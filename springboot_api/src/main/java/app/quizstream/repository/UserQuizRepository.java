@@ -3,16 +3,106 @@ package app.quizstream.repository;
 
 import app.quizstream.entity.UserQuiz;
 import app.quizstream.entity.UserQuizId;
+import app.quizstream.repository.projection.UserQuizListing;
+import app.quizstream.repository.projection.UserQuizTotals;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserQuizRepository extends JpaRepository<UserQuiz, UserQuizId> {
 
+    @EntityGraph(attributePaths = "langchainCollection")
     Optional<UserQuiz> findById_UserIdAndId_QuizId(UUID userId, UUID quizId);
 
+    @EntityGraph(attributePaths = "langchainCollection")
     Page<UserQuiz> findByUser_Id(UUID userId, Pageable pageable);
-}
\ No newline at end of file
+
+    // only the video metadata fields shown in the overview are extracted from the json column, not the transcript
+    @Query(value = "SELECT uq.id.userId AS userId, uq.id.quizId AS quizId, " +
+            "COALESCE(uq.quizName, c.name) AS quizName, " +
+            "uq.dateCreated AS dateCreated, uq.numTries AS numTries, uq.numCorrect AS numCorrect, " +
+            "uq.numQuestions AS numQuestions, uq.language AS language, uq.type AS type, " +
+            "uq.difficulty AS difficulty, " +
+            "function('json_extract_path_text', c.cmetadata, 'video_metadata', 'title') AS title, " +
+            "function('json_extract_path_text', c.cmetadata, 'video_metadata', 'source') AS source, " +
+            "function('json_extract_path_text', c.cmetadata, 'video_metadata', 'thumbnail_url') AS thumbnailUrl, " +
+            "function('json_extract_path_text', c.cmetadata, 'video_metadata', 'description') AS description, " +
+            "cast(function('json_extract_path_text', c.cmetadata, 'video_metadata', 'view_count') AS Integer) " +
+            "AS viewCount, " +
+            "function('json_extract_path_text', c.cmetadata, 'video_metadata', 'publish_date') AS publishDate, " +
+            "function('json_extract_path_text', c.cmetadata, 'video_metadata', 'author') AS author " +
+            "FROM UserQuiz uq JOIN uq.langchainCollection c " +
+            "WHERE uq.id.userId = :userId",
+            countQuery = "SELECT COUNT(uq) FROM UserQuiz uq WHERE uq.id.userId = :userId")
+    Page<UserQuizListing> findListingsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_quiz (user_id, quiz_id, quiz_name, num_tries, num_correct, num_questions, " +
+            "language, type, difficulty, date_created) " +
+            "VALUES (:userId, :quizId, :quizName, 0, 0, :numQuestions, :language, :type, :difficulty, :dateCreated)",
+            nativeQuery = true)
+    void insertUserQuiz(@Param("userId") UUID userId, @Param("quizId") UUID quizId,
+            @Param("quizName") String quizName, @Param("numQuestions") int numQuestions,
+            @Param("language") String language, @Param("type") String type, @Param("difficulty") String difficulty,
+            @Param("dateCreated") LocalDateTime dateCreated);
+
+    long countById_QuizId(UUID quizId);
+
+    boolean existsById_UserIdAndId_QuizId(UUID userId, UUID quizId);
+
+    @Query("SELECT uq.id.quizId FROM UserQuiz uq WHERE uq.id.userId = :userId")
+    List<UUID> findQuizIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT CASE WHEN COUNT(uq) > 0 THEN true ELSE false END " +
+            "FROM UserQuiz uq JOIN uq.langchainCollection c " +
+            "WHERE uq.id.userId = :userId AND COALESCE(uq.quizName, c.name) = :quizName")
+    boolean existsByUserIdAndQuizName(@Param("userId") UUID userId, @Param("quizName") String quizName);
+
+    // counts an attempt in a single statement, concurrent attempts are serialized by the row lock of the update
+    @Query(value = "WITH attempt AS (" +
+            "UPDATE user_quiz SET num_tries = num_tries + 1, num_correct = num_correct + :numCorrect " +
+            "WHERE user_id = :userId AND quiz_id = :quizId " +
+            "RETURNING *) " +
+            "SELECT a.user_id AS userId, a.quiz_id AS quizId, COALESCE(a.quiz_name, c.name) AS quizName, " +
+            "a.date_created AS dateCreated, a.num_tries AS numTries, a.num_correct AS numCorrect, " +
+            "a.num_questions AS numQuestions, a.language AS language, a.type AS type, " +
+            "a.difficulty AS difficulty, " +
+            "c.cmetadata -> 'video_metadata' ->> 'title' AS title, " +
+            "c.cmetadata -> 'video_metadata' ->> 'source' AS source, " +
+            "c.cmetadata -> 'video_metadata' ->> 'thumbnail_url' AS thumbnailUrl, " +
+            "c.cmetadata -> 'video_metadata' ->> 'description' AS description, " +
+            "CAST(c.cmetadata -> 'video_metadata' ->> 'view_count' AS INTEGER) AS viewCount, " +
+            "c.cmetadata -> 'video_metadata' ->> 'publish_date' AS publishDate, " +
+            "c.cmetadata -> 'video_metadata' ->> 'author' AS author " +
+            "FROM attempt a JOIN langchain_pg_collection c ON c.uuid = a.quiz_id", nativeQuery = true)
+    Optional<UserQuizListing> recordAttempt(@Param("userId") UUID userId, @Param("quizId") UUID quizId,
+            @Param("numCorrect") int numCorrect);
+
+    // keeps the current names of all quizzes of the collection before it is renamed to its shared name
+    @Modifying
+    @Query(value = "UPDATE user_quiz uq SET quiz_name = c.name " +
+            "FROM langchain_pg_collection c " +
+            "WHERE c.uuid = uq.quiz_id AND uq.quiz_id = :quizId AND uq.quiz_name IS NULL", nativeQuery = true)
+    int pinQuizNames(@Param("quizId") UUID quizId);
+
+    // keyset paginated by user id, only users that qualify for the leaderboard are returned
+    @Query("SELECT uq.id.userId AS userId, u.username AS username, COUNT(uq) AS numQuizzes, " +
+            "SUM(uq.numTries) AS numAttempts, SUM(uq.numQuestions) AS numQuestions, " +
+            "SUM(uq.numCorrect) AS numCorrect " +
+            "FROM UserQuiz uq JOIN uq.user u " +
+            "WHERE uq.id.userId > :afterUserId " +
+            "GROUP BY uq.id.userId, u.username " +
+            "HAVING COUNT(uq) > 0 AND SUM(uq.numTries) > 0 AND SUM(uq.numCorrect) > 0 " +
+            "ORDER BY uq.id.userId")
+    List<UserQuizTotals> findRankedTotalsAfter(@Param("afterUserId") UUID afterUserId, Limit limit);
+}
@@ -0,0 +1,14 @@
+package app.quizstream.repository.projection;
+
+import app.quizstream.entity.embedding.EmbeddingMetadata;
+
+/**
+ * Question and answers of a quiz as stored in langchain_pg_embedding, without the embedding vector which is only
+ * needed for similarity search.
+ */
+public interface QuizQuestion {
+
+    String getDocument();
+
+    EmbeddingMetadata getCmetadata();
+}
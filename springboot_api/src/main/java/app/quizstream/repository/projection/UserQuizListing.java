@@ -0,0 +1,48 @@
+package app.quizstream.repository.projection;
+
+import app.quizstream.entity.UserQuiz;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A quiz as shown in the quiz overview of a user. The video metadata is extracted from the collection's JSON
+ * metadata by the database, so the video transcript stored alongside it is never read.
+ */
+public interface UserQuizListing {
+
+    UUID getUserId();
+
+    UUID getQuizId();
+
+    String getQuizName();
+
+    LocalDateTime getDateCreated();
+
+    Integer getNumTries();
+
+    Integer getNumCorrect();
+
+    Integer getNumQuestions();
+
+    UserQuiz.Language getLanguage();
+
+    UserQuiz.Type getType();
+
+    UserQuiz.Difficulty getDifficulty();
+
+    String getTitle();
+
+    String getSource();
+
+    String getThumbnailUrl();
+
+    String getDescription();
+
+    Integer getViewCount();
+
+    // formatted as "yyyy-MM-dd HH:mm:ss" as written by the quiz generator
+    String getPublishDate();
+
+    String getAuthor();
+}
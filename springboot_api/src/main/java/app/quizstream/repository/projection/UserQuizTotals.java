@@ -0,0 +1,21 @@
+package app.quizstream.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Quiz totals of a single user aggregated by the database, read without hydrating any UserQuiz entities.
+ */
+public interface UserQuizTotals {
+
+    UUID getUserId();
+
+    String getUsername();
+
+    Long getNumQuizzes();
+
+    Long getNumAttempts();
+
+    Long getNumQuestions();
+
+    Long getNumCorrect();
+}
@@ -0,0 +1,246 @@
+package app.quizstream.service;
+
+import app.quizstream.entity.UserQuizId;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind mode for quiz attempts, enabled with {@code quizstream.quiz.attempts.write-behind.enabled}.
+ * Attempts are added to in-memory counters per quiz and written to user_quiz in one JDBC batch per flush, so a burst
+ * of submissions costs one row update per quiz and flush instead of one transaction per attempt.
+ * <p>
+ * Buffers are flushed every {@code max-staleness-ms}, as soon as {@code max-pending} quizzes are buffered and on
+ * shutdown. Reads passed through {@link #read} add the attempts that are not written yet. Attempts buffered by an
+ * instance that dies without shutting down are lost, and other instances do not see them until they are flushed.
+ */
+@Component
+public class AttemptWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptWriteBehindBuffer.class);
+
+    static final String FLUSH_SQL = "UPDATE user_quiz SET num_tries = num_tries + ?, num_correct = num_correct + ? " +
+            "WHERE user_id = ? AND quiz_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderboardService leaderboardService;
+    private final boolean enabled;
+    private final int maxPending;
+
+    // attempts are recorded under the shared lock, a flush takes the exclusive lock only to swap the buffer
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // odd while a flush is writing, lets reads detect that the database and the buffer changed underneath them
+    private final AtomicLong flushSequence = new AtomicLong();
+    private volatile Map<UserQuizId, PendingAttempts> pending = new ConcurrentHashMap<>();
+
+    public AttemptWriteBehindBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            LeaderboardService leaderboardService, MeterRegistry meterRegistry,
+            @Value("${quizstream.quiz.attempts.write-behind.enabled:false}") boolean enabled,
+            @Value("${quizstream.quiz.attempts.write-behind.max-pending:1000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.leaderboardService = leaderboardService;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+
+        Gauge.builder("quizstream.quiz.attempts.pending", this, buffer -> buffer.pending.size())
+                .description("Quizzes with attempts that are not written to the database yet")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(UUID userId, UUID quizId, int numCorrect) {
+        int size;
+        swapLock.readLock()
+                .lock();
+        try {
+            pending.computeIfAbsent(new UserQuizId(userId, quizId), id -> new PendingAttempts())
+                    .add(1, numCorrect);
+            size = pending.size();
+        } finally {
+            swapLock.readLock()
+                    .unlock();
+        }
+
+        if (size >= maxPending && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reads from the database and merges the pending attempts into the result, retrying if a flush wrote attempts in
+     * between so that they are neither missing nor counted twice. The merger looks them up with {@link #pending}.
+     */
+    public <T> T read(Supplier<T> reader, UnaryOperator<T> merger) {
+        if (!enabled) {
+            return reader.get();
+        }
+
+        while (true) {
+            long sequence = flushSequence.get();
+            if ((sequence & 1) == 1) {
+                awaitFlush();
+                continue;
+            }
+
+            T merged = merger.apply(reader.get());
+            if (flushSequence.get() == sequence) {
+                return merged;
+            }
+        }
+    }
+
+    public Attempts pending(UUID userId, UUID quizId) {
+        PendingAttempts attempts = pending.get(new UserQuizId(userId, quizId));
+        return attempts == null ? Attempts.NONE : attempts.sum();
+    }
+
+    @Scheduled(fixedRateString = "${quizstream.quiz.attempts.write-behind.max-staleness-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.error("Lost attempts of {} quizzes that could not be written on shutdown.", pending.size());
+        }
+    }
+
+    // the flush lock has to be held by the caller
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        flushSequence.incrementAndGet();
+        try {
+            Map<UserQuizId, PendingAttempts> batch;
+            swapLock.writeLock()
+                    .lock();
+            try {
+                batch = pending;
+                pending = new ConcurrentHashMap<>();
+            } finally {
+                swapLock.writeLock()
+                        .unlock();
+            }
+
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write attempts of {} quizzes, retrying with the next flush. Error: {}",
+                        batch.size(), e.getMessage());
+                requeue(batch);
+            }
+        } finally {
+            flushSequence.incrementAndGet();
+        }
+    }
+
+    private void write(Map<UserQuizId, PendingAttempts> batch) {
+        List<Object[]> rows = batch.entrySet()
+                .stream()
+                .map(entry -> {
+                    Attempts attempts = entry.getValue()
+                            .sum();
+                    return new Object[] { attempts.numTries(), attempts.numCorrect(), entry.getKey()
+                            .getUserId(), entry.getKey()
+                                    .getQuizId() };
+                })
+                .toList();
+        Set<UUID> userIds = batch.keySet()
+                .stream()
+                .map(UserQuizId::getUserId)
+                .collect(Collectors.toSet());
+
+        // rows of deleted quizzes are simply not updated anymore
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+            leaderboardService.refreshUsers(userIds);
+        });
+
+        logger.debug("Wrote attempts of {} quizzes of {} users.", rows.size(), userIds.size());
+    }
+
+    private void requeue(Map<UserQuizId, PendingAttempts> batch) {
+        swapLock.readLock()
+                .lock();
+        try {
+            batch.forEach((id, attempts) -> {
+                Attempts sum = attempts.sum();
+                pending.computeIfAbsent(id, key -> new PendingAttempts())
+                        .add(sum.numTries(), sum.numCorrect());
+            });
+        } finally {
+            swapLock.readLock()
+                    .unlock();
+        }
+    }
+
+    private void awaitFlush() {
+        flushLock.lock();
+        flushLock.unlock();
+    }
+
+    public record Attempts(int numTries, int numCorrect) {
+
+        public static final Attempts NONE = new Attempts(0, 0);
+
+        public boolean isEmpty() {
+            return numTries == 0 && numCorrect == 0;
+        }
+    }
+
+    // striped counters, concurrent attempts on the same quiz do not contend on a single value
+    private static final class PendingAttempts {
+
+        private final LongAdder numTries = new LongAdder();
+        private final LongAdder numCorrect = new LongAdder();
+
+        void add(int tries, int correct) {
+            numTries.add(tries);
+            numCorrect.add(correct);
+        }
+
+        Attempts sum() {
+            return new Attempts(Math.toIntExact(numTries.sum()), Math.toIntExact(numCorrect.sum()));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package app.quizstream.service;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Applies the schema changes of the migrations whose tables are created by the quiz generator or Hibernate, which
+ * happens after the migrations ran. Those migrations skip their changes if the table does not exist yet and are never
+ * run again, so on a fresh database the changes are only made here.
+ * <p>
+ * The changes are idempotent and applied after every migration run, which is before Hibernate validates the schema,
+ * once the application is ready and then periodically until all tables exist. An advisory lock keeps the instances
+ * from running the same DDL at once.
+ */
+@Component
+public class DeferredSchemaInstaller implements Callback {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredSchemaInstaller.class);
+
+    static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('quizstream_deferred_schema'))";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('quizstream_deferred_schema'))";
+
+    /**
+     * A deferred schema change, its state query selects whether the table exists and whether the change was applied.
+     */
+    record SchemaChange(String description, String stateSql, List<String> statements) {
+    }
+
+    private final DataSource dataSource;
+    private final List<SchemaChange> schemaChanges;
+
+    private volatile boolean installed;
+
+    public DeferredSchemaInstaller(DataSource dataSource,
+            @Value("${quizstream.search.embedding-dimensions}") int embeddingDimensions) {
+        this.dataSource = dataSource;
+        this.schemaChanges = schemaChanges(embeddingDimensions);
+    }
+
+    static List<SchemaChange> schemaChanges(int embeddingDimensions) {
+        String vector = "vector(" + embeddingDimensions + ")";
+        return List.of(
+                // V0_4, the embedding column has no fixed dimension, the index only covers the configured one
+                new SchemaChange("embedding HNSW index",
+                        "SELECT to_regclass('langchain_pg_embedding') IS NOT NULL, " +
+                                "to_regclass('ix_langchain_pg_embedding_hnsw') IS NOT NULL",
+                        List.of("CREATE INDEX IF NOT EXISTS ix_langchain_pg_embedding_hnsw " +
+                                "ON langchain_pg_embedding " +
+                                "USING hnsw ((CAST(embedding AS " + vector + ")) vector_cosine_ops) " +
+                                "WHERE vector_dims(embedding) = " + embeddingDimensions)),
+                // V0_5, finished requests are looked up by their video when quizzes are deduplicated
+                new SchemaChange("quiz request video url index",
+                        "SELECT to_regclass('quiz_requests') IS NOT NULL, " +
+                                "to_regclass('ix_quiz_requests_finished_video_url') IS NOT NULL",
+                        List.of("CREATE INDEX IF NOT EXISTS ix_quiz_requests_finished_video_url " +
+                                "ON quiz_requests ((request_metadata ->> 'videoUrl')) " +
+                                "WHERE status = 'FINISHED'")),
+                // V0_6, the name of a quiz whose collection is shared and the reference counting of collections,
+                // added after migrating so that the column exists when Hibernate validates user_quiz
+                new SchemaChange("user quiz name column",
+                        "SELECT to_regclass('user_quiz') IS NOT NULL, " +
+                                "EXISTS (SELECT 1 FROM information_schema.columns " +
+                                "WHERE table_schema = current_schema() AND table_name = 'user_quiz' " +
+                                "AND column_name = 'quiz_name') " +
+                                "AND to_regclass('ix_user_quiz_quiz_id') IS NOT NULL",
+                        List.of("ALTER TABLE user_quiz ADD COLUMN IF NOT EXISTS quiz_name VARCHAR(255)",
+                                "CREATE INDEX IF NOT EXISTS ix_user_quiz_quiz_id ON user_quiz (quiz_id)")));
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return false;
+    }
+
+    // Hibernate may still replace the tables afterwards, they are checked again once the application is ready
+    @Override
+    public void handle(Event event, Context context) {
+        try {
+            install(context.getConnection());
+        } catch (SQLException e) {
+            logger.warn("Failed to apply deferred schema changes after migrating. Error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "deferredSchema";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        installed = tryInstall();
+    }
+
+    // the quiz generator creates its tables once it is started itself
+    @Scheduled(fixedDelayString = "${quizstream.schema.install-interval-ms:60000}",
+            initialDelayString = "${quizstream.schema.install-interval-ms:60000}")
+    public void installPending() {
+        if (!installed) {
+            installed = tryInstall();
+        }
+    }
+
+    private boolean tryInstall() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            return install(connection);
+        } catch (SQLException e) {
+            logger.warn("Failed to apply deferred schema changes, retrying later. Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // idempotent, returns whether every change is applied
+    boolean install(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (!tryLock(statement)) {
+                logger.info("Deferred schema changes are applied by another instance, retrying later.");
+                return false;
+            }
+
+            try {
+                boolean complete = true;
+                for (SchemaChange schemaChange : schemaChanges) {
+                    complete &= apply(statement, schemaChange);
+                }
+                return complete;
+            } finally {
+                statement.execute(UNLOCK_SQL);
+            }
+        }
+    }
+
+    private boolean tryLock(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(LOCK_SQL)) {
+            resultSet.next();
+            return resultSet.getBoolean(1);
+        }
+    }
+
+    private boolean apply(Statement statement, SchemaChange schemaChange) throws SQLException {
+        boolean tableExists;
+        boolean applied;
+        try (ResultSet resultSet = statement.executeQuery(schemaChange.stateSql())) {
+            resultSet.next();
+            tableExists = resultSet.getBoolean(1);
+            applied = resultSet.getBoolean(2);
+        }
+
+        if (!tableExists) {
+            logger.info("Table of the {} does not exist yet, it is added once the table exists.",
+                    schemaChange.description());
+            return false;
+        }
+
+        if (!applied) {
+            for (String sql : schemaChange.statements()) {
+                statement.execute(sql);
+            }
+            logger.info("Applied deferred schema change: {}.", schemaChange.description());
+        }
+        return true;
+    }
+}
@@ -3,7 +3,16 @@ package app.quizstream.service;
 import app.quizstream.dto.quiz.QuizCreateRequestDto;
 import app.quizstream.entity.request.QuizRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IQuizCreationInitiator {
 
-    void initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob);
-}
\ No newline at end of file
+    // completes once the request was handed over for good, e.g. acknowledged by SQS, and exceptionally if it has to
+    // be retried. Throws RejectedExecutionException if the initiator is at capacity
+    CompletableFuture<Void> initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob);
+
+    // true if new requests would currently be rejected
+    default boolean isSaturated() {
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import app.quizstream.entity.leaderboard.LeaderboardTotalsChanged;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of leaderboard pages keyed by page, size and sort. Entries older than the refresh interval are still
+ * served while they are reloaded in the background, entries older than the TTL are dropped. An invalidation only marks
+ * the cached pages stale, a stale page is served once more and reloaded in the background on its next request, at most
+ * once per min-reload interval however often the leaderboard changes. Hit, miss and eviction counts are published
+ * under the {@code cache.*} metrics with {@code cache=leaderboard}.
+ */
+@Component
+public class LeaderboardCache {
+
+    private final LoadingCache<Pageable, Page<QuizLeaderboardEntry>> cache;
+    private final Policy.FixedExpiration<Pageable, Page<QuizLeaderboardEntry>> expiration;
+    private final long minReloadNanos;
+
+    // System.nanoTime of the last invalidation, the pages written before it are stale
+    private volatile long invalidatedAt;
+    private volatile boolean invalidated;
+
+    public LeaderboardCache(LeaderboardService leaderboardService, MeterRegistry meterRegistry,
+            @Value("${quizstream.leaderboard.cache.max-size:500}") long maxSize,
+            @Value("${quizstream.leaderboard.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${quizstream.leaderboard.cache.refresh-seconds:30}") long refreshSeconds,
+            @Value("${quizstream.leaderboard.cache.min-reload-ms:1000}") long minReloadMs) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .recordStats()
+                .build(leaderboardService::getLeaderboard);
+        this.expiration = cache.policy()
+                .expireAfterWrite()
+                .orElseThrow();
+        this.minReloadNanos = TimeUnit.MILLISECONDS.toNanos(minReloadMs);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "leaderboard");
+    }
+
+    public Page<QuizLeaderboardEntry> get(Pageable pageable) {
+        Page<QuizLeaderboardEntry> page = cache.get(pageable);
+        if (isStale(pageable)) {
+            // a reload that is already in flight is joined instead of started again
+            cache.refresh(pageable);
+        }
+        return page;
+    }
+
+    // only committed totals are served, pages reloaded while the transaction was still open would not be stale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTotalsChanged(LeaderboardTotalsChanged event) {
+        invalidate();
+    }
+
+    // called on every attempt, neither drops nor reloads the cached pages
+    public void invalidate() {
+        invalidatedAt = System.nanoTime();
+        invalidated = true;
+    }
+
+    private boolean isStale(Pageable pageable) {
+        if (!invalidated) {
+            return false;
+        }
+
+        long age = expiration.ageOf(pageable, TimeUnit.NANOSECONDS)
+                .orElse(0);
+        return age > System.nanoTime() - invalidatedAt && age >= minReloadNanos;
+    }
+}
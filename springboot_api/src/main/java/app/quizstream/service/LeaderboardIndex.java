@@ -0,0 +1,191 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+import app.quizstream.util.ranking.IndexableSkipList;
+import app.quizstream.util.ranking.LeaderboardComparators;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory order-statistic index over the ranked leaderboard users, holding one skip list per sortable property so
+ * that the rank of a user and the page at an arbitrary offset can be answered in O(log n) without touching the
+ * database. Fed by {@link LeaderboardService} whenever a users totals change.
+ */
+@Component
+public class LeaderboardIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<UUID, LeaderboardTotals> entries = new HashMap<>();
+    private Map<String, IndexableSkipList<LeaderboardTotals>> rankings = emptyRankings();
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void update(LeaderboardTotals totals) {
+        lock.writeLock()
+                .lock();
+        try {
+            removeEntry(totals.userId());
+            if (totals.isRanked()) {
+                entries.put(totals.userId(), totals);
+                rankings.values()
+                        .forEach(ranking -> ranking.insert(totals));
+            }
+        } finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+
+    public void remove(UUID userId) {
+        lock.writeLock()
+                .lock();
+        try {
+            removeEntry(userId);
+        } finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the given totals. The new index is built off to the side so that readers keep
+     * seeing the previous state until the swap.
+     */
+    public void rebuild(Stream<LeaderboardTotals> totals) {
+
+        Map<UUID, LeaderboardTotals> newEntries = new HashMap<>();
+        Map<String, IndexableSkipList<LeaderboardTotals>> newRankings = emptyRankings();
+
+        Consumer<LeaderboardTotals> indexer = entry -> {
+            newEntries.put(entry.userId(), entry);
+            newRankings.values()
+                    .forEach(ranking -> ranking.insert(entry));
+        };
+        totals.filter(LeaderboardTotals::isRanked)
+                .forEach(indexer);
+
+        lock.writeLock()
+                .lock();
+        try {
+            entries = newEntries;
+            rankings = newRankings;
+            ready = true;
+        } finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock()
+                .lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    public Optional<LeaderboardTotals> get(UUID userId) {
+        lock.readLock()
+                .lock();
+        try {
+            return Optional.ofNullable(entries.get(userId));
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Returns the 1-based rank of the user for the given order, or empty if the user is not on the leaderboard.
+     */
+    public OptionalLong rankOf(UUID userId, Sort.Order order) {
+        lock.readLock()
+                .lock();
+        try {
+            LeaderboardTotals totals = entries.get(userId);
+            if (totals == null) {
+                return OptionalLong.empty();
+            }
+
+            IndexableSkipList<LeaderboardTotals> ranking = rankings.get(rankingProperty(order));
+            int ascendingRank = ranking.rankOf(totals);
+
+            return OptionalLong.of(order.isDescending() ? ranking.size() - ascendingRank + 1 : ascendingRank);
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    /**
+     * Returns the requested page if it can be answered from the index, i.e. the index is built and the page is sorted
+     * by at most one property.
+     */
+    public Optional<Page<LeaderboardTotals>> page(Pageable pageable) {
+
+        if (!ready || pageable.getSort()
+                .stream()
+                .count() > 1) {
+            return Optional.empty();
+        }
+
+        Sort.Order order = pageable.getSort()
+                .stream()
+                .findFirst()
+                .orElse(Sort.Order.desc("score"));
+
+        lock.readLock()
+                .lock();
+        try {
+            IndexableSkipList<LeaderboardTotals> ranking = rankings.get(rankingProperty(order));
+            List<LeaderboardTotals> content = ranking.slice((int) pageable.getOffset(), pageable.getPageSize(),
+                    order.isDescending());
+
+            return Optional.of(new PageImpl<>(content, pageable, ranking.size()));
+        } finally {
+            lock.readLock()
+                    .unlock();
+        }
+    }
+
+    private void removeEntry(UUID userId) {
+        LeaderboardTotals previous = entries.remove(userId);
+        if (previous != null) {
+            rankings.values()
+                    .forEach(ranking -> ranking.remove(previous));
+        }
+    }
+
+    // unknown properties fall back to the score, like the database backed leaderboard does
+    private static String rankingProperty(Sort.Order order) {
+        return LeaderboardComparators.BY_PROPERTY.containsKey(order.getProperty()) ? order.getProperty() : "score";
+    }
+
+    private static Map<String, IndexableSkipList<LeaderboardTotals>> emptyRankings() {
+        Map<String, IndexableSkipList<LeaderboardTotals>> rankings = new HashMap<>();
+        LeaderboardComparators.BY_PROPERTY.forEach((property, comparator) -> rankings.put(property,
+                new IndexableSkipList<>(comparator)));
+        return rankings;
+    }
+}
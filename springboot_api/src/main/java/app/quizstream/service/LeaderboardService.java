@@ -0,0 +1,423 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import app.quizstream.dto.quiz.QuizLeaderboardRankDto;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.leaderboard.LeaderboardTotalsChanged;
+import app.quizstream.entity.leaderboard.LeaderboardWindow;
+import app.quizstream.entity.leaderboard.UserLeaderboard;
+import app.quizstream.entity.leaderboard.UserLeaderboardSegment;
+import app.quizstream.exception.EntityNotFoundException;
+import app.quizstream.repository.UserLeaderboardRepository;
+import app.quizstream.repository.UserLeaderboardSegmentRepository;
+import app.quizstream.repository.UserLeaderboardWindowRepository;
+import app.quizstream.repository.UserQuizRepository;
+import app.quizstream.repository.projection.UserQuizTotals;
+import app.quizstream.util.mapper.QuizMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    // maps the sort properties accepted by the leaderboard endpoint to the UserLeaderboard columns
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "score", "score",
+            "quizzes", "numQuizzes",
+            "attempts", "numAttempts",
+            "questions", "numQuestions",
+            "answers", "numCorrect");
+
+    private static final Sort.Order DEFAULT_ORDER = Sort.Order.desc("score");
+
+    // writes totals that were already aggregated by UserQuizRepository#findRankedTotalsAfter
+    static final String UPSERT_TOTALS_SQL = "INSERT INTO user_leaderboard " +
+            "(user_id, username, num_quizzes, num_attempts, num_questions, num_correct, score, date_modified) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "username = EXCLUDED.username, " +
+            "num_quizzes = EXCLUDED.num_quizzes, " +
+            "num_attempts = EXCLUDED.num_attempts, " +
+            "num_questions = EXCLUDED.num_questions, " +
+            "num_correct = EXCLUDED.num_correct, " +
+            "score = EXCLUDED.score, " +
+            "date_modified = EXCLUDED.date_modified, " +
+            "deleted = false";
+
+    private final UserLeaderboardRepository userLeaderboardRepository;
+    private final UserLeaderboardWindowRepository userLeaderboardWindowRepository;
+    private final UserLeaderboardSegmentRepository userLeaderboardSegmentRepository;
+    private final UserQuizRepository userQuizRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final QuizMapper quizMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    // totals of the windowed and segmented leaderboards, counting them on every page would scan all their rows
+    private final LoadingCache<WindowKey, Long> windowCounts;
+    private final LoadingCache<SegmentKey, Long> segmentCounts;
+
+    @Value("${quizstream.leaderboard.reconcile-lookback-seconds:900}")
+    private long reconcileLookbackSeconds;
+
+    @Value("${quizstream.leaderboard.index-sync-lookback-seconds:60}")
+    private long indexSyncLookbackSeconds;
+
+    @Value("${quizstream.leaderboard.tombstone-retention-seconds:86400}")
+    private long tombstoneRetentionSeconds;
+
+    @Value("${quizstream.leaderboard.backfill-batch-size:1000}")
+    private int backfillBatchSize;
+
+    public LeaderboardService(UserLeaderboardRepository userLeaderboardRepository,
+            UserLeaderboardWindowRepository userLeaderboardWindowRepository,
+            UserLeaderboardSegmentRepository userLeaderboardSegmentRepository, UserQuizRepository userQuizRepository,
+            LeaderboardIndex leaderboardIndex, QuizMapper quizMapper, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+            @Value("${quizstream.leaderboard.cache.refresh-seconds:30}") long countRefreshSeconds) {
+        this.userLeaderboardRepository = userLeaderboardRepository;
+        this.userLeaderboardWindowRepository = userLeaderboardWindowRepository;
+        this.userLeaderboardSegmentRepository = userLeaderboardSegmentRepository;
+        this.userQuizRepository = userQuizRepository;
+        this.leaderboardIndex = leaderboardIndex;
+        this.quizMapper = quizMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.windowCounts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(countRefreshSeconds))
+                .build(key -> userLeaderboardWindowRepository.countRanked(key.window(), key.windowStart()));
+        this.segmentCounts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(countRefreshSeconds))
+                .build(key -> userLeaderboardSegmentRepository.countRanked(key.language(), key.difficulty()));
+    }
+
+    public Page<QuizLeaderboardEntry> getLeaderboard(Pageable pageable) {
+
+        Pageable rankedPageable = pageable.getSort()
+                .isSorted() ? pageable
+                        : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(DEFAULT_ORDER));
+
+        return leaderboardIndex.page(rankedPageable)
+                .orElseGet(() -> userLeaderboardRepository.findRanked(toRankedPageable(rankedPageable, "userId"))
+                        .map(quizMapper::convertToLeaderboardTotals))
+                .map(quizMapper::convertToLeaderboardEntry);
+    }
+
+    // one index range scan per page, the daily and weekly totals are maintained by QuizAttemptLog
+    public Page<QuizLeaderboardEntry> getLeaderboard(LeaderboardWindow window, Pageable pageable) {
+        if (!window.isRolling()) {
+            return getLeaderboard(pageable);
+        }
+
+        LocalDateTime windowStart = window.startOf(LocalDateTime.now(ZoneOffset.UTC));
+        Pageable rankedPageable = pageable.getSort()
+                .isSorted() ? pageable
+                        : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(DEFAULT_ORDER));
+
+        List<QuizLeaderboardEntry> entries = userLeaderboardWindowRepository
+                .findRanked(window, windowStart, toRankedPageable(rankedPageable, "id.userId"))
+                .stream()
+                .map(quizMapper::convertToLeaderboardTotals)
+                .map(quizMapper::convertToLeaderboardEntry)
+                .toList();
+
+        return new PageImpl<>(entries, rankedPageable, windowCounts.get(new WindowKey(window, windowStart)));
+    }
+
+    // all-time leaderboard over the quizzes of the given language and/or difficulty, null matches any
+    public Page<QuizLeaderboardEntry> getLeaderboard(UserQuiz.Language language, UserQuiz.Difficulty difficulty,
+            Pageable pageable) {
+        if (language == null && difficulty == null) {
+            return getLeaderboard(pageable);
+        }
+
+        SegmentKey segment = new SegmentKey(language == null ? UserLeaderboardSegment.ANY : language.name(),
+                difficulty == null ? UserLeaderboardSegment.ANY : difficulty.name());
+        Pageable rankedPageable = pageable.getSort()
+                .isSorted() ? pageable
+                        : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(DEFAULT_ORDER));
+
+        List<QuizLeaderboardEntry> entries = userLeaderboardSegmentRepository
+                .findRanked(segment.language(), segment.difficulty(), toRankedPageable(rankedPageable, "id.userId"))
+                .stream()
+                .map(quizMapper::convertToLeaderboardTotals)
+                .map(quizMapper::convertToLeaderboardEntry)
+                .toList();
+
+        return new PageImpl<>(entries, rankedPageable, segmentCounts.get(segment));
+    }
+
+    public QuizLeaderboardRankDto getRank(UUID userId, Sort sort) {
+
+        if (!leaderboardIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Leaderboard is still being built.");
+        }
+
+        Sort.Order order = sort.stream()
+                .findFirst()
+                .orElse(DEFAULT_ORDER);
+
+        LeaderboardTotals totals = leaderboardIndex.get(userId)
+                .orElseThrow(() -> new EntityNotFoundException(userId.toString(), UserLeaderboard.class));
+
+        long rank = leaderboardIndex.rankOf(userId, order)
+                .orElseThrow(() -> new EntityNotFoundException(userId.toString(), UserLeaderboard.class));
+
+        return new QuizLeaderboardRankDto(userId, rank, (long) leaderboardIndex.size(),
+                quizMapper.convertToLeaderboardEntry(totals));
+    }
+
+    @Transactional
+    public void refreshUser(UUID userId) {
+        userLeaderboardRepository.refreshForUser(userId);
+        refreshSegments(List.of(userId));
+        List<LeaderboardTotals> updated = userLeaderboardRepository.findById(userId)
+                .map(quizMapper::convertToLeaderboardTotals)
+                .stream()
+                .toList();
+        eventPublisher.publishEvent(new LeaderboardTotalsChanged(updated, List.of()));
+    }
+
+    @Transactional
+    public void refreshUsers(Collection<UUID> userIds) {
+        userLeaderboardRepository.refreshForUsers(userIds);
+        refreshSegments(userIds);
+        List<LeaderboardTotals> updated = userLeaderboardRepository.findAllById(userIds)
+                .stream()
+                .map(quizMapper::convertToLeaderboardTotals)
+                .toList();
+        eventPublisher.publishEvent(new LeaderboardTotalsChanged(updated, List.of()));
+    }
+
+    @Transactional
+    public void removeUser(UUID userId) {
+        userLeaderboardRepository.markDeleted(userId);
+        userLeaderboardWindowRepository.deleteByUserId(userId);
+        userLeaderboardSegmentRepository.deleteByUserId(userId);
+        eventPublisher.publishEvent(new LeaderboardTotalsChanged(List.of(), List.of(userId)));
+    }
+
+    // the callers' transactions may still roll back, syncIndex would never correct totals that were not committed,
+    // the index is updated before LeaderboardCache marks the pages built from it stale
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTotalsChanged(LeaderboardTotalsChanged event) {
+        event.updated()
+                .forEach(leaderboardIndex::update);
+        event.removedUserIds()
+                .forEach(leaderboardIndex::remove);
+    }
+
+    // past windows are no longer served, the current ones start out empty until their first attempts are written
+    @Transactional
+    @Scheduled(cron = "${quizstream.leaderboard.window-purge-cron:0 5 * * * *}", zone = "UTC")
+    public void purgeExpiredWindows() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            if (window.isRolling()) {
+                int purged = userLeaderboardWindowRepository.deleteExpired(window, window.startOf(now));
+                logger.debug("Purged {} rows of expired {} leaderboard windows.", purged, window);
+            }
+        }
+    }
+
+    // the tombstones of removed users were merged by every instance long before they are purged
+    @Transactional
+    @Scheduled(cron = "${quizstream.leaderboard.window-purge-cron:0 5 * * * *}", zone = "UTC")
+    public void purgeRemovedUsers() {
+        int purged = userLeaderboardRepository.deleteTombstones(tombstoneRetentionSeconds);
+        logger.debug("Purged {} leaderboard rows of removed users.", purged);
+    }
+
+    // quizzes created by the Lambda worker never pass through this service, so pick up recently finished requests
+    @Transactional
+    @Scheduled(fixedDelayString = "${quizstream.leaderboard.reconcile-interval-ms:60000}",
+            initialDelayString = "${quizstream.leaderboard.reconcile-interval-ms:60000}")
+    public void reconcileRecentlyCreatedQuizzes() {
+
+        List<UUID> userIds = userLeaderboardRepository.findUsersWithRecentlyFinishedRequests(reconcileLookbackSeconds);
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        refreshUsers(userIds);
+
+        logger.debug("Reconciled leaderboard totals of {} users with recently finished quiz requests.", userIds.size());
+    }
+
+    // other instances update the same table, so regularly merge their recent changes and removals into the local index
+    @Scheduled(fixedDelayString = "${quizstream.leaderboard.index-sync-interval-ms:15000}",
+            initialDelayString = "${quizstream.leaderboard.index-sync-interval-ms:15000}")
+    public void syncIndex() {
+        if (!leaderboardIndex.isReady()) {
+            return;
+        }
+
+        userLeaderboardRepository.findRecentlyModified(indexSyncLookbackSeconds)
+                .forEach(row -> {
+                    if (row.isDeleted()) {
+                        leaderboardIndex.remove(row.getUserId());
+                    } else {
+                        leaderboardIndex.update(quizMapper.convertToLeaderboardTotals(row));
+                    }
+                });
+    }
+
+    // backfill the aggregates once if needed, then rebuild the in-memory index in a single streaming pass
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeLeaderboard() {
+        if (userLeaderboardRepository.count() == 0) {
+            backfillLeaderboard();
+        } else {
+            backfillMissingSegments();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<LeaderboardTotals> totals = userLeaderboardRepository.streamRankedTotals()) {
+                leaderboardIndex.rebuild(totals);
+            }
+        });
+
+        logger.info("Built leaderboard index with {} ranked users.", leaderboardIndex.size());
+    }
+
+    // walks the ranked users in keyset pages of user ids, so only one batch of lightweight totals is held at a time,
+    // every batch is written in its own transaction so that an interrupted backfill keeps its progress
+    private void backfillLeaderboard() {
+
+        UUID lastUserId = new UUID(0L, 0L);
+        int backfilled = 0;
+
+        List<UserQuizTotals> batch;
+        do {
+            UUID afterUserId = lastUserId;
+            batch = transactionTemplate.execute(status -> {
+                List<UserQuizTotals> totals = userQuizRepository.findRankedTotalsAfter(afterUserId,
+                        Limit.of(backfillBatchSize));
+                if (!totals.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_TOTALS_SQL, totals.stream()
+                            .map(LeaderboardService::toUpsertRow)
+                            .toList());
+                    refreshSegments(totals.stream()
+                            .map(UserQuizTotals::getUserId)
+                            .toList());
+                }
+                return totals;
+            });
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            lastUserId = batch.getLast()
+                    .getUserId();
+            backfilled += batch.size();
+        } while (batch.size() == backfillBatchSize);
+
+        logger.info("Initialized leaderboard totals for {} ranked users.", backfilled);
+    }
+
+    // the totals over all quizzes are already in place, only users without segment rows need to be aggregated
+    private void backfillMissingSegments() {
+
+        UUID lastUserId = new UUID(0L, 0L);
+        int backfilled = 0;
+
+        List<UUID> userIds;
+        do {
+            UUID afterUserId = lastUserId;
+            userIds = transactionTemplate.execute(status -> {
+                List<UUID> missing = userLeaderboardSegmentRepository.findUsersWithoutSegmentsAfter(afterUserId,
+                        backfillBatchSize);
+                if (!missing.isEmpty()) {
+                    refreshSegments(missing);
+                }
+                return missing;
+            });
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            lastUserId = userIds.getLast();
+            backfilled += userIds.size();
+        } while (userIds.size() == backfillBatchSize);
+
+        if (backfilled > 0) {
+            logger.info("Initialized leaderboard segments for {} users.", backfilled);
+        }
+    }
+
+    private void refreshSegments(Collection<UUID> userIds) {
+        userLeaderboardSegmentRepository.refreshForUsers(userIds);
+        userLeaderboardSegmentRepository.deleteStaleForUsers(userIds);
+    }
+
+    // same score as UserLeaderboardRepository#refreshForUsers computes in the database
+    private static Object[] toUpsertRow(UserQuizTotals totals) {
+        long numQuestions = totals.getNumQuestions();
+        long numCorrect = totals.getNumCorrect();
+        double score = numQuestions > 0 ? numCorrect * 100.0 / numQuestions : 0;
+
+        return new Object[] { totals.getUserId(), totals.getUsername(), totals.getNumQuizzes(),
+                totals.getNumAttempts(), numQuestions, numCorrect, score };
+    }
+
+    private Pageable toRankedPageable(Pageable pageable, String userIdProperty) {
+
+        List<Sort.Order> orders = new ArrayList<>();
+
+        // unknown properties fall back to the score, as the leaderboard always did
+        pageable.getSort()
+                .forEach(order -> orders.add(new Sort.Order(order.getDirection(),
+                        SORT_PROPERTIES.getOrDefault(order.getProperty(), "score"))));
+
+        // tie-break on the primary key in the direction of the last order, like the in-memory index does
+        Sort.Direction tieBreakDirection = orders.isEmpty() ? Sort.Direction.ASC
+                : orders.getLast()
+                        .getDirection();
+        orders.add(new Sort.Order(tieBreakDirection, userIdProperty));
+
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    private record WindowKey(LeaderboardWindow window, LocalDateTime windowStart) {
+    }
+
+    private record SegmentKey(String language, String difficulty) {
+    }
+}
@@ -0,0 +1,256 @@
+package app.quizstream.service;
+
+import app.quizstream.entity.attempt.QuizAttemptRollup;
+import app.quizstream.entity.leaderboard.LeaderboardWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Appends quiz attempts to the quiz_attempt log and increments the hourly and daily rollups and the daily and weekly
+ * leaderboard windows of their users in the same transaction. Attempts are queued and written in JDBC batches every
+ * {@code flush-interval-ms}, the attempt path only waits for the log if it finds the queue full and has to flush it
+ * itself.
+ * <p>
+ * Queued attempts are written on shutdown and put back if a write fails. They are only dropped if the queue is still
+ * full after a flush, which is counted in {@code quizstream.quiz.attempts.log.dropped}.
+ * <p>
+ * Timestamps are bound as plain {@link LocalDateTime} values, the entities map their columns as
+ * {@code SqlTypes.LOCAL_DATE_TIME} so Hibernate reads and queries them without applying the JDBC time zone either.
+ */
+@Component
+public class QuizAttemptLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizAttemptLog.class);
+
+    static final String INSERT_ATTEMPT_SQL = "INSERT INTO quiz_attempt " +
+            "(user_id, quiz_id, attempted_at, num_correct, num_questions) VALUES (?, ?, ?, ?, ?)";
+
+    static final String UPSERT_ROLLUP_SQL = "INSERT INTO quiz_attempt_rollup " +
+            "(user_id, granularity, bucket_start, num_attempts, num_correct, num_questions) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, granularity, bucket_start) DO UPDATE SET " +
+            "num_attempts = quiz_attempt_rollup.num_attempts + EXCLUDED.num_attempts, " +
+            "num_correct = quiz_attempt_rollup.num_correct + EXCLUDED.num_correct, " +
+            "num_questions = quiz_attempt_rollup.num_questions + EXCLUDED.num_questions";
+
+    // quizzes only count once per window, so they are checked against the attempts logged before this batch
+    static final String UPSERT_WINDOW_SQL = "INSERT INTO user_leaderboard_window AS lb " +
+            "(leaderboard_window, window_start, user_id, username, num_quizzes, num_attempts, num_questions, " +
+            "num_correct, score) " +
+            "SELECT :window, CAST(:windowStart AS timestamp), u.id, u.username, " +
+            "(SELECT COUNT(*) FROM unnest(CAST(string_to_array(:quizIds, ',') AS uuid[])) AS q(quiz_id) " +
+            "WHERE NOT EXISTS (SELECT 1 FROM quiz_attempt a WHERE a.user_id = u.id AND a.quiz_id = q.quiz_id " +
+            "AND a.attempted_at >= CAST(:windowStart AS timestamp))), " +
+            "CAST(:numAttempts AS bigint), CAST(:numQuestions AS bigint), CAST(:numCorrect AS bigint), " +
+            "CASE WHEN CAST(:numQuestions AS bigint) > 0 " +
+            "THEN CAST(:numCorrect * 100.0 / :numQuestions AS double precision) ELSE 0 END " +
+            "FROM users u WHERE u.id = :userId " +
+            "ON CONFLICT (leaderboard_window, window_start, user_id) DO UPDATE SET " +
+            "username = EXCLUDED.username, " +
+            "num_quizzes = lb.num_quizzes + EXCLUDED.num_quizzes, " +
+            "num_attempts = lb.num_attempts + EXCLUDED.num_attempts, " +
+            "num_questions = lb.num_questions + EXCLUDED.num_questions, " +
+            "num_correct = lb.num_correct + EXCLUDED.num_correct, " +
+            "score = CASE WHEN lb.num_questions + EXCLUDED.num_questions > 0 " +
+            "THEN CAST((lb.num_correct + EXCLUDED.num_correct) * 100.0 / (lb.num_questions + EXCLUDED.num_questions) " +
+            "AS double precision) ELSE 0 END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Attempt> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter dropped;
+
+    @Value("${quizstream.quiz.attempts.log.batch-size:500}")
+    private int batchSize;
+
+    public QuizAttemptLog(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${quizstream.quiz.attempts.log.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("quizstream.quiz.attempts.log.queued", queue, BlockingQueue::size)
+                .description("Quiz attempts waiting to be written to the attempt log")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("quizstream.quiz.attempts.log.dropped")
+                .description("Quiz attempts dropped because the attempt log could not keep up")
+                .register(meterRegistry);
+    }
+
+    public void record(UUID userId, UUID quizId, int numCorrect, int numQuestions) {
+        Attempt attempt = new Attempt(userId, quizId, LocalDateTime.now(ZoneOffset.UTC), numCorrect, numQuestions);
+        if (queue.offer(attempt)) {
+            return;
+        }
+
+        flush();
+        if (!queue.offer(attempt)) {
+            dropped.increment();
+            logger.warn("Attempt log is full, dropped attempt of quiz with id '{}'.", quizId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quizstream.quiz.attempts.log.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Attempt> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to write {} attempts to the attempt log, retrying with the next flush. " +
+                            "Error: {}", batch.size(), e.getMessage());
+                    requeue(batch);
+                    return;
+                }
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        if (!queue.isEmpty()) {
+            logger.error("Lost {} attempts that could not be written to the attempt log on shutdown.", queue.size());
+        }
+    }
+
+    private void write(List<Attempt> batch) {
+        List<Object[]> attempts = batch.stream()
+                .map(attempt -> new Object[] { attempt.userId(), attempt.quizId(),
+                        attempt.attemptedAt(), attempt.numCorrect(), attempt.numQuestions() })
+                .toList();
+        List<Object[]> rollups = rollUp(batch);
+        SqlParameterSource[] windows = windowTotals(batch);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            namedParameterJdbcTemplate.batchUpdate(UPSERT_WINDOW_SQL, windows);
+            jdbcTemplate.batchUpdate(INSERT_ATTEMPT_SQL, attempts);
+            jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rollups);
+        });
+    }
+
+    // one upsert per user and bucket, attempts of the same bucket are summed up before
+    static List<Object[]> rollUp(List<Attempt> batch) {
+        Map<Bucket, long[]> totals = new LinkedHashMap<>();
+        for (Attempt attempt : batch) {
+            for (QuizAttemptRollup.Granularity granularity : QuizAttemptRollup.Granularity.values()) {
+                long[] total = totals.computeIfAbsent(
+                        new Bucket(attempt.userId(), granularity, granularity.bucketOf(attempt.attemptedAt())),
+                        bucket -> new long[3]);
+                total[0]++;
+                total[1] += attempt.numCorrect();
+                total[2] += attempt.numQuestions();
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((bucket, total) -> rows.add(new Object[] { bucket.userId(), bucket.granularity()
+                .name(), bucket.bucketStart(), total[0], total[1], total[2] }));
+        return rows;
+    }
+
+    // one upsert per user and daily or weekly leaderboard window
+    static SqlParameterSource[] windowTotals(List<Attempt> batch) {
+        Map<Window, WindowTotal> totals = new LinkedHashMap<>();
+        for (Attempt attempt : batch) {
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                if (!window.isRolling()) {
+                    continue;
+                }
+                totals.computeIfAbsent(new Window(attempt.userId(), window, window.startOf(attempt.attemptedAt())),
+                        key -> new WindowTotal())
+                        .add(attempt);
+            }
+        }
+
+        return totals.entrySet()
+                .stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("window", entry.getKey()
+                                .window()
+                                .name())
+                        .addValue("windowStart", entry.getKey()
+                                .windowStart())
+                        .addValue("userId", entry.getKey()
+                                .userId())
+                        .addValue("quizIds", entry.getValue().quizIds.stream()
+                                .map(UUID::toString)
+                                .collect(Collectors.joining(",")))
+                        .addValue("numAttempts", entry.getValue().numAttempts)
+                        .addValue("numQuestions", entry.getValue().numQuestions)
+                        .addValue("numCorrect", entry.getValue().numCorrect))
+                .toArray(SqlParameterSource[]::new);
+    }
+
+    private void requeue(List<Attempt> batch) {
+        int lost = 0;
+        for (Attempt attempt : batch) {
+            if (!queue.offer(attempt)) {
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            dropped.increment(lost);
+            logger.warn("Attempt log is full, dropped {} attempts that could not be written.", lost);
+        }
+    }
+
+    record Attempt(UUID userId, UUID quizId, LocalDateTime attemptedAt, int numCorrect, int numQuestions) {
+    }
+
+    private record Window(UUID userId, LeaderboardWindow window, LocalDateTime windowStart) {
+    }
+
+    private static final class WindowTotal {
+
+        private final Set<UUID> quizIds = new LinkedHashSet<>();
+        private long numAttempts;
+        private long numQuestions;
+        private long numCorrect;
+
+        void add(Attempt attempt) {
+            quizIds.add(attempt.quizId());
+            numAttempts++;
+            numQuestions += attempt.numQuestions();
+            numCorrect += attempt.numCorrect();
+        }
+    }
+
+    private record Bucket(UUID userId, QuizAttemptRollup.Granularity granularity, LocalDateTime bucketStart) {
+    }
+}
@@ -5,23 +5,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import app.quizstream.dto.quiz.QuizCreateRequestDto;
 import app.quizstream.dto.quiz.QuizCreateResultDto;
 import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.exception.QuizGeneratorUnavailableException;
 import app.quizstream.security.config.EnvConfigs;
 import app.quizstream.util.mapper.QuizMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Service
 @Profile("!prod")
@@ -34,17 +41,26 @@ public class QuizCreationHttp implements IQuizCreationInitiator {
     private final QuizRequestService quizJobService;
     private final QuizMapper quizMapper;
     private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final QuizGeneratorGuard quizGeneratorGuard;
 
     public QuizCreationHttp(RestTemplate restTemplate, EnvConfigs envConfigs,
-            QuizRequestService quizJobService, QuizMapper quizMapper, ObjectMapper objectMapper) {
+            QuizRequestService quizJobService, QuizMapper quizMapper, ObjectMapper objectMapper,
+            @Qualifier("quizCreationThreadPool") ThreadPoolExecutor threadPool, MeterRegistry meterRegistry,
+            QuizGeneratorGuard quizGeneratorGuard) {
         this.restTemplate = restTemplate;
         this.envConfigs = envConfigs;
         this.quizJobService = quizJobService;
         this.quizMapper = quizMapper;
         this.objectMapper = objectMapper;
+        this.threadPool = threadPool;
+        this.quizGeneratorGuard = quizGeneratorGuard;
+        // records quizstream.executor (execution time) and quizstream.executor.idle (queue wait) next to the pool
+        // and queue size gauges, tagged with name=quiz.creation.http
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "quiz.creation.http", "quizstream");
     }
 
-    @Async
     public void createQuiz(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
 
         // create the request body for FastAPI
@@ -63,11 +79,11 @@ public class QuizCreationHttp implements IQuizCreationInitiator {
         try {
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, new HttpHeaders());
 
-            ResponseEntity<String> response = restTemplate.exchange(
+            ResponseEntity<String> response = quizGeneratorGuard.call(() -> restTemplate.exchange(
                     envConfigs.backendCreateNewQuizEndpoint,
                     HttpMethod.POST,
                     request,
-                    String.class);
+                    String.class));
 
             // TODO: should quizDto be returned somehow?
             QuizCreateResultDto quizDto = quizMapper.convertToQuizOutboundDto(response.getBody());
@@ -89,6 +105,9 @@ public class QuizCreationHttp implements IQuizCreationInitiator {
                     errorExt = errors.get()[1];
                 }
 
+            } else if (e instanceof QuizGeneratorUnavailableException) {
+                errorInt = e.getMessage();
+                errorExt = "Quiz generation is currently overloaded. Please try again in a few minutes.";
             } else {
                 errorInt = e.getMessage();
                 errorExt = "Unexpected error processing request. Please try again later.";
@@ -114,9 +133,18 @@ public class QuizCreationHttp implements IQuizCreationInitiator {
     }
 
     @Override
-    public void initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
+    public CompletableFuture<Void> initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
         logger.info("Initiating quiz creation via async backend call for quizJobId: {}", quizJob.getId());
-        this.createQuiz(quizCreateDto, quizJob);
+        // throws RejectedExecutionException if the queue is full. Accepted requests are handed over, createQuiz
+        // records the outcome itself
+        executor.execute(() -> createQuiz(quizCreateDto, quizJob));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isSaturated() {
+        return threadPool.getQueue()
+                .remainingCapacity() == 0;
     }
 
     public Optional<String[]> handleHttpClientBackendError(HttpClientErrorException e) {
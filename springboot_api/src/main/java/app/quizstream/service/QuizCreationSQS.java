@@ -6,102 +6,88 @@ import app.quizstream.repository.QuizRequestRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import app.quizstream.security.config.EnvConfigs;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
-import software.amazon.awssdk.services.sqs.model.SqsException;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Profile("prod")
+@ConditionalOnProperty(name = "quizstream.sqs.client", havingValue = "batch", matchIfMissing = true)
 public class QuizCreationSQS implements IQuizCreationInitiator {
 
     private static final Logger logger = LoggerFactory.getLogger(QuizCreationSQS.class);
 
     private final EnvConfigs envConfigs;
     private final ObjectMapper objectMapper;
-    private final SqsClient sqsClient;
+    private final SqsBatchPublisher sqsBatchPublisher;
     private final QuizRequestRepository quizRequestRepository;
 
-    public QuizCreationSQS(EnvConfigs envConfigs, ObjectMapper objectMapper, SqsClient sqsClient,
+    public QuizCreationSQS(EnvConfigs envConfigs, ObjectMapper objectMapper, SqsBatchPublisher sqsBatchPublisher,
             QuizRequestRepository quizRequestRepository) {
         this.envConfigs = envConfigs;
         this.objectMapper = objectMapper;
-        this.sqsClient = sqsClient;
+        this.sqsBatchPublisher = sqsBatchPublisher;
         this.quizRequestRepository = quizRequestRepository;
     }
 
-    public void publishQuizRequestToQueue(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
-
-        // create the message body for SQS
-        Map<String, Object> messageData = Map.of(
-                "user_id", quizCreateDto.userId(),
-                "quiz_name", quizCreateDto.quizName(),
-                "api_keys", quizCreateDto.apiKeys(),
-                "youtube_url", quizCreateDto.videoUrl(),
-                "language", quizCreateDto.language().toString(),
-                "type", quizCreateDto.type().toString(),
-                "difficulty", quizCreateDto.difficulty().toString());
+    // completes when SQS acknowledged the message, a failed send is retried by the outbox
+    public CompletableFuture<Void> publishQuizRequestToQueue(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
 
         String messageBodyJson;
         try {
-            messageBodyJson = objectMapper.writeValueAsString(messageData);
+            messageBodyJson = createMessageBody(quizCreateDto);
         } catch (JsonProcessingException e) {
             logger.error("Failed to serialize quiz request data");
             quizJob.updateRequestState(QuizRequest.Status.FAILED, null, null,
                     "Failed to serialize quiz request data");
             quizRequestRepository.save(quizJob);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        logger.info("QuizJob: {}", quizJob);
-        logger.info("QuizJob User: {}", quizJob.getUser());
-        logger.info("QuizJob User ID: {}", quizJob.getUser().getId());
-        logger.info("QuizJob ID: {}", quizJob.getId().toString());
-
-        try {
-            SendMessageRequest sendMsgRequest = SendMessageRequest.builder()
-                    .queueUrl(envConfigs.getSqsQueueUrl())
-                    .messageBody(messageBodyJson)
-                    .messageGroupId(quizJob.getUser().getId().toString())
-                    .messageDeduplicationId(quizJob.getId().toString())
-                    .build();
-
-            sqsClient.sendMessage(sendMsgRequest);
+        // marked as queued up front, the quiz generator only processes messages of queued requests. Stays queued if
+        // the send fails, the outbox sends it again
+        quizJob.updateRequestState(QuizRequest.Status.QUEUED, null, null, "Queued request");
+        quizRequestRepository.save(quizJob);
+
+        return sqsBatchPublisher.publish(messageBodyJson, quizJob.getUser()
+                .getId()
+                .toString(), quizJob.getId()
+                        .toString())
+                .thenAccept(messageId -> logger.info(
+                        "Successfully sent quiz creation request to SQS queue {} for quizJobId: {}",
+                        envConfigs.getSqsQueueUrl(), quizJob.getId()));
+    }
 
-            logger.info("Successfully sent quiz creation request to SQS queue {} for quizJobId: {}",
-                    envConfigs.getSqsQueueUrl(), quizJob.getId());
+    public String createMessageBody(QuizCreateRequestDto quizCreateDto) throws JsonProcessingException {
+        return createMessageBody(objectMapper, quizCreateDto);
+    }
 
-            quizJob.updateRequestState(QuizRequest.Status.QUEUED, null, null,
-                    "Queued request");
-            quizRequestRepository.save(quizJob);
+    static String createMessageBody(ObjectMapper objectMapper, QuizCreateRequestDto quizCreateDto)
+            throws JsonProcessingException {
 
-        } catch (SqsException e) {
-            logger.error("Failed to send quiz request message to SQS queue {} for quizJobId: {}. AWS Error: {}",
-                    envConfigs.getSqsQueueUrl(), quizJob.getId(),
-                    e.awsErrorDetails().errorMessage(), e);
-            quizJob.updateRequestState(QuizRequest.Status.FAILED, null, null,
-                    "Failed to queue request");
-            quizRequestRepository.save(quizJob);
+        // create the message body for SQS
+        Map<String, Object> messageData = Map.of(
+                "user_id", quizCreateDto.userId(),
+                "quiz_name", quizCreateDto.quizName(),
+                "api_keys", quizCreateDto.apiKeys(),
+                "youtube_url", quizCreateDto.videoUrl(),
+                "language", quizCreateDto.language().toString(),
+                "type", quizCreateDto.type().toString(),
+                "difficulty", quizCreateDto.difficulty().toString());
 
-        } catch (Exception e) {
-            logger.error("An unexpected error occurred while sending quiz request to SQS for quizJobId: {}. Error: {}",
-                    quizJob.getId(), e.getMessage(), e);
-            quizJob.updateRequestState(QuizRequest.Status.FAILED, null, null,
-                    "Unexpected error while queuing request");
-            quizRequestRepository.save(quizJob);
-        }
+        return objectMapper.writeValueAsString(messageData);
     }
 
     @Override
-    public void initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
+    public CompletableFuture<Void> initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
         logger.info("Initiating quiz creation via SQS queue for quizJobId: {}", quizJob.getId());
-        this.publishQuizRequestToQueue(quizCreateDto, quizJob);
+        return this.publishQuizRequestToQueue(quizCreateDto, quizJob);
     }
 }
@@ -0,0 +1,116 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.security.config.EnvConfigs;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends quiz requests with the non-blocking {@link SqsAsyncClient}, the calling thread does not wait for SQS.
+ * At most {@code quizstream.sqs.async.max-in-flight} messages are sent at a time, further requests wait up to
+ * {@code quizstream.sqs.async.acquire-timeout-ms} for a permit and are rejected otherwise. The returned future
+ * completes when SQS acknowledged the message, failed sends are retried by the outbox.
+ */
+@Service
+@Profile("prod")
+@ConditionalOnProperty(name = "quizstream.sqs.client", havingValue = "async")
+public class QuizCreationSQSAsync implements IQuizCreationInitiator {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizCreationSQSAsync.class);
+
+    private final EnvConfigs envConfigs;
+    private final ObjectMapper objectMapper;
+    private final SqsAsyncClient sqsAsyncClient;
+    private final QuizRequestRepository quizRequestRepository;
+    private final Semaphore inFlight;
+
+    @Value("${quizstream.sqs.async.acquire-timeout-ms:100}")
+    private long acquireTimeoutMs;
+
+    public QuizCreationSQSAsync(EnvConfigs envConfigs, ObjectMapper objectMapper, SqsAsyncClient sqsAsyncClient,
+            QuizRequestRepository quizRequestRepository,
+            @Value("${quizstream.sqs.async.max-in-flight:64}") int maxInFlight) {
+        this.envConfigs = envConfigs;
+        this.objectMapper = objectMapper;
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.quizRequestRepository = quizRequestRepository;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public CompletableFuture<Void> initiate(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
+        logger.info("Initiating quiz creation via SQS queue (async) for quizJobId: {}", quizJob.getId());
+
+        String messageBodyJson;
+        try {
+            messageBodyJson = QuizCreationSQS.createMessageBody(objectMapper, quizCreateDto);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize quiz request data");
+            quizJob.updateRequestState(QuizRequest.Status.FAILED, null, null,
+                    "Failed to serialize quiz request data");
+            quizRequestRepository.save(quizJob);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // the request stays in the outbox and is retried later
+        if (!acquirePermit()) {
+            throw new RejectedExecutionException("Too many quiz requests in flight");
+        }
+
+        // marked as queued up front, the quiz generator only processes messages of queued requests. Stays queued if
+        // the send fails, the outbox sends it again
+        quizJob.updateRequestState(QuizRequest.Status.QUEUED, null, null, "Queued request");
+        quizRequestRepository.save(quizJob);
+
+        SendMessageRequest sendMessageRequest = SendMessageRequest.builder()
+                .queueUrl(envConfigs.getSqsQueueUrl())
+                .messageBody(messageBodyJson)
+                .messageGroupId(quizJob.getUser()
+                        .getId()
+                        .toString())
+                .messageDeduplicationId(quizJob.getId()
+                        .toString())
+                .build();
+
+        try {
+            return sqsAsyncClient.sendMessage(sendMessageRequest)
+                    .whenComplete((response, error) -> inFlight.release())
+                    .thenAccept(response -> logger.info(
+                            "Successfully sent quiz creation request to SQS queue {} for quizJobId: {}",
+                            envConfigs.getSqsQueueUrl(), quizJob.getId()));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public boolean isSaturated() {
+        return inFlight.availablePermits() == 0;
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.LangchainPGEmbeddingRepository;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.repository.UserQuizRepository;
+import app.quizstream.util.video.VideoUrls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reuses the questions of an already generated quiz if a quiz for the same video, language, difficulty and type is
+ * requested again, instead of generating them from scratch.
+ * <p>
+ * Reused quizzes share the generated collection with the original quiz. Shared collections are not modified: the
+ * names chosen by the users are kept in the quiz_name column of user_quiz and the collection is
+ * deleted together with the last quiz referencing it, see {@link UserQuizService}.
+ * <p>
+ * Hits and misses are counted in {@code quizstream.quiz.dedupe} tagged with {@code result}.
+ */
+@Service
+public class QuizDeduplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizDeduplicationService.class);
+
+    static final String SHARED_NAME_PREFIX = "shared:";
+
+    private final QuizRequestRepository quizRequestRepository;
+    private final LangchainPGCollectionRepository langchainPGCollectionRepository;
+    private final UserQuizRepository userQuizRepository;
+    private final LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${quizstream.quiz.dedupe.enabled:true}")
+    private boolean enabled;
+
+    public QuizDeduplicationService(QuizRequestRepository quizRequestRepository,
+            LangchainPGCollectionRepository langchainPGCollectionRepository, UserQuizRepository userQuizRepository,
+            LangchainPGEmbeddingRepository langchainPGEmbeddingRepository, MeterRegistry meterRegistry) {
+        this.quizRequestRepository = quizRequestRepository;
+        this.langchainPGCollectionRepository = langchainPGCollectionRepository;
+        this.userQuizRepository = userQuizRepository;
+        this.langchainPGEmbeddingRepository = langchainPGEmbeddingRepository;
+        this.hits = Counter.builder("quizstream.quiz.dedupe")
+                .tag("result", "hit")
+                .description("Quiz requests served by copying an existing quiz")
+                .register(meterRegistry);
+        this.misses = Counter.builder("quizstream.quiz.dedupe")
+                .tag("result", "miss")
+                .description("Quiz requests that need to be generated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the most recent finished quiz generated with the same settings to the quizzes of the requesting user.
+     * The generated content is shared, only if the user already has that quiz it is copied.
+     *
+     * @return the id of the user's new quiz, or empty if the quiz has to be generated
+     */
+    @Transactional
+    public Optional<UUID> reuseExistingQuiz(QuizCreateRequestDto quizCreateDto) {
+        // name conflicts are reported by the quiz generator, so the request takes the regular path
+        if (!enabled || langchainPGCollectionRepository.existsByName(quizCreateDto.quizName())
+                || userQuizRepository.existsByUserIdAndQuizName(quizCreateDto.userId(), quizCreateDto.quizName())) {
+            return Optional.empty();
+        }
+
+        Optional<UUID> sourceQuizId = quizRequestRepository.findFinishedQuizIdByRequestMetadata(
+                VideoUrls.canonicalize(quizCreateDto.videoUrl()),
+                quizCreateDto.language()
+                        .name(),
+                quizCreateDto.difficulty()
+                        .name(),
+                quizCreateDto.type()
+                        .name())
+                // the lock keeps the collection from being deleted together with its last quiz meanwhile
+                .flatMap(langchainPGCollectionRepository::lockForUpdate);
+
+        if (sourceQuizId.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        UUID quizId;
+        try {
+            quizId = userQuizRepository.existsById_UserIdAndId_QuizId(quizCreateDto.userId(), sourceQuizId.get())
+                    ? copyQuiz(quizCreateDto, sourceQuizId.get())
+                    : shareQuiz(quizCreateDto, sourceQuizId.get());
+        } catch (DataIntegrityViolationException e) {
+            // the checks above are not atomic with the inserts, a concurrent request created the same quiz meanwhile
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Quiz '" + quizCreateDto.quizName() + "' is already being created by another request.", e);
+        }
+
+        hits.increment();
+        logger.info("Created quiz '{}' for user with id '{}' from existing quiz '{}'.", quizCreateDto.quizName(),
+                quizCreateDto.userId(), sourceQuizId.get());
+
+        return Optional.of(quizId);
+    }
+
+    private UUID shareQuiz(QuizCreateRequestDto quizCreateDto, UUID sourceQuizId) {
+        // once shared, the collection name is no longer the name of any quiz and can not clash with new quiz names
+        String sharedName = SHARED_NAME_PREFIX + sourceQuizId;
+        userQuizRepository.pinQuizNames(sourceQuizId);
+        langchainPGCollectionRepository.rename(sourceQuizId, sharedName);
+
+        insertUserQuiz(quizCreateDto, sourceQuizId, quizCreateDto.quizName(),
+                langchainPGEmbeddingRepository.countByCollectionId(sourceQuizId));
+
+        return sourceQuizId;
+    }
+
+    private UUID copyQuiz(QuizCreateRequestDto quizCreateDto, UUID sourceQuizId) {
+        UUID quizId = UUID.randomUUID();
+        langchainPGCollectionRepository.copyCollection(sourceQuizId, quizId, quizCreateDto.quizName());
+        int numQuestions = langchainPGCollectionRepository.copyEmbeddings(sourceQuizId, quizId);
+
+        insertUserQuiz(quizCreateDto, quizId, null, numQuestions);
+
+        return quizId;
+    }
+
+    private void insertUserQuiz(QuizCreateRequestDto quizCreateDto, UUID quizId, String quizName, long numQuestions) {
+        userQuizRepository.insertUserQuiz(quizCreateDto.userId(), quizId, quizName, (int) numQuestions,
+                quizCreateDto.language()
+                        .name(),
+                quizCreateDto.type()
+                        .name(),
+                quizCreateDto.difficulty()
+                        .name(),
+                LocalDateTime.now());
+    }
+}
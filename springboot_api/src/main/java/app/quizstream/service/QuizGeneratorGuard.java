@@ -0,0 +1,98 @@
+package app.quizstream.service;
+
+import app.quizstream.exception.QuizGeneratorUnavailableException;
+import app.quizstream.util.concurrency.AimdLimiter;
+import app.quizstream.util.concurrency.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Protects the quiz generator backend with an adaptive concurrency limit and a circuit breaker. Calls beyond the
+ * limit or while the breaker is open fail fast with {@link QuizGeneratorUnavailableException} instead of waiting for
+ * a backend that is already struggling.
+ * <p>
+ * Client errors are answers of a healthy backend (e.g. invalid API keys) and neither count as failure nor shrink the
+ * limit. Timeouts, connection errors and server errors do both, successful calls slower than
+ * {@code quizstream.quiz.generator.latency-threshold-ms} only shrink the limit.
+ * <p>
+ * Exposes {@code quizstream.quiz.generator.limit}, {@code .in_flight}, {@code .circuit_state} (0 closed, 1 open,
+ * 2 half open) and {@code .rejected} tagged with {@code reason}.
+ */
+@Component
+@Profile("!prod")
+public class QuizGeneratorGuard {
+
+    private final AimdLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter rejectedByLimit;
+    private final Counter rejectedByCircuit;
+
+    public QuizGeneratorGuard(MeterRegistry meterRegistry,
+            @Value("${quizstream.quiz.generator.initial-limit:4}") int initialLimit,
+            @Value("${quizstream.quiz.generator.min-limit:1}") int minLimit,
+            @Value("${quizstream.quiz.generator.max-limit:4}") int maxLimit,
+            @Value("${quizstream.quiz.generator.latency-threshold-ms:120000}") long latencyThresholdMs,
+            @Value("${quizstream.quiz.generator.failure-threshold:5}") int failureThreshold,
+            @Value("${quizstream.quiz.generator.open-duration-ms:30000}") long openDurationMs) {
+        this.limiter = new AimdLimiter(initialLimit, minLimit, maxLimit, 0.75,
+                Duration.ofMillis(latencyThresholdMs)
+                        .toNanos());
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofMillis(openDurationMs)
+                .toNanos());
+
+        Gauge.builder("quizstream.quiz.generator.limit", limiter, AimdLimiter::getLimit)
+                .description("Current concurrency limit for quiz generator calls")
+                .register(meterRegistry);
+        Gauge.builder("quizstream.quiz.generator.in_flight", limiter, AimdLimiter::getInFlight)
+                .description("Quiz generator calls in flight")
+                .register(meterRegistry);
+        Gauge.builder("quizstream.quiz.generator.circuit_state", circuitBreaker, breaker -> breaker.getState()
+                .ordinal())
+                .description("State of the quiz generator circuit breaker, 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+        this.rejectedByLimit = Counter.builder("quizstream.quiz.generator.rejected")
+                .tag("reason", "limit")
+                .description("Quiz generator calls rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+        this.rejectedByCircuit = Counter.builder("quizstream.quiz.generator.rejected")
+                .tag("reason", "circuit_open")
+                .description("Quiz generator calls rejected because the circuit breaker was open")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> generatorCall) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedByCircuit.increment();
+            throw new QuizGeneratorUnavailableException("circuit breaker is open");
+        }
+        if (!limiter.tryAcquire()) {
+            circuitBreaker.release();
+            rejectedByLimit.increment();
+            throw new QuizGeneratorUnavailableException("concurrency limit of " + limiter.getLimit() + " reached");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = generatorCall.get();
+            limiter.onSuccess(System.nanoTime() - start);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            limiter.onIgnored();
+            circuitBreaker.onSuccess();
+            throw e;
+        } catch (RuntimeException e) {
+            limiter.onDropped();
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizProgressPointDto;
+import app.quizstream.entity.attempt.QuizAttemptRollup;
+import app.quizstream.repository.QuizAttemptRepository;
+import app.quizstream.repository.QuizAttemptRollupRepository;
+import app.quizstream.util.mapper.QuizMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Progress of a user over time, read from the rollups maintained by {@link QuizAttemptLog}. Attempts still queued in
+ * the log show up after its next flush.
+ */
+@Service
+public class QuizProgressService {
+
+    private final QuizAttemptRollupRepository quizAttemptRollupRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizMapper quizMapper;
+
+    @Value("${quizstream.quiz.progress.max-points:1000}")
+    private long maxPoints;
+
+    public QuizProgressService(QuizAttemptRollupRepository quizAttemptRollupRepository,
+            QuizAttemptRepository quizAttemptRepository, QuizMapper quizMapper) {
+        this.quizAttemptRollupRepository = quizAttemptRollupRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizMapper = quizMapper;
+    }
+
+    // the range defaults to the last maxPoints buckets up to now, buckets without attempts are left out
+    public List<QuizProgressPointDto> getProgress(UUID userId, QuizAttemptRollup.Granularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        Duration bucket = granularity.getDuration();
+
+        LocalDateTime end = Objects.requireNonNullElseGet(to, () -> LocalDateTime.now(ZoneOffset.UTC));
+        LocalDateTime start = Objects.requireNonNullElseGet(from, () -> granularity.bucketOf(end)
+                .minus(bucket.multipliedBy(maxPoints - 1)));
+
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' has to be before 'to'.");
+        }
+        if (Duration.between(start, end)
+                .compareTo(bucket.multipliedBy(maxPoints)) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The range may contain at most " + maxPoints + " buckets.");
+        }
+
+        return quizAttemptRollupRepository.findSeries(userId, granularity, granularity.bucketOf(start), end)
+                .stream()
+                .map(quizMapper::convertToProgressPoint)
+                .toList();
+    }
+
+    @Transactional
+    public void removeUser(UUID userId) {
+        quizAttemptRepository.deleteByUserId(userId);
+        quizAttemptRollupRepository.deleteByUserId(userId);
+    }
+}
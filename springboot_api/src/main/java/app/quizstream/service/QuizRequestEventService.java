@@ -0,0 +1,159 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizRequestDto;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.entity.request.QuizRequestStatusChanged;
+import app.quizstream.util.mapper.QuizRequestMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes status changes of quiz requests to the users' Server-Sent Events subscriptions. Changes made by this
+ * service are published after their transaction committed, changes written by the quiz generator or other instances
+ * are received via {@link QuizRequestNotificationListener}. The listener is also notified of this service's own
+ * changes, states that were already published are dropped so every change reaches the subscribers once.
+ * <p>
+ * Emitters are asynchronous and do not hold a request thread, sending happens on virtual threads so that a slow
+ * client does not hold up the thread that changed the request. The sends of a user are chained one after another, so
+ * the user receives the changes in the order they were published.
+ */
+@Service
+public class QuizRequestEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizRequestEventService.class);
+
+    static final String EVENT_NAME = "quiz-request";
+
+    private final QuizRequestMapper quizRequestMapper;
+    private final Map<UUID, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    // the notification of a change arrives shortly after its in-process event, or the other way round
+    private final Cache<QuizRequestId, PublishedState> lastPublished = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("quiz-request-events-", 0)
+            .factory());
+    // the last pending send of each user, removed once it completed without a successor
+    private final Map<UUID, CompletableFuture<Void>> sendsByUser = new ConcurrentHashMap<>();
+
+    @Value("${quizstream.quiz.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public QuizRequestEventService(QuizRequestMapper quizRequestMapper, MeterRegistry meterRegistry) {
+        this.quizRequestMapper = quizRequestMapper;
+
+        Gauge.builder("quizstream.quiz.events.subscribers", emittersByUser, emitters -> emitters.values()
+                .stream()
+                .mapToInt(Set::size)
+                .sum())
+                .description("Open quiz request event streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emittersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet())
+                .add(emitter);
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(error -> remove(userId, emitter));
+
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(QuizRequestStatusChanged event) {
+        publish(quizRequestMapper.mapFromEntityOutbound(event.quizRequest()));
+    }
+
+    public void publish(QuizRequestDto quizRequest) {
+        Set<SseEmitter> emitters = emittersByUser.get(quizRequest.userId());
+        if (emitters == null || emitters.isEmpty() || !markPublished(quizRequest)) {
+            return;
+        }
+
+        sendInOrder(quizRequest.userId(), () -> emitters.forEach(emitter -> send(quizRequest.userId(), emitter,
+                SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .data(quizRequest))));
+    }
+
+    // proxies close idle connections, the comment also detects clients that went away
+    @Scheduled(fixedDelayString = "${quizstream.quiz.events.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        emittersByUser.forEach((userId, emitters) -> sendInOrder(userId, () -> emitters.forEach(
+                emitter -> send(userId, emitter, SseEmitter.event()
+                        .comment("heartbeat")))));
+    }
+
+    @PreDestroy
+    public void close() {
+        emittersByUser.values()
+                .forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        sender.shutdown();
+    }
+
+    // false if the same state of the request was published before
+    boolean markPublished(QuizRequestDto quizRequest) {
+        PublishedState state = new PublishedState(quizRequest.status(), quizRequest.quizId(),
+                quizRequest.dateModified() == null ? null
+                        : quizRequest.dateModified()
+                                .truncatedTo(ChronoUnit.MICROS));
+        return !state.equals(lastPublished.asMap()
+                .put(new QuizRequestId(quizRequest.userId(), quizRequest.quizName()), state));
+    }
+
+    // runs after the previous send of the user finished, whether it failed or not
+    void sendInOrder(UUID userId, Runnable send) {
+        CompletableFuture<Void> next = sendsByUser.compute(userId, (id, previous) -> previous == null
+                ? CompletableFuture.runAsync(send, sender)
+                : previous.exceptionally(error -> null)
+                        .thenRunAsync(send, sender));
+        next.whenComplete((result, error) -> sendsByUser.remove(userId, next));
+    }
+
+    private void send(UUID userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping quiz request event stream of user with id '{}': {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    // timestamps are compared at the precision they are stored with
+    private record PublishedState(QuizRequest.Status status, UUID quizId, LocalDateTime dateModified) {
+    }
+}
@@ -0,0 +1,186 @@
+package app.quizstream.service;
+
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.util.mapper.QuizRequestMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Receives the status changes written to quiz_requests through Postgres LISTEN/NOTIFY and hands them to
+ * {@link QuizRequestEventService}. Every write is notified, whether by the quiz generator, another instance or this
+ * one, the event service drops the changes it already published. Listens on a single virtual thread with one
+ * dedicated connection, which is reopened if it breaks.
+ * <p>
+ * quiz_requests is created by Hibernate or the quiz generator after the migrations ran, so the notifying trigger is
+ * installed here once the table exists instead of in a migration.
+ */
+@Component
+public class QuizRequestNotificationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizRequestNotificationListener.class);
+
+    static final String CHANNEL = "quiz_request_status";
+
+    static final String FUNCTION_BODY = " BEGIN " +
+            "PERFORM pg_notify('" + CHANNEL + "', " +
+            "json_build_object('user_id', NEW.user_id, 'quiz_name', NEW.quiz_name)::text); " +
+            "RETURN NEW; END ";
+
+    // replaces the function of migration V0_8, which left out the changes made by this service
+    static final String CREATE_FUNCTION_SQL = "CREATE OR REPLACE FUNCTION notify_quiz_request_status() " +
+            "RETURNS trigger AS $$" + FUNCTION_BODY + "$$ LANGUAGE plpgsql";
+
+    static final String CREATE_TRIGGER_SQL = "CREATE OR REPLACE TRIGGER tr_quiz_requests_status " +
+            "AFTER INSERT OR UPDATE OF status ON quiz_requests " +
+            "FOR EACH ROW EXECUTE FUNCTION notify_quiz_request_status()";
+
+    static final String TRIGGER_STATE_SQL = "SELECT to_regclass('quiz_requests') IS NOT NULL, " +
+            "EXISTS (SELECT 1 FROM pg_proc WHERE proname = 'notify_quiz_request_status' " +
+            "AND prosrc = $body$" + FUNCTION_BODY + "$body$), " +
+            "EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = 'tr_quiz_requests_status' " +
+            "AND tgrelid = to_regclass('quiz_requests'))";
+
+    // concurrent replacements of the same function fail, the instances starting together install it one at a time
+    static final String LOCK_SQL = "SELECT pg_advisory_lock(hashtext('quizstream_quiz_request_trigger'))";
+    static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('quizstream_quiz_request_trigger'))";
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final DataSource dataSource;
+    private final QuizRequestRepository quizRequestRepository;
+    private final QuizRequestMapper quizRequestMapper;
+    private final QuizRequestEventService quizRequestEventService;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public QuizRequestNotificationListener(DataSource dataSource, QuizRequestRepository quizRequestRepository,
+            QuizRequestMapper quizRequestMapper, QuizRequestEventService quizRequestEventService,
+            ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.quizRequestRepository = quizRequestRepository;
+        this.quizRequestMapper = quizRequestMapper;
+        this.quizRequestEventService = quizRequestEventService;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofVirtual()
+                .name("quiz-request-notifications")
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                connection.setAutoCommit(true);
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Listening for quiz request status notifications.");
+
+                boolean triggerInstalled = false;
+                while (running) {
+                    if (!triggerInstalled) {
+                        triggerInstalled = installTrigger(statement);
+                    }
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Quiz request status notifications interrupted, reconnecting. Error: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // idempotent, the table is checked again on every poll until it exists, the DDL only runs if anything is missing
+    boolean installTrigger(Statement statement) throws SQLException {
+        boolean tableExists;
+        boolean functionCurrent;
+        boolean triggerExists;
+        try (ResultSet resultSet = statement.executeQuery(TRIGGER_STATE_SQL)) {
+            resultSet.next();
+            tableExists = resultSet.getBoolean(1);
+            functionCurrent = resultSet.getBoolean(2);
+            triggerExists = resultSet.getBoolean(3);
+        }
+
+        if (!tableExists) {
+            logger.warn("Table quiz_requests does not exist yet, status changes are not notified.");
+            return false;
+        }
+        if (functionCurrent && triggerExists) {
+            return true;
+        }
+
+        statement.execute(LOCK_SQL);
+        try {
+            if (!functionCurrent) {
+                statement.execute(CREATE_FUNCTION_SQL);
+            }
+            if (!triggerExists) {
+                statement.execute(CREATE_TRIGGER_SQL);
+            }
+            logger.info("Installed quiz request status trigger.");
+        } finally {
+            statement.execute(UNLOCK_SQL);
+        }
+        return true;
+    }
+
+    void handle(String payload) {
+        try {
+            JsonNode json = objectMapper.readTree(payload);
+            QuizRequestId quizRequestId = new QuizRequestId(UUID.fromString(json.get("user_id")
+                    .asText()),
+                    json.get("quiz_name")
+                            .asText());
+
+            quizRequestRepository.findById(quizRequestId)
+                    .map(quizRequestMapper::mapFromEntityOutbound)
+                    .ifPresent(quizRequestEventService::publish);
+        } catch (Exception e) {
+            logger.warn("Failed to handle quiz request status notification '{}'. Error: {}", payload, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.entity.outbox.QuizRequestOutbox;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.repository.QuizRequestOutboxRepository;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.util.crypto.SecretCipher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Transactional outbox for quiz creation requests. Requests are stored together with their quiz request and handed
+ * to the {@link IQuizCreationInitiator} in the background, so a crash after the request was accepted does not leave
+ * it in CREATING forever.
+ * <p>
+ * Entries are relayed at least once, in order per user: an entry is only deleted once the initiator's future
+ * completed, for SQS when the message was acknowledged. Failed attempts are retried with exponential backoff and the
+ * quiz request is marked as failed after {@code quizstream.quiz.outbox.max-attempts} attempts.
+ * <p>
+ * The API keys of a request are encrypted with {@code quizstream.quiz.outbox.encryption-key} and never part of the
+ * payload. The key is required in production, elsewhere a random key is used if none is configured and the entries
+ * left by a previous run then fail their request.
+ */
+@Service
+public class QuizRequestOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizRequestOutboxRelay.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final Duration REJECTED_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final TypeReference<Map<String, String>> API_KEYS_TYPE = new TypeReference<>() {
+    };
+
+    // queued requests with an entry left were not acknowledged yet and are sent again, SQS deduplicates them
+    private static final Set<QuizRequest.Status> RELAYABLE = EnumSet.of(QuizRequest.Status.CREATING,
+            QuizRequest.Status.QUEUED);
+
+    private final QuizRequestOutboxRepository quizRequestOutboxRepository;
+    private final QuizRequestRepository quizRequestRepository;
+    private final IQuizCreationInitiator quizCreationInitiator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SecretCipher secretCipher;
+
+    @Value("${quizstream.quiz.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${quizstream.quiz.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${quizstream.quiz.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    public QuizRequestOutboxRelay(QuizRequestOutboxRepository quizRequestOutboxRepository,
+            QuizRequestRepository quizRequestRepository, IQuizCreationInitiator quizCreationInitiator,
+            ObjectMapper objectMapper, TransactionTemplate transactionTemplate, Environment environment,
+            @Value("${quizstream.quiz.outbox.encryption-key:}") String encryptionKey) {
+        this.quizRequestOutboxRepository = quizRequestOutboxRepository;
+        this.quizRequestRepository = quizRequestRepository;
+        this.quizCreationInitiator = quizCreationInitiator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        // with a random key every entry left in the outbox by a crash or restart could no longer be relayed
+        if (encryptionKey.isBlank() && environment.acceptsProfiles(Profiles.of("prod"))) {
+            throw new IllegalStateException("quizstream.quiz.outbox.encryption-key (QUIZ_OUTBOX_ENCRYPTION_KEY) " +
+                    "must be configured.");
+        }
+        if (encryptionKey.isBlank()) {
+            logger.warn("No quiz request outbox encryption key configured, using a random key. Requests left in the " +
+                    "outbox by other instances cannot be relayed.");
+            this.secretCipher = SecretCipher.withRandomKey();
+        } else {
+            this.secretCipher = SecretCipher.fromBase64Key(encryptionKey);
+        }
+    }
+
+    /**
+     * Stores the request for relaying, must be called in the transaction that created the quiz request.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(QuizCreateRequestDto quizCreateDto, QuizRequest quizJob) {
+        try {
+            QuizCreateRequestDto withoutApiKeys = new QuizCreateRequestDto(quizCreateDto.userId(),
+                    quizCreateDto.username(), quizCreateDto.quizName(), quizCreateDto.videoUrl(), Map.of(),
+                    quizCreateDto.language(), quizCreateDto.type(), quizCreateDto.difficulty());
+            quizRequestOutboxRepository.save(new QuizRequestOutbox(quizJob.getId()
+                    .getUserId(),
+                    quizJob.getId()
+                            .getQuizName(),
+                    objectMapper.writeValueAsString(withoutApiKeys),
+                    secretCipher.encrypt(objectMapper.writeValueAsString(quizCreateDto.apiKeys()))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quiz request data", e);
+        }
+    }
+
+    public boolean isSaturated() {
+        return quizCreationInitiator.isSaturated();
+    }
+
+    // drains the outbox batch by batch. Entries are leased in a short transaction and relayed outside of it, so the
+    // initiator's state changes are committed before the quiz generator can receive the request
+    @Scheduled(fixedDelayString = "${quizstream.quiz.outbox.poll-interval-ms:500}")
+    public void relay() {
+        List<QuizRequestOutbox> entries;
+        do {
+            try {
+                entries = transactionTemplate.execute(status -> leaseDueEntries());
+            } catch (Exception e) {
+                logger.error("Failed to lease quiz request outbox entries. Error: {}", e.getMessage(), e);
+                return;
+            }
+            entries.forEach(this::relay);
+        } while (entries.size() == batchSize);
+    }
+
+    // leased entries are skipped by other relays until the lease expires, which redelivers them after a crash
+    private List<QuizRequestOutbox> leaseDueEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        List<QuizRequestOutbox> entries = quizRequestOutboxRepository.lockDueEntries(now, batchSize);
+        entries.forEach(entry -> entry.setNextAttemptAt(now.plusSeconds(leaseSeconds)));
+        return quizRequestOutboxRepository.saveAll(entries);
+    }
+
+    private void relay(QuizRequestOutbox entry) {
+        Optional<QuizRequest> quizJob = quizRequestRepository.findById(
+                new QuizRequestId(entry.getUserId(), entry.getQuizName()));
+
+        // the request was replaced or already processed
+        if (quizJob.isEmpty() || !RELAYABLE.contains(quizJob.get()
+                .getStatus())) {
+            quizRequestOutboxRepository.deleteById(entry.getId());
+            return;
+        }
+
+        QuizCreateRequestDto quizCreateDto;
+        try {
+            quizCreateDto = readRequest(entry);
+        } catch (Exception e) {
+            // retrying does not help, the keys were encrypted with another key or the payload is broken
+            giveUp(entry, quizJob.get()
+                    .getId(), e);
+            return;
+        }
+
+        try {
+            quizCreationInitiator.initiate(quizCreateDto, quizJob.get())
+                    .whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            quizRequestOutboxRepository.deleteById(entry.getId());
+                        } else {
+                            onFailure(entry, quizJob.get()
+                                    .getId(), unwrap(error));
+                        }
+                    });
+        } catch (Exception e) {
+            onFailure(entry, quizJob.get()
+                    .getId(), e);
+        }
+    }
+
+    private QuizCreateRequestDto readRequest(QuizRequestOutbox entry) throws JsonProcessingException {
+        QuizCreateRequestDto payload = objectMapper.readValue(entry.getPayload(), QuizCreateRequestDto.class);
+        // entries written before the keys were split off still carry them in the payload
+        if (entry.getApiKeys() == null) {
+            return payload;
+        }
+
+        Map<String, String> apiKeys = objectMapper.readValue(secretCipher.decrypt(entry.getApiKeys()),
+                API_KEYS_TYPE);
+        return new QuizCreateRequestDto(payload.userId(), payload.username(), payload.quizName(), payload.videoUrl(),
+                apiKeys, payload.language(), payload.type(), payload.difficulty());
+    }
+
+    // may run on the initiator's thread once the send failed
+    private void onFailure(QuizRequestOutbox entry, QuizRequestId quizRequestId, Throwable error) {
+        try {
+            if (error instanceof RejectedExecutionException) {
+                // the initiator is at capacity, which does not count as a failed attempt
+                entry.setNextAttemptAt(LocalDateTime.now()
+                        .plus(REJECTED_RETRY_DELAY));
+                quizRequestOutboxRepository.save(entry);
+            } else {
+                retryLater(entry, quizRequestId, error);
+            }
+        } catch (Exception e) {
+            // the lease expires and the entry is relayed again
+            logger.error("Failed to reschedule quizJobId: {}. Error: {}", quizRequestId, e.getMessage(), e);
+        }
+    }
+
+    private void retryLater(QuizRequestOutbox entry, QuizRequestId quizRequestId, Throwable error) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(error.getMessage());
+
+        if (entry.getAttempts() >= maxAttempts) {
+            giveUp(entry, quizRequestId, error);
+            return;
+        }
+
+        Duration backoff = Duration.ofSeconds(1L << Math.min(entry.getAttempts(), 16));
+        entry.setNextAttemptAt(LocalDateTime.now()
+                .plus(backoff.compareTo(MAX_BACKOFF) < 0 ? backoff : MAX_BACKOFF));
+        quizRequestOutboxRepository.save(entry);
+
+        logger.warn("Failed to relay quizJobId: {}, attempt {} of {}. Error: {}", quizRequestId, entry.getAttempts(),
+                maxAttempts, error.getMessage());
+    }
+
+    // deleting the entry also removes the encrypted API keys of the request
+    private void giveUp(QuizRequestOutbox entry, QuizRequestId quizRequestId, Throwable error) {
+        logger.error("Giving up relaying quizJobId: {} after {} attempts. Error: {}", quizRequestId,
+                entry.getAttempts(), error.getMessage(), error);
+        // reloaded, this may run on the initiator's thread after the request changed
+        quizRequestRepository.findById(quizRequestId)
+                .filter(quizJob -> RELAYABLE.contains(quizJob.getStatus()))
+                .ifPresent(quizJob -> {
+                    quizJob.updateRequestState(QuizRequest.Status.FAILED, null, error.getMessage(),
+                            "Failed to submit quiz request. Please try again later.");
+                    quizRequestRepository.save(quizJob);
+                });
+        quizRequestOutboxRepository.deleteById(entry.getId());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -9,6 +9,7 @@ import app.quizstream.entity.request.RequestMetadata;
 import app.quizstream.exception.EntityNotFoundException;
 import app.quizstream.repository.QuizRequestRepository;
 import app.quizstream.util.mapper.QuizRequestMapper;
+import app.quizstream.util.video.VideoUrls;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,18 +23,21 @@ public class QuizRequestService {
     private final QuizRequestRepository quizRequestRepository;
     private final QuizRequestMapper quizRequestMapper;
     private final UserService userService;
+    private final LeaderboardService leaderboardService;
 
     public QuizRequestService(QuizRequestRepository quizRequestRepository, QuizRequestMapper quizRequestMapper,
-            UserService userService) {
+            UserService userService, LeaderboardService leaderboardService) {
         this.quizRequestRepository = quizRequestRepository;
         this.quizRequestMapper = quizRequestMapper;
         this.userService = userService;
+        this.leaderboardService = leaderboardService;
     }
 
     public QuizRequest createQuizRequest(QuizCreateRequestDto quizCreateDto) {
 
+        // stored canonicalized so that requests for the same video can be matched, see QuizDeduplicationService
         RequestMetadata requestMetadata = new RequestMetadata(
-                quizCreateDto.videoUrl(),
+                VideoUrls.canonicalize(quizCreateDto.videoUrl()),
                 quizCreateDto.language(),
                 quizCreateDto.difficulty(),
                 quizCreateDto.type());
@@ -52,6 +56,12 @@ public class QuizRequestService {
 
     public void updateQuizRequest(QuizRequest quizRequest) {
         quizRequestRepository.save(quizRequest);
+
+        // a finished request means a new quiz was added to the users totals
+        if (quizRequest.getStatus() == QuizRequest.Status.FINISHED) {
+            leaderboardService.refreshUser(quizRequest.getId()
+                    .getUserId());
+        }
     }
 
     public Page<QuizRequestDto> getRequestsForUserId(UUID userId, QuizRequest.Status status, Pageable pageable) {
@@ -0,0 +1,54 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizSearchRequestDto;
+import app.quizstream.dto.quiz.QuizSearchResultDto;
+import app.quizstream.entity.embedding.LangchainPGEmbedding;
+import app.quizstream.exception.EntityNotFoundException;
+import app.quizstream.repository.LangchainPGEmbeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+public class QuizSearchService {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+
+    @Value("${quizstream.search.embedding-dimensions}")
+    private int embeddingDimensions;
+
+    public QuizSearchService(LangchainPGEmbeddingRepository langchainPGEmbeddingRepository) {
+        this.langchainPGEmbeddingRepository = langchainPGEmbeddingRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<QuizSearchResultDto> searchQuestions(UUID userId, QuizSearchRequestDto searchDto) {
+
+        if (Objects.isNull(searchDto.queryVector()) == Objects.isNull(searchDto.questionId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Exactly one of queryVector and questionId must be provided.");
+        }
+
+        float[] queryVector = Objects.nonNull(searchDto.queryVector()) ? searchDto.queryVector()
+                : langchainPGEmbeddingRepository.findQuestionVector(userId, searchDto.questionId())
+                        .orElseThrow(() -> new EntityNotFoundException(searchDto.questionId(),
+                                LangchainPGEmbedding.class));
+
+        if (queryVector.length != embeddingDimensions) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Query vector must have " + embeddingDimensions + " dimensions.");
+        }
+
+        int limit = Objects.requireNonNullElse(searchDto.limit(), DEFAULT_LIMIT);
+
+        return langchainPGEmbeddingRepository.findNearestQuestions(userId, queryVector, searchDto.questionId(), limit);
+    }
+}
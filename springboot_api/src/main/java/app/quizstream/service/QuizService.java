@@ -3,23 +3,24 @@ package app.quizstream.service;
 import app.quizstream.dto.quiz.*;
 import app.quizstream.entity.User;
 import app.quizstream.entity.UserQuiz;
-import app.quizstream.entity.embedding.LangchainPGEmbedding;
 import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.repository.projection.UserQuizListing;
 import app.quizstream.util.mapper.QuizMapper;
 import app.quizstream.util.mapper.QuizRequestMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 import app.quizstream.dto.user.UserRegisterDto;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class QuizService {
@@ -31,36 +32,45 @@ public class QuizService {
     private final QuizRequestService quizRequestService;
     private final QuizMapper quizMapper;
     private final QuizRequestMapper quizJobMapper;
-    private final IQuizCreationInitiator quizCreationInitiator;
+    private final QuizRequestOutboxRelay quizRequestOutboxRelay;
+    private final LeaderboardCache leaderboardCache;
+    private final QuizDeduplicationService quizDeduplicationService;
+    private final AttemptWriteBehindBuffer attemptWriteBehindBuffer;
+    private final QuizAttemptLog quizAttemptLog;
 
     public QuizService(UserService userService, UserQuizService userQuizService, QuizRequestService quizJobService,
             QuizMapper quizMapper, QuizRequestMapper quizJobMapper,
-            IQuizCreationInitiator quizCreationInitiator) {
+            QuizRequestOutboxRelay quizRequestOutboxRelay, LeaderboardCache leaderboardCache,
+            QuizDeduplicationService quizDeduplicationService, AttemptWriteBehindBuffer attemptWriteBehindBuffer,
+            QuizAttemptLog quizAttemptLog) {
         this.userService = userService;
         this.userQuizService = userQuizService;
         this.quizRequestService = quizJobService;
         this.quizMapper = quizMapper;
         this.quizJobMapper = quizJobMapper;
-        this.quizCreationInitiator = quizCreationInitiator;
+        this.quizRequestOutboxRelay = quizRequestOutboxRelay;
+        this.leaderboardCache = leaderboardCache;
+        this.quizDeduplicationService = quizDeduplicationService;
+        this.attemptWriteBehindBuffer = attemptWriteBehindBuffer;
+        this.quizAttemptLog = quizAttemptLog;
     }
 
     public Page<QuizOutboundDto> getAllUserQuizzes(UUID userId, Pageable pageable) {
-        return userQuizService.getAllUserQuizzes(userId, pageable)
-                .map(quizMapper::convertToQuizOutboundDto);
+        return attemptWriteBehindBuffer.read(() -> userQuizService.getAllUserQuizzes(userId, pageable)
+                .map(quizMapper::convertToQuizOutboundDto),
+                page -> page.map(this::withPendingAttempts));
     }
 
     public QuizOutboundDto getQuizByUserQuizId(UUID userId, UUID quizId) {
-        UserQuiz userQuiz = userQuizService.getByUserQuizId(userId, quizId);
-        return quizMapper.convertToQuizOutboundDto(userQuiz);
+        return attemptWriteBehindBuffer.read(() -> {
+            UserQuiz userQuiz = userQuizService.getByUserQuizId(userId, quizId);
+            return quizMapper.convertToQuizOutboundDto(userQuiz);
+        }, this::withPendingAttempts);
     }
 
     public QuizDetailsOutboundDto getQuizDetailsByUserQuizId(UUID userId, UUID quizId) {
-        UserQuiz userQuiz = userQuizService.getByUserQuizId(userId, quizId);
-
-        List<LangchainPGEmbedding> questionAndAnswersList = userQuiz.getLangchainCollection()
-                .getEmbeddings();
-
-        List<QuizQuestionDetailsDto> details = questionAndAnswersList.stream()
+        List<QuizQuestionDetailsDto> details = userQuizService.getQuestionsByUserQuizId(userId, quizId)
+                .stream()
                 .map(quizMapper::convertToQuizDetailsDto)
                 .toList();
 
@@ -68,6 +78,16 @@ public class QuizService {
 
     }
 
+    public void assertQuizExists(UUID userId, UUID quizId) {
+        userQuizService.assertUserQuizExists(userId, quizId);
+    }
+
+    public void streamQuizDetailsByUserQuizId(UUID quizId, Consumer<QuizQuestionDetailsDto> consumer) {
+        userQuizService.streamQuestionsByUserQuizId(quizId,
+                question -> consumer.accept(quizMapper.convertToQuizDetailsDto(question)));
+    }
+
+    @Transactional
     public QuizRequestDto createQuiz(QuizCreateRequestDto quizCreateDto) {
 
         logger.info("Creating quiz '{}' for user with id '{}', '{}', '{}', '{}'.",
@@ -87,104 +107,83 @@ public class QuizService {
                     "john-doe-" + uuidString + "@gmail.com"));
         }
 
+        // quiz names are unique per user, shared quizzes keep their name on the user quiz instead of the collection
+        if (userQuizService.existsQuizName(quizCreateDto.userId(), quizCreateDto.quizName())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Quiz with name '%s' already exists.".formatted(quizCreateDto.quizName()));
+        }
+
         // create quizJob in table to keep track of status
         QuizRequest quizJob = this.quizRequestService.createQuizRequest(quizCreateDto);
 
-        // Use the injected initiator (implementation depends on active profile)
-        quizCreationInitiator.initiate(quizCreateDto, quizJob);
+        // a quiz for the same video and settings was generated before, reuse its questions
+        Optional<UUID> copiedQuizId = quizDeduplicationService.reuseExistingQuiz(quizCreateDto);
+        if (copiedQuizId.isPresent()) {
+            quizJob.updateRequestState(QuizRequest.Status.FINISHED, copiedQuizId.get(), null, null);
+            // the leaderboard cache is invalidated once the refreshed totals are committed
+            quizRequestService.updateQuizRequest(quizJob);
 
-        return quizJobMapper.mapFromEntityOutbound(quizJob);
-    }
+            return quizJobMapper.mapFromEntityOutbound(quizJob);
+        }
 
-    public QuizOutboundDto updateQuiz(QuizUpdateDto quizUpdateDto) {
-        UserQuiz updatedUserQuiz = userQuizService.updateUserQuiz(quizUpdateDto);
-        return quizMapper.convertToQuizOutboundDto(updatedUserQuiz);
+        // rolls back the request, the client is expected to retry later
+        if (quizRequestOutboxRelay.isSaturated()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many quizzes are being generated right now, please try again later.");
+        }
 
-    }
+        // handed to the quiz generator by the outbox relay once this transaction committed
+        quizRequestOutboxRelay.enqueue(quizCreateDto, quizJob);
 
-    public void deleteQuiz(UUID userId, UUID quizId) {
-        userQuizService.deleteByUserQuizId(userId, quizId);
+        return quizJobMapper.mapFromEntityOutbound(quizJob);
     }
 
-    public Page<QuizLeaderboardEntry> getLeaderboardData(Pageable pageable) {
-
-        logger.warn(pageable.toString());
-
-        List<QuizLeaderboardEntry> entries = getLeaderboardEntries();
-        sortLeaderboardEntries(entries, pageable);
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), entries.size());
+    public QuizOutboundDto updateQuiz(QuizUpdateDto quizUpdateDto) {
+        QuizOutboundDto updatedQuiz;
+        if (attemptWriteBehindBuffer.isEnabled()) {
+            updatedQuiz = bufferAttempt(quizUpdateDto);
+        } else {
+            UserQuizListing updatedUserQuiz = userQuizService.updateUserQuiz(quizUpdateDto);
+            updatedQuiz = quizMapper.convertToQuizOutboundDto(updatedUserQuiz);
+        }
 
-        return new PageImpl<>(entries.subList(start, end), pageable, entries.size());
+        quizAttemptLog.record(quizUpdateDto.userId(), quizUpdateDto.quizId(), quizUpdateDto.numCorrect(),
+                updatedQuiz.numQuestions());
+        return updatedQuiz;
     }
 
-    private List<QuizLeaderboardEntry> getLeaderboardEntries() {
-
-        List<QuizLeaderboardEntry> entries = new ArrayList<>();
-        List<User> users = userService.getAll();
-
-        for (User user : users) {
-            long numQuizzes = user.getQuizzes()
-                    .size();
+    // the leaderboard is updated once the attempt is flushed
+    private QuizOutboundDto bufferAttempt(QuizUpdateDto quizUpdateDto) {
+        UUID userId = quizUpdateDto.userId();
+        UUID quizId = quizUpdateDto.quizId();
 
-            long numAttempts = user.getQuizzes()
-                    .stream()
-                    .map(UserQuiz::getNumTries)
-                    .mapToInt(Integer::intValue)
-                    .sum();
-
-            long numQuestions = user.getQuizzes()
-                    .stream()
-                    .map(UserQuiz::getNumQuestions)
-                    .mapToInt(Integer::intValue)
-                    .sum();
-
-            long numCorrectAnswers = user.getQuizzes()
-                    .stream()
-                    .map(UserQuiz::getNumCorrect)
-                    .mapToInt(Integer::intValue)
-                    .sum();
+        if (Objects.nonNull(quizUpdateDto.quizName()) && !quizUpdateDto.quizName()
+                .isBlank()) {
+            userQuizService.renameUserQuiz(userId, quizId, quizUpdateDto.quizName());
+        } else {
+            userQuizService.assertUserQuizExists(userId, quizId);
+        }
 
-            if (numQuizzes > 0 && numAttempts > 0 && numCorrectAnswers > 0) {
-                double score = (double) numCorrectAnswers / numQuestions * 100.0;
-                String scoreString = String.format("%.2f", score);
+        attemptWriteBehindBuffer.record(userId, quizId, quizUpdateDto.numCorrect());
+        return getQuizByUserQuizId(userId, quizId);
+    }
 
-                entries.add(new QuizLeaderboardEntry(user.getUsername(), numQuizzes,
-                        numAttempts, numQuestions, numCorrectAnswers, scoreString));
-            }
+    private QuizOutboundDto withPendingAttempts(QuizOutboundDto quiz) {
+        AttemptWriteBehindBuffer.Attempts pending = attemptWriteBehindBuffer.pending(quiz.userId(), quiz.quizId());
+        if (pending.isEmpty()) {
+            return quiz;
         }
 
-        return entries;
+        return new QuizOutboundDto(quiz.userId(), quiz.quizId(), quiz.quizName(), quiz.dateCreated(),
+                quiz.numTries() + pending.numTries(), quiz.numCorrect() + pending.numCorrect(),
+                quiz.numQuestions(), quiz.language(), quiz.type(), quiz.difficulty(), quiz.metadata());
     }
 
-    private void sortLeaderboardEntries(List<QuizLeaderboardEntry> entries, Pageable pageable) {
-
-        // sorting entries based on the Pageable sorting criteria
-        Sort sort = pageable.getSort();
-        sort.forEach(order -> {
-            Comparator<QuizLeaderboardEntry> comparator = Comparator.comparing(QuizLeaderboardEntry::score);
-
-            if (order.getProperty()
-                    .equals("quizzes")) {
-                comparator = Comparator.comparing(QuizLeaderboardEntry::numberQuizzes);
-            } else if (order.getProperty()
-                    .equals("attempts")) {
-                comparator = Comparator.comparing(QuizLeaderboardEntry::numberAttempts);
-            } else if (order.getProperty()
-                    .equals("questions")) {
-                comparator = Comparator.comparing(QuizLeaderboardEntry::numberQuestions);
-            } else if (order.getProperty()
-                    .equals("answers")) {
-                comparator = Comparator.comparing(QuizLeaderboardEntry::numberCorrectAnswers);
-            }
-
-            if (order.getDirection() == Sort.Direction.DESC) {
-                comparator = comparator.reversed();
-            }
-
-            entries.sort(comparator);
-        });
+    public void deleteQuiz(UUID userId, UUID quizId) {
+        userQuizService.deleteByUserQuizId(userId, quizId);
+    }
 
+    public Page<QuizLeaderboardEntry> getLeaderboardData(Pageable pageable) {
+        return leaderboardCache.get(pageable);
     }
 }
@@ -0,0 +1,196 @@
+package app.quizstream.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes messages to a SQS queue in batches. Messages are collected until either the maximum batch size is
+ * reached or the first message of the batch waited for the maximum delay, and are then sent with a single
+ * SendMessageBatch call. Every message gets its own future, which fails if SQS rejects that entry only.
+ */
+public class SqsBatchPublisher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqsBatchPublisher.class);
+
+    // SQS limits for a single SendMessageBatch call
+    public static final int MAX_BATCH_SIZE = 10;
+    public static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private final SqsClient sqsClient;
+    private final String queueUrl;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private List<PendingMessage> pending = new ArrayList<>();
+    private int pendingBytes;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    public SqsBatchPublisher(SqsClient sqsClient, String queueUrl, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1 || maxBatchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("maxBatchSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        this.sqsClient = sqsClient;
+        this.queueUrl = queueUrl;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        // a single sender keeps the order of batches and thereby of messages within a message group
+        this.executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("sqs-batch-publisher")
+                .daemon(true)
+                .factory());
+    }
+
+    public CompletableFuture<String> publish(String messageBody, String messageGroupId, String deduplicationId) {
+        PendingMessage message = new PendingMessage(messageBody, messageGroupId, deduplicationId,
+                new CompletableFuture<>());
+        int messageBytes = messageBody.getBytes(StandardCharsets.UTF_8).length;
+
+        synchronized (lock) {
+            if (closed) {
+                message.result()
+                        .completeExceptionally(new IllegalStateException("Publisher is closed"));
+                return message.result();
+            }
+
+            if (pendingBytes + messageBytes > MAX_BATCH_BYTES) {
+                dispatch();
+            }
+
+            pending.add(message);
+            pendingBytes += messageBytes;
+
+            if (pending.size() >= maxBatchSize) {
+                dispatch();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = executor.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        return message.result();
+    }
+
+    /**
+     * Sends all pending messages right away.
+     */
+    public void flush() {
+        synchronized (lock) {
+            dispatch();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            dispatch();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Pending SQS batches were not sent within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+
+    // hands the pending messages to the executor, must be called holding the lock
+    private void dispatch() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingMessage> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        pendingBytes = 0;
+
+        executor.execute(() -> send(batch));
+    }
+
+    private void send(List<PendingMessage> batch) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMessage message = batch.get(i);
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .messageBody(message.body())
+                    .messageGroupId(message.groupId())
+                    .messageDeduplicationId(message.deduplicationId())
+                    .build());
+        }
+
+        SendMessageBatchResponse response;
+        try {
+            response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(queueUrl)
+                    .entries(entries)
+                    .build());
+        } catch (Exception e) {
+            logger.error("Failed to send batch of {} messages to SQS queue {}: {}", batch.size(), queueUrl,
+                    e.getMessage(), e);
+            batch.forEach(message -> message.result()
+                    .completeExceptionally(e));
+            return;
+        }
+
+        for (SendMessageBatchResultEntry entry : response.successful()) {
+            batch.get(Integer.parseInt(entry.id()))
+                    .result()
+                    .complete(entry.messageId());
+        }
+        for (BatchResultErrorEntry entry : response.failed()) {
+            batch.get(Integer.parseInt(entry.id()))
+                    .result()
+                    .completeExceptionally(new BatchEntryFailedException(entry));
+        }
+
+        // entries missing in the response would otherwise never complete
+        batch.stream()
+                .filter(message -> !message.result()
+                        .isDone())
+                .forEach(message -> message.result()
+                        .completeExceptionally(new IllegalStateException("No result for message in SQS response")));
+    }
+
+    private record PendingMessage(String body, String groupId, String deduplicationId,
+            CompletableFuture<String> result) {
+    }
+
+    public static class BatchEntryFailedException extends RuntimeException {
+
+        private final boolean senderFault;
+
+        public BatchEntryFailedException(BatchResultErrorEntry entry) {
+            super(entry.code() + ": " + entry.message());
+            this.senderFault = Boolean.TRUE.equals(entry.senderFault());
+        }
+
+        public boolean isSenderFault() {
+            return senderFault;
+        }
+    }
+}
@@ -4,21 +4,37 @@ import app.quizstream.dto.quiz.QuizUpdateDto;
 import app.quizstream.entity.UserQuiz;
 import app.quizstream.entity.UserQuizId;
 import app.quizstream.exception.EntityNotFoundException;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.LangchainPGEmbeddingRepository;
 import app.quizstream.repository.UserQuizRepository;
+import app.quizstream.repository.projection.QuizQuestion;
+import app.quizstream.repository.projection.UserQuizListing;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserQuizService {
 
     private final UserQuizRepository userQuizRepository;
+    private final LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+    private final LangchainPGCollectionRepository langchainPGCollectionRepository;
+    private final LeaderboardService leaderboardService;
 
-    public UserQuizService(UserQuizRepository userQuizRepository) {
+    public UserQuizService(UserQuizRepository userQuizRepository,
+            LangchainPGEmbeddingRepository langchainPGEmbeddingRepository,
+            LangchainPGCollectionRepository langchainPGCollectionRepository, LeaderboardService leaderboardService) {
         this.userQuizRepository = userQuizRepository;
+        this.langchainPGEmbeddingRepository = langchainPGEmbeddingRepository;
+        this.langchainPGCollectionRepository = langchainPGCollectionRepository;
+        this.leaderboardService = leaderboardService;
     }
 
 
@@ -27,34 +43,117 @@ public class UserQuizService {
                 .orElseThrow(() -> new EntityNotFoundException(String.valueOf(quizId), UserQuiz.class));
     }
 
-    public Page<UserQuiz> getAllUserQuizzes(UUID userId, Pageable pageable) {
-        return userQuizRepository.findByUser_Id(userId, pageable);
+    public void assertUserQuizExists(UUID userId, UUID quizId) {
+        if (!userQuizRepository.existsById(new UserQuizId(userId, quizId))) {
+            throw new EntityNotFoundException(String.valueOf(quizId), UserQuiz.class);
+        }
+    }
 
+    public List<QuizQuestion> getQuestionsByUserQuizId(UUID userId, UUID quizId) {
+        assertUserQuizExists(userId, quizId);
+        return langchainPGEmbeddingRepository.findQuestionsByCollectionId(quizId);
     }
 
+    // reads the questions from a cursor and hands them to the consumer one by one
+    @Transactional(readOnly = true)
+    public void streamQuestionsByUserQuizId(UUID quizId, Consumer<QuizQuestion> consumer) {
+        try (Stream<QuizQuestion> questions = langchainPGEmbeddingRepository.streamQuestionsByCollectionId(quizId)) {
+            questions.forEach(consumer);
+        }
+    }
+
+    public Page<UserQuizListing> getAllUserQuizzes(UUID userId, Pageable pageable) {
+        return userQuizRepository.findListingsByUserId(userId, pageable);
+
+    }
+
+    @Transactional
     public void deleteByUserQuizId(UUID userId, UUID quizId) {
+        langchainPGCollectionRepository.lockForUpdate(quizId);
         userQuizRepository.deleteById(new UserQuizId(userId, quizId));
+        userQuizRepository.flush();
+        deleteCollectionIfUnreferenced(quizId);
+
+        leaderboardService.refreshUser(userId);
     }
 
+    @Transactional
     public void deleteByUserQuizEntity(UserQuiz userQuiz) {
+        UUID quizId = userQuiz.getId()
+                .getQuizId();
+
+        langchainPGCollectionRepository.lockForUpdate(quizId);
         userQuizRepository.delete(userQuiz);
+        userQuizRepository.flush();
+        deleteCollectionIfUnreferenced(quizId);
+
+        leaderboardService.refreshUser(userQuiz.getId()
+                .getUserId());
+    }
+
+    /**
+     * Deletes the given collections that are no longer referenced by any quiz, e.g. after their user was deleted.
+     */
+    @Transactional
+    public void deleteUnreferencedCollections(List<UUID> quizIds) {
+        for (UUID quizId : quizIds) {
+            langchainPGCollectionRepository.lockForUpdate(quizId);
+            deleteCollectionIfUnreferenced(quizId);
+        }
     }
 
-    public UserQuiz updateUserQuiz(QuizUpdateDto data) {
-        UserQuiz userQuiz = getByUserQuizId(data.userId(), data.quizId());
+    public List<UUID> getQuizIdsByUserId(UUID userId) {
+        return userQuizRepository.findQuizIdsByUserId(userId);
+    }
 
-        userQuiz.setNumCorrect(userQuiz.getNumCorrect() + data.numCorrect());
+    public boolean existsQuizName(UUID userId, String quizName) {
+        return userQuizRepository.existsByUserIdAndQuizName(userId, quizName);
+    }
 
-        userQuiz.setNumTries(userQuiz.getNumTries() + 1);
+    // the collection row lock has to be held by the caller
+    private void deleteCollectionIfUnreferenced(UUID quizId) {
+        if (userQuizRepository.countById_QuizId(quizId) == 0) {
+            langchainPGCollectionRepository.deleteEmbeddings(quizId);
+            langchainPGCollectionRepository.deleteCollection(quizId);
+        }
+    }
 
+    @Transactional
+    public UserQuizListing updateUserQuiz(QuizUpdateDto data) {
         if (Objects.nonNull(data.quizName()) && !data.quizName()
                 .isBlank()) {
-            userQuiz.getLangchainCollection()
-                    .setName(data.quizName());
+            UserQuiz userQuiz = getByUserQuizId(data.userId(), data.quizId());
+            rename(userQuiz, data.quizName());
+            // written before the attempt is recorded, which reads the name in the same statement
+            userQuizRepository.saveAndFlush(userQuiz);
         }
 
-        return userQuizRepository.save(userQuiz);
+        // the counters are incremented by the database, loading and saving the quiz would lose concurrent attempts
+        UserQuizListing updatedUserQuiz = userQuizRepository.recordAttempt(data.userId(), data.quizId(),
+                data.numCorrect())
+                .orElseThrow(() -> new EntityNotFoundException(String.valueOf(data.quizId()), UserQuiz.class));
+        leaderboardService.refreshUser(data.userId());
+
+        return updatedUserQuiz;
     }
 
+    @Transactional
+    public void renameUserQuiz(UUID userId, UUID quizId, String quizName) {
+        rename(getByUserQuizId(userId, quizId), quizName);
+    }
+
+    // shared collections are never modified, the new name is only stored with the quiz of this user
+    private void rename(UserQuiz userQuiz, String quizName) {
+        UUID quizId = userQuiz.getId()
+                .getQuizId();
+        langchainPGCollectionRepository.lockForUpdate(quizId);
+
+        if (Objects.nonNull(userQuiz.getQuizName()) || userQuizRepository.countById_QuizId(quizId) > 1) {
+            userQuiz.setQuizName(quizName);
+        } else {
+            userQuiz.getLangchainCollection()
+                    .setName(quizName);
+        }
+    }
 
 }
@@ -10,6 +10,7 @@ import app.quizstream.util.mapper.UserMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -18,10 +19,17 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final LeaderboardService leaderboardService;
+    private final UserQuizService userQuizService;
+    private final QuizProgressService quizProgressService;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, LeaderboardService leaderboardService,
+            UserQuizService userQuizService, QuizProgressService quizProgressService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.leaderboardService = leaderboardService;
+        this.userQuizService = userQuizService;
+        this.quizProgressService = quizProgressService;
     }
 
     public User getByUserName(String username) {
@@ -62,13 +70,21 @@ public class UserService {
         return userMapper.mapFromEntityOutbound(userRepository.save(user));
     }
 
+    // the user, the collections only they referenced and their leaderboard rows are removed together
+    @Transactional
     public void delete(UUID userId) {
         if (userRepository.findById(userId)
                 .isEmpty()) {
             return;
         }
 
+        // quizzes are deleted with the user, their collections only if not shared with other users
+        List<UUID> quizIds = userQuizService.getQuizIdsByUserId(userId);
+
         userRepository.deleteById(userId);
+        userQuizService.deleteUnreferencedCollections(quizIds);
+        leaderboardService.removeUser(userId);
+        quizProgressService.removeUser(userId);
     }
 
 }
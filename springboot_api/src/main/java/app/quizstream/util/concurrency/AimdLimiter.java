@@ -0,0 +1,73 @@
+package app.quizstream.util.concurrency;
+
+/**
+ * Concurrency limit that adapts to the latency of the protected call with additive increase, multiplicative
+ * decrease: every fast success while the limit is in use grows the limit by about one per limit successes, every
+ * slow call or dropped call shrinks it by {@code backoffRatio}.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+    private int inFlight;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = initialLimit;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        // only grow if the current limit is actually used, an idle service says nothing about the backend's capacity
+        boolean limitInUse = inFlight * 2 >= (int) limit;
+        inFlight--;
+
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (limitInUse) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    // the call ended without saying anything about the backend's health
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
@@ -0,0 +1,80 @@
+package app.quizstream.util.concurrency;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Opens after {@code failureThreshold} consecutive failures and rejects all calls for {@code openDurationNanos}.
+ * Afterwards a single trial call is let through, which closes the breaker on success and opens it again on failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openDurationNanos) {
+        this(failureThreshold, openDurationNanos, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openDurationNanos, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+        }
+
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            trialInFlight = false;
+        }
+    }
+
+    // gives back an acquired call that was not made, so a half open breaker can let the next trial through
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
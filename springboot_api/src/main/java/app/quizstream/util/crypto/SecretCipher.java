@@ -0,0 +1,84 @@
+package app.quizstream.util.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts short secrets with AES-GCM before they are written to the database. The random IV is prepended to the
+ * ciphertext, both are Base64 encoded. Values encrypted with another key fail to decrypt instead of returning garbage.
+ */
+public class SecretCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    private SecretCipher(SecretKey key) {
+        this.key = key;
+    }
+
+    // 128, 192 or 256 bit AES key
+    public static SecretCipher fromBase64Key(String base64Key) {
+        byte[] key = Base64.getDecoder()
+                .decode(base64Key);
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException("AES keys must be 16, 24 or 32 bytes long");
+        }
+        return new SecretCipher(new SecretKeySpec(key, "AES"));
+    }
+
+    // values encrypted with a random key can only be decrypted by the same instance
+    public static SecretCipher withRandomKey() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256);
+            return new SecretCipher(generator.generateKey());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES is not available", e);
+        }
+    }
+
+    public String encrypt(String plaintext) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder()
+                    .encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length)
+                            .put(iv)
+                            .put(ciphertext)
+                            .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt secret", e);
+        }
+    }
+
+    // throws IllegalArgumentException if the value was not encrypted with this key or was tampered with
+    public String decrypt(String encrypted) {
+        byte[] data = Base64.getDecoder()
+                .decode(encrypted);
+        if (data.length <= IV_BYTES) {
+            throw new IllegalArgumentException("Encrypted secret is too short");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+            return new String(cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Failed to decrypt secret", e);
+        }
+    }
+}
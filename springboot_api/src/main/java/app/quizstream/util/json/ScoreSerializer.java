@@ -0,0 +1,32 @@
+package app.quizstream.util.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Writes a leaderboard score as a string with two decimals, e.g. {@code "87.50"}. Scores are kept numeric while the
+ * leaderboard is built and sorted and are only formatted here, once per serialized entry.
+ */
+public class ScoreSerializer extends StdSerializer<Double> {
+
+    public ScoreSerializer() {
+        super(Double.class);
+    }
+
+    @Override
+    public void serialize(Double score, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeString(format(score));
+    }
+
+    // rounds half up on the shortest decimal representation, the same way String.format("%.2f") does
+    public static String format(double score) {
+        return BigDecimal.valueOf(score)
+                .setScale(2, RoundingMode.HALF_UP)
+                .toPlainString();
+    }
+}
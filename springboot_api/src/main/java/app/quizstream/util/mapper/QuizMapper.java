@@ -1,15 +1,23 @@
 package app.quizstream.util.mapper;
 
+import app.quizstream.dto.quiz.LeaderboardTotals;
 import app.quizstream.dto.quiz.QuizCreateResultDto;
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
 import app.quizstream.dto.quiz.QuizOutboundDto;
+import app.quizstream.dto.quiz.QuizProgressPointDto;
 import app.quizstream.dto.quiz.QuizQuestionDetailsDto;
 import app.quizstream.dto.quiz.VideoMetadataDto;
 import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.attempt.QuizAttemptRollup;
 import app.quizstream.entity.collection.CollectionMetadata;
 import app.quizstream.entity.collection.LangchainPGCollection;
 import app.quizstream.entity.collection.VideoMetadata;
 import app.quizstream.entity.embedding.EmbeddingMetadata;
-import app.quizstream.entity.embedding.LangchainPGEmbedding;
+import app.quizstream.entity.leaderboard.UserLeaderboard;
+import app.quizstream.entity.leaderboard.UserLeaderboardSegment;
+import app.quizstream.entity.leaderboard.UserLeaderboardWindow;
+import app.quizstream.repository.projection.QuizQuestion;
+import app.quizstream.repository.projection.UserQuizListing;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -18,6 +26,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 import java.util.UUID;
 
 @Component
@@ -27,6 +36,9 @@ public class QuizMapper {
 
     private static final Logger logger = LoggerFactory.getLogger(QuizMapper.class);
 
+    // same format as VideoMetadata.publishDate
+    private static final DateTimeFormatter PUBLISH_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     public QuizMapper(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
@@ -49,7 +61,7 @@ public class QuizMapper {
                             .getUserId(),
                     userQuiz.getId()
                             .getQuizId(),
-                    collection.getName(),
+                    userQuiz.getDisplayName(),
                     dateCreated,
                     userQuiz.getNumTries(),
                     userQuiz.getNumCorrect(),
@@ -65,25 +77,45 @@ public class QuizMapper {
         }
     }
 
-    public QuizQuestionDetailsDto convertToQuizDetailsDto(LangchainPGEmbedding questionAndAnswer) {
-        try {
-
-            EmbeddingMetadata embeddingMetadata = questionAndAnswer.getCmetadata();
+    public QuizOutboundDto convertToQuizOutboundDto(UserQuizListing listing) {
+        VideoMetadataDto videoMetadataDto = new VideoMetadataDto(
+                listing.getTitle(),
+                listing.getSource(),
+                listing.getThumbnailUrl(),
+                listing.getDescription(),
+                listing.getViewCount(),
+                Objects.isNull(listing.getPublishDate()) ? null
+                        : LocalDate.parse(listing.getPublishDate(), PUBLISH_DATE_FORMAT),
+                listing.getAuthor()
+        );
 
-            return new QuizQuestionDetailsDto(
-                    questionAndAnswer.getDocument(),
-                    embeddingMetadata.answers()
-                            .correctAnswer(),
-                    embeddingMetadata.answers()
-                            .wrongAnswers(),
-                    embeddingMetadata.context()
-            );
+        return new QuizOutboundDto(
+                listing.getUserId(),
+                listing.getQuizId(),
+                listing.getQuizName(),
+                listing.getDateCreated()
+                        .toLocalDate(),
+                listing.getNumTries(),
+                listing.getNumCorrect(),
+                listing.getNumQuestions(),
+                listing.getLanguage(),
+                listing.getType(),
+                listing.getDifficulty(),
+                videoMetadataDto
+        );
+    }
 
+    public QuizQuestionDetailsDto convertToQuizDetailsDto(QuizQuestion question) {
+        EmbeddingMetadata embeddingMetadata = question.getCmetadata();
 
-        } catch (Exception e) {
-            logger.error("Failed to convert Json into Dto: {}", e.getMessage());
-            throw new RuntimeException("Failed to convert Json into Dto", e);
-        }
+        return new QuizQuestionDetailsDto(
+                question.getDocument(),
+                embeddingMetadata.answers()
+                        .correctAnswer(),
+                embeddingMetadata.answers()
+                        .wrongAnswers(),
+                embeddingMetadata.context()
+        );
     }
 
     public QuizCreateResultDto convertToQuizOutboundDto(String jsonResponse) {
@@ -107,6 +139,66 @@ public class QuizMapper {
         }
     }
 
+    public LeaderboardTotals convertToLeaderboardTotals(UserLeaderboard userLeaderboard) {
+        return new LeaderboardTotals(
+                userLeaderboard.getUserId(),
+                userLeaderboard.getUsername(),
+                userLeaderboard.getNumQuizzes(),
+                userLeaderboard.getNumAttempts(),
+                userLeaderboard.getNumQuestions(),
+                userLeaderboard.getNumCorrect(),
+                userLeaderboard.getScore()
+        );
+    }
+
+    public LeaderboardTotals convertToLeaderboardTotals(UserLeaderboardWindow userLeaderboardWindow) {
+        return new LeaderboardTotals(
+                userLeaderboardWindow.getId()
+                        .getUserId(),
+                userLeaderboardWindow.getUsername(),
+                userLeaderboardWindow.getNumQuizzes(),
+                userLeaderboardWindow.getNumAttempts(),
+                userLeaderboardWindow.getNumQuestions(),
+                userLeaderboardWindow.getNumCorrect(),
+                userLeaderboardWindow.getScore()
+        );
+    }
+
+    public LeaderboardTotals convertToLeaderboardTotals(UserLeaderboardSegment userLeaderboardSegment) {
+        return new LeaderboardTotals(
+                userLeaderboardSegment.getId()
+                        .getUserId(),
+                userLeaderboardSegment.getUsername(),
+                userLeaderboardSegment.getNumQuizzes(),
+                userLeaderboardSegment.getNumAttempts(),
+                userLeaderboardSegment.getNumQuestions(),
+                userLeaderboardSegment.getNumCorrect(),
+                userLeaderboardSegment.getScore()
+        );
+    }
+
+    public QuizLeaderboardEntry convertToLeaderboardEntry(LeaderboardTotals totals) {
+        return new QuizLeaderboardEntry(
+                totals.username(),
+                totals.numQuizzes(),
+                totals.numAttempts(),
+                totals.numQuestions(),
+                totals.numCorrect(),
+                totals.score()
+        );
+    }
+
+    public QuizProgressPointDto convertToProgressPoint(QuizAttemptRollup rollup) {
+        return new QuizProgressPointDto(
+                rollup.getId()
+                        .getBucketStart(),
+                rollup.getNumAttempts(),
+                rollup.getNumQuestions(),
+                rollup.getNumCorrect(),
+                rollup.getNumQuestions() > 0 ? rollup.getNumCorrect() * 100.0 / rollup.getNumQuestions() : 0
+        );
+    }
+
     private VideoMetadataDto getVideoMetadataDto(CollectionMetadata collectionMetadata) {
 
         VideoMetadata videoMetadata = collectionMetadata.videoMetadata();
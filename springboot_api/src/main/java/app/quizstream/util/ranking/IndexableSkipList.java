@@ -0,0 +1,223 @@
+package app.quizstream.util.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list that additionally stores the width of every forward link, which makes it an order-statistic structure:
+ * insertion, removal, rank lookup and positional access all run in expected O(log n). The comparator must define a
+ * total order over the stored values, i.e. two different values must never compare as equal.
+ * <p>
+ * Not thread-safe, callers have to synchronize access.
+ */
+public class IndexableSkipList<T> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final int BRANCHING = 4;
+
+    private final Comparator<? super T> comparator;
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    private Node<T> tail;
+    private int level = 1;
+    private int size;
+
+    public IndexableSkipList(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(T value) {
+
+        @SuppressWarnings("unchecked")
+        Node<T>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node<T> node = new Node<>(value, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        // levels above the new node now skip one more element
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        node.prev = update[0] == head ? null : update[0];
+        if (node.next[0] != null) {
+            node.next[0].prev = node;
+        } else {
+            tail = node;
+        }
+
+        size++;
+    }
+
+    public boolean remove(T value) {
+
+        @SuppressWarnings("unchecked")
+        Node<T>[] update = new Node[MAX_LEVEL];
+
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        Node<T> node = x.next[0];
+        if (node == null || comparator.compare(node.value, value) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        if (node.next[0] != null) {
+            node.next[0].prev = node.prev;
+        } else {
+            tail = node.prev;
+        }
+
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the 1-based position of the value in ascending order, or 0 if it is not contained.
+     */
+    public int rankOf(T value) {
+
+        int rank = 0;
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+
+            if (x != head && comparator.compare(x.value, value) == 0) {
+                return rank;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns the value at the given 1-based position in ascending order, or null if out of range.
+     */
+    public T getByRank(int rank) {
+        Node<T> node = nodeByRank(rank);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns up to {@code limit} values starting at the 0-based {@code offset}, walking in ascending or descending
+     * order. Locating the first value is O(log n), every further value is O(1).
+     */
+    public List<T> slice(int offset, int limit, boolean descending) {
+
+        List<T> values = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        if (offset < 0 || offset >= size || limit <= 0) {
+            return values;
+        }
+
+        Node<T> node = nodeByRank(descending ? size - offset : offset + 1);
+        while (node != null && values.size() < limit) {
+            values.add(node.value);
+            node = descending ? node.prev : node.next[0];
+        }
+
+        return values;
+    }
+
+    private Node<T> nodeByRank(int rank) {
+
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+
+        if (rank == size) {
+            return tail;
+        }
+
+        int traversed = 0;
+        Node<T> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+
+            if (traversed == rank) {
+                return x;
+            }
+        }
+
+        return null;
+    }
+
+    private int randomLevel() {
+        int newLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (newLevel < MAX_LEVEL && random.nextInt(BRANCHING) == 0) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+
+    private static final class Node<T> {
+
+        private final T value;
+        private final Node<T>[] next;
+        private final int[] span;
+        private Node<T> prev;
+
+        @SuppressWarnings("unchecked")
+        private Node(T value, int level) {
+            this.value = value;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
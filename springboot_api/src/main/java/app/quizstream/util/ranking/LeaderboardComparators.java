@@ -0,0 +1,54 @@
+package app.quizstream.util.ranking;
+
+import app.quizstream.dto.quiz.LeaderboardTotals;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ascending comparators for every sortable leaderboard property. They compare primitive fields only, so sorting does
+ * neither box nor allocate, and break ties by user id to define a total order.
+ */
+public final class LeaderboardComparators {
+
+    /**
+     * Orders user ids like Postgres does, by their bytes as unsigned values. {@link UUID#compareTo} compares both halves
+     * signed, which would order the ties differently than the pages read from the database.
+     */
+    public static final Comparator<UUID> BY_USER_ID = (first, second) -> {
+        int mostSignificant = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return mostSignificant != 0 ? mostSignificant
+                : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    };
+
+    public static final Comparator<LeaderboardTotals> BY_SCORE = Comparator
+            .comparingDouble(LeaderboardTotals::score)
+            .thenComparing(LeaderboardTotals::userId, BY_USER_ID);
+
+    public static final Comparator<LeaderboardTotals> BY_QUIZZES = Comparator
+            .comparingLong(LeaderboardTotals::numQuizzes)
+            .thenComparing(LeaderboardTotals::userId, BY_USER_ID);
+
+    public static final Comparator<LeaderboardTotals> BY_ATTEMPTS = Comparator
+            .comparingLong(LeaderboardTotals::numAttempts)
+            .thenComparing(LeaderboardTotals::userId, BY_USER_ID);
+
+    public static final Comparator<LeaderboardTotals> BY_QUESTIONS = Comparator
+            .comparingLong(LeaderboardTotals::numQuestions)
+            .thenComparing(LeaderboardTotals::userId, BY_USER_ID);
+
+    public static final Comparator<LeaderboardTotals> BY_ANSWERS = Comparator
+            .comparingLong(LeaderboardTotals::numCorrect)
+            .thenComparing(LeaderboardTotals::userId, BY_USER_ID);
+
+    public static final Map<String, Comparator<LeaderboardTotals>> BY_PROPERTY = Map.of(
+            "score", BY_SCORE,
+            "quizzes", BY_QUIZZES,
+            "attempts", BY_ATTEMPTS,
+            "questions", BY_QUESTIONS,
+            "answers", BY_ANSWERS);
+
+    private LeaderboardComparators() {
+    }
+}
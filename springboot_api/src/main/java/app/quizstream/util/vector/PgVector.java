@@ -0,0 +1,168 @@
+package app.quizstream.util.vector;
+
+/**
+ * Conversion between pgvector's text representation, e.g. {@code [0.0123,-1.5e-05,0.5]}, and {@code float[]}.
+ * <p>
+ * pgvector stores single precision floats and prints them in their shortest round-trip form, so most components
+ * consist of a handful of digits. Those are parsed directly from the characters without creating substrings or
+ * boxed values; anything outside that fast path falls back to {@link Float#parseFloat(String)}.
+ */
+public final class PgVector {
+
+    // powers of ten that are exactly representable as double
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private PgVector() {
+    }
+
+    public static float[] parse(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start < 2 || text.charAt(start) != '[' || text.charAt(end - 1) != ']') {
+            throw new IllegalArgumentException("Invalid vector literal: " + text);
+        }
+        start++;
+        end--;
+
+        float[] vector = new float[countComponents(text, start, end)];
+        int position = start;
+        for (int i = 0; i < vector.length; i++) {
+            int separator = position;
+            while (separator < end && text.charAt(separator) != ',') {
+                separator++;
+            }
+            vector[i] = parseComponent(text, position, separator);
+            position = separator + 1;
+        }
+        return vector;
+    }
+
+    public static String format(float[] vector) {
+        StringBuilder builder = new StringBuilder(vector.length * 12 + 2);
+        builder.append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(vector[i]);
+        }
+        return builder.append(']')
+                .toString();
+    }
+
+    private static int countComponents(CharSequence text, int start, int end) {
+        int count = 0;
+        boolean empty = true;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                count++;
+            } else if (!Character.isWhitespace(c)) {
+                empty = false;
+            }
+        }
+        return empty ? 0 : count + 1;
+    }
+
+    private static float parseComponent(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        int position = start;
+        boolean negative = false;
+        if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+            negative = text.charAt(position) == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; position < end; position++) {
+            char c = text.charAt(position);
+            if (c >= '0' && c <= '9') {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    return parseFallback(text, start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if (position < end) {
+            char c = text.charAt(position);
+            if (digits == 0 || (c != 'e' && c != 'E') || position + 1 >= end) {
+                return parseFallback(text, start, end);
+            }
+            position++;
+            boolean negativeExponent = false;
+            if (text.charAt(position) == '-' || text.charAt(position) == '+') {
+                negativeExponent = text.charAt(position) == '-';
+                position++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            for (; position < end; position++) {
+                c = text.charAt(position);
+                if (c < '0' || c > '9' || exponentDigits > 3) {
+                    return parseFallback(text, start, end);
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return parseFallback(text, start, end);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (digits == 0 || exponent < -22 || exponent > 22) {
+            return parseFallback(text, start, end);
+        }
+
+        // both operands are exact, so the division resp. multiplication is correctly rounded
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return (float) (negative ? -value : value);
+    }
+
+    private static float parseFallback(CharSequence text, int start, int end) {
+        String component = text.subSequence(start, end)
+                .toString();
+        switch (component) {
+            case "NaN":
+                return Float.NaN;
+            case "Infinity":
+                return Float.POSITIVE_INFINITY;
+            case "-Infinity":
+                return Float.NEGATIVE_INFINITY;
+            default:
+                try {
+                    return Float.parseFloat(component);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid vector component: " + component, e);
+                }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package app.quizstream.util.video;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of YouTube video urls, so that the different urls users paste for the same video, e.g.
+ * {@code https://youtu.be/<id>?t=42}, {@code https://m.youtube.com/watch?v=<id>&list=...} or
+ * {@code https://www.youtube.com/shorts/<id>}, map to {@code https://www.youtube.com/watch?v=<id>}.
+ */
+public final class VideoUrls {
+
+    private static final Set<String> YOUTUBE_HOSTS = Set.of("youtube.com", "www.youtube.com", "m.youtube.com",
+            "music.youtube.com");
+
+    private static final Set<String> VIDEO_PATH_PREFIXES = Set.of("shorts", "embed", "live", "v");
+
+    private static final Pattern VIDEO_ID = Pattern.compile("[A-Za-z0-9_-]{11}");
+
+    private VideoUrls() {
+    }
+
+    /**
+     * Returns the canonical url of the video, or the trimmed url itself if it is not a recognized YouTube url.
+     */
+    public static String canonicalize(String videoUrl) {
+        String trimmed = videoUrl.trim();
+        try {
+            URI uri = new URI(trimmed.contains("://") ? trimmed : "https://" + trimmed);
+            String host = uri.getHost() == null ? "" : uri.getHost()
+                    .toLowerCase(Locale.ROOT);
+            String path = uri.getPath() == null ? "" : uri.getPath();
+            String[] segments = path.replaceFirst("^/", "")
+                    .split("/");
+
+            String videoId = null;
+            if (host.equals("youtu.be")) {
+                videoId = segments[0];
+            } else if (YOUTUBE_HOSTS.contains(host)) {
+                if (path.equals("/watch")) {
+                    videoId = queryParameter(uri.getRawQuery(), "v");
+                } else if (segments.length >= 2 && VIDEO_PATH_PREFIXES.contains(segments[0])) {
+                    videoId = segments[1];
+                }
+            }
+
+            if (videoId != null && VIDEO_ID.matcher(videoId)
+                    .matches()) {
+                return "https://www.youtube.com/watch?v=" + videoId;
+            }
+        } catch (URISyntaxException e) {
+            // not a valid url, compared as is
+        }
+        return trimmed;
+    }
+
+    private static String queryParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0 && parameter.substring(0, separator)
+                    .equals(name)) {
+                return parameter.substring(separator + 1);
+            }
+        }
+        return null;
+    }
+}
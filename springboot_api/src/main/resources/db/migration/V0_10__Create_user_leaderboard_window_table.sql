@@ -0,0 +1,27 @@
+CREATE TABLE IF NOT EXISTS user_leaderboard_window (
+    leaderboard_window VARCHAR(16)      NOT NULL,
+    window_start       TIMESTAMP(6)     NOT NULL,
+    user_id            UUID             NOT NULL,
+    username           VARCHAR(255)     NOT NULL,
+    num_quizzes        BIGINT           NOT NULL DEFAULT 0,
+    num_attempts       BIGINT           NOT NULL DEFAULT 0,
+    num_questions      BIGINT           NOT NULL DEFAULT 0,
+    num_correct        BIGINT           NOT NULL DEFAULT 0,
+    score              DOUBLE PRECISION NOT NULL DEFAULT 0,
+    PRIMARY KEY (leaderboard_window, window_start, user_id)
+);
+
+-- one partial index per sortable leaderboard column within a window, restricted to the users that are shown
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_window_score
+    ON user_leaderboard_window (leaderboard_window, window_start, score, user_id) WHERE num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_window_quizzes
+    ON user_leaderboard_window (leaderboard_window, window_start, num_quizzes, user_id) WHERE num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_window_attempts
+    ON user_leaderboard_window (leaderboard_window, window_start, num_attempts, user_id) WHERE num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_window_questions
+    ON user_leaderboard_window (leaderboard_window, window_start, num_questions, user_id) WHERE num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_window_answers
+    ON user_leaderboard_window (leaderboard_window, window_start, num_correct, user_id) WHERE num_correct > 0;
+
+-- lets the window upsert check whether a quiz was already attempted in the window
+CREATE INDEX IF NOT EXISTS ix_quiz_attempt_user_quiz ON quiz_attempt (user_id, quiz_id, attempted_at);
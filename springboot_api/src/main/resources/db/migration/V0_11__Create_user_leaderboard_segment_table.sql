@@ -0,0 +1,33 @@
+-- leaderboard totals per user and language, difficulty or both, 'ANY' marks the dimension that is not filtered on
+CREATE TABLE IF NOT EXISTS user_leaderboard_segment (
+    language      VARCHAR(16)      NOT NULL,
+    difficulty    VARCHAR(16)      NOT NULL,
+    user_id       UUID             NOT NULL,
+    username      VARCHAR(255)     NOT NULL,
+    num_quizzes   BIGINT           NOT NULL DEFAULT 0,
+    num_attempts  BIGINT           NOT NULL DEFAULT 0,
+    num_questions BIGINT           NOT NULL DEFAULT 0,
+    num_correct   BIGINT           NOT NULL DEFAULT 0,
+    score         DOUBLE PRECISION NOT NULL DEFAULT 0,
+    date_modified TIMESTAMP(6)     NOT NULL DEFAULT now(),
+    PRIMARY KEY (language, difficulty, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_segment_user_id ON user_leaderboard_segment (user_id);
+
+-- one partial index per sortable leaderboard column within a segment, restricted to the users that are shown
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_segment_score
+    ON user_leaderboard_segment (language, difficulty, score, user_id)
+    WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_segment_quizzes
+    ON user_leaderboard_segment (language, difficulty, num_quizzes, user_id)
+    WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_segment_attempts
+    ON user_leaderboard_segment (language, difficulty, num_attempts, user_id)
+    WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_segment_questions
+    ON user_leaderboard_segment (language, difficulty, num_questions, user_id)
+    WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_segment_answers
+    ON user_leaderboard_segment (language, difficulty, num_correct, user_id)
+    WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
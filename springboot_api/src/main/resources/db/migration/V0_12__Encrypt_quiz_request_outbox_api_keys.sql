@@ -0,0 +1,2 @@
+-- the API keys are kept encrypted in their own column, the payload no longer contains them
+ALTER TABLE quiz_request_outbox ADD COLUMN IF NOT EXISTS api_keys TEXT;
@@ -0,0 +1,2 @@
+-- rows of removed users are kept zeroed for a while, so that every instance drops them from its in-memory index
+ALTER TABLE user_leaderboard ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT false;
@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS user_leaderboard (
+    user_id       UUID PRIMARY KEY,
+    username      VARCHAR(255)     NOT NULL,
+    num_quizzes   BIGINT           NOT NULL DEFAULT 0,
+    num_attempts  BIGINT           NOT NULL DEFAULT 0,
+    num_questions BIGINT           NOT NULL DEFAULT 0,
+    num_correct   BIGINT           NOT NULL DEFAULT 0,
+    score         DOUBLE PRECISION NOT NULL DEFAULT 0,
+    date_modified TIMESTAMP(6)     NOT NULL DEFAULT now()
+);
+
+-- one partial index per sortable leaderboard column, restricted to the users that are shown on the leaderboard
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_score
+    ON user_leaderboard (score, user_id) WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_quizzes
+    ON user_leaderboard (num_quizzes, user_id) WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_attempts
+    ON user_leaderboard (num_attempts, user_id) WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_questions
+    ON user_leaderboard (num_questions, user_id) WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_answers
+    ON user_leaderboard (num_correct, user_id) WHERE num_quizzes > 0 AND num_attempts > 0 AND num_correct > 0;
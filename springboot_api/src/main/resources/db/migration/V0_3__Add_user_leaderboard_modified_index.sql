@@ -0,0 +1,2 @@
+-- used by every instance to merge recently changed totals into its in-memory leaderboard index
+CREATE INDEX IF NOT EXISTS ix_user_leaderboard_date_modified ON user_leaderboard (date_modified);
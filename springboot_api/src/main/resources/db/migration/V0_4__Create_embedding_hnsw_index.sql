@@ -0,0 +1,12 @@
+-- langchain_pg_embedding is created by the quiz generator, the index is only added if the table already exists.
+-- The embedding column has no fixed dimension, so the index is built on vectors of the configured dimension only.
+DO $$
+BEGIN
+    IF to_regclass('langchain_pg_embedding') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS ix_langchain_pg_embedding_hnsw
+            ON langchain_pg_embedding
+            USING hnsw ((CAST(embedding AS vector(${embedding_dimensions}))) vector_cosine_ops)
+            WHERE vector_dims(embedding) = ${embedding_dimensions};
+    END IF;
+END
+$$;
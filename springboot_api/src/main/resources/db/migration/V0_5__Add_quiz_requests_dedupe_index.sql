@@ -0,0 +1,10 @@
+-- quiz_requests is created by the quiz generator resp. hibernate, the index is only added if the table already exists
+DO $$
+BEGIN
+    IF to_regclass('quiz_requests') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS ix_quiz_requests_finished_video_url
+            ON quiz_requests ((request_metadata ->> 'videoUrl'))
+            WHERE status = 'FINISHED';
+    END IF;
+END
+$$;
@@ -0,0 +1,11 @@
+-- user_quiz is created by the quiz generator resp. hibernate, it is only altered if the table already exists
+DO $$
+BEGIN
+    IF to_regclass('user_quiz') IS NOT NULL THEN
+        -- name of the quiz if its collection is shared with other users
+        ALTER TABLE user_quiz ADD COLUMN IF NOT EXISTS quiz_name VARCHAR(255);
+        -- reference counting of shared collections
+        CREATE INDEX IF NOT EXISTS ix_user_quiz_quiz_id ON user_quiz (quiz_id);
+    END IF;
+END
+$$;
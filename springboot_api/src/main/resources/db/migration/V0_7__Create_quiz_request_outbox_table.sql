@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS quiz_request_outbox (
+    id              BIGSERIAL PRIMARY KEY,
+    user_id         UUID         NOT NULL,
+    quiz_name       VARCHAR(255) NOT NULL,
+    payload         TEXT         NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      TEXT,
+    date_created    TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+-- per user ordering check of the relay
+CREATE INDEX IF NOT EXISTS ix_quiz_request_outbox_user_id ON quiz_request_outbox (user_id, id);
@@ -0,0 +1,23 @@
+-- notifies listeners about status changes written by other applications, i.e. the quiz generator. Changes made by
+-- this service are published in-process, it connects with application_name 'quizstream-api'
+CREATE OR REPLACE FUNCTION notify_quiz_request_status() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('application_name', true) IS DISTINCT FROM 'quizstream-api' THEN
+        PERFORM pg_notify('quiz_request_status',
+                json_build_object('user_id', NEW.user_id, 'quiz_name', NEW.quiz_name)::text);
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- quiz_requests is created by the quiz generator resp. hibernate, the trigger is only added if the table already exists
+DO $$
+BEGIN
+    IF to_regclass('quiz_requests') IS NOT NULL THEN
+        DROP TRIGGER IF EXISTS tr_quiz_requests_status ON quiz_requests;
+        CREATE TRIGGER tr_quiz_requests_status
+            AFTER INSERT OR UPDATE OF status ON quiz_requests
+            FOR EACH ROW EXECUTE FUNCTION notify_quiz_request_status();
+    END IF;
+END
+$$;
@@ -0,0 +1,23 @@
+-- append-only log of quiz attempts, progress is served from the rollups so the log is never scanned by requests
+CREATE TABLE IF NOT EXISTS quiz_attempt (
+    id            BIGSERIAL PRIMARY KEY,
+    user_id       UUID         NOT NULL,
+    quiz_id       UUID         NOT NULL,
+    attempted_at  TIMESTAMP(6) NOT NULL,
+    num_correct   INTEGER      NOT NULL,
+    num_questions INTEGER      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_quiz_attempt_user_id ON quiz_attempt (user_id, attempted_at);
+
+-- attempt totals per user and hour or day in UTC, incremented in the same transaction that appends to the log.
+-- The primary key serves the progress series as a range scan.
+CREATE TABLE IF NOT EXISTS quiz_attempt_rollup (
+    user_id       UUID         NOT NULL,
+    granularity   VARCHAR(16)  NOT NULL,
+    bucket_start  TIMESTAMP(6) NOT NULL,
+    num_attempts  BIGINT       NOT NULL DEFAULT 0,
+    num_correct   BIGINT       NOT NULL DEFAULT 0,
+    num_questions BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, granularity, bucket_start)
+);
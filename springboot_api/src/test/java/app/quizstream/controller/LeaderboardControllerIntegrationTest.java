@@ -0,0 +1,132 @@
+package app.quizstream.controller;
+
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.UserQuizRepository;
+import app.quizstream.repository.UserRepository;
+import app.quizstream.service.LeaderboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the test data is rolled back after each test, the requests run in the transaction of the test
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+public class LeaderboardControllerIntegrationTest {
+
+        private final MockMvc mockMvc;
+        private final UserRepository userRepository;
+        private final UserQuizRepository userQuizRepository;
+        private final LangchainPGCollectionRepository langchainPGCollectionRepository;
+        private final LeaderboardService leaderboardService;
+
+        private String username;
+
+        @Autowired
+        public LeaderboardControllerIntegrationTest(MockMvc mockMvc, UserRepository userRepository,
+                        UserQuizRepository userQuizRepository,
+                        LangchainPGCollectionRepository langchainPGCollectionRepository,
+                        LeaderboardService leaderboardService) {
+                this.mockMvc = mockMvc;
+                this.userRepository = userRepository;
+                this.userQuizRepository = userQuizRepository;
+                this.langchainPGCollectionRepository = langchainPGCollectionRepository;
+                this.leaderboardService = leaderboardService;
+        }
+
+        @BeforeEach
+        public void setUp() {
+                User user = new User();
+                user.setId(UUID.randomUUID());
+                this.username = "leaderboard_" + user.getId()
+                                .toString()
+                                .substring(0, 8);
+                user.setUsername(username);
+                user.setEmail(username + "@mail.com");
+                userRepository.save(user);
+
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setName("leaderboard quiz " + user.getId());
+                langchainPGCollectionRepository.save(collection);
+
+                UserQuiz userQuiz = new UserQuiz();
+                userQuiz.setId(new UserQuizId(user.getId(), collection.getUuid()));
+                userQuiz.setUser(user);
+                userQuiz.setLangchainCollection(collection);
+                userQuiz.setLanguage(UserQuiz.Language.DE);
+                userQuiz.setDifficulty(UserQuiz.Difficulty.HARD);
+                userQuiz.setNumTries(1);
+                userQuiz.setNumCorrect(3);
+                userQuiz.setNumQuestions(5);
+                userQuiz.setDateCreated(LocalDateTime.now());
+                userQuizRepository.saveAndFlush(userQuiz);
+
+                leaderboardService.refreshUser(user.getId());
+        }
+
+        @Test
+        public void testGetLeaderboardData_whenFilteredBySegmentOfUsersQuizzes_shouldContainUser() throws Exception {
+                mockMvc.perform(MockMvcRequestBuilders.get("/quizzes/leaderboard")
+                                .param("language", "DE")
+                                .param("difficulty", "HARD")
+                                .param("size", "1000"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].username", hasItem(username)));
+        }
+
+        @Test
+        public void testGetLeaderboardData_whenFilteredByLanguageOnly_shouldMatchAnyDifficulty() throws Exception {
+                mockMvc.perform(MockMvcRequestBuilders.get("/quizzes/leaderboard")
+                                .param("language", "DE")
+                                .param("size", "1000"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].username", hasItem(username)));
+        }
+
+        @Test
+        public void testGetLeaderboardData_whenFilteredByOtherSegment_shouldNotContainUser() throws Exception {
+                mockMvc.perform(MockMvcRequestBuilders.get("/quizzes/leaderboard")
+                                .param("language", "EN")
+                                .param("difficulty", "HARD")
+                                .param("size", "1000"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content[*].username", not(hasItem(username))));
+        }
+
+        @Test
+        public void testGetLeaderboardData_whenFilterIsCombinedWithRollingWindow_shouldReturnBadRequest()
+                        throws Exception {
+                mockMvc.perform(MockMvcRequestBuilders.get("/quizzes/leaderboard")
+                                .param("window", "DAILY")
+                                .param("language", "DE"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        public void testGetLeaderboardData_whenFilterValueIsUnknown_shouldReturnBadRequest() throws Exception {
+                mockMvc.perform(MockMvcRequestBuilders.get("/quizzes/leaderboard")
+                                .param("difficulty", "IMPOSSIBLE"))
+                                .andExpect(status().isBadRequest());
+        }
+}
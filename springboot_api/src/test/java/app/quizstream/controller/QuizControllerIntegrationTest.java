@@ -28,9 +28,14 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
@@ -271,7 +276,7 @@ public class QuizControllerIntegrationTest {
 
         @Test
         @Order(4)
-        public void testCreateQuiz_whenQuizNameAlreadyExists_shouldThrowException() throws Exception {
+        public void testCreateQuiz_whenQuizNameAlreadyExists_shouldReturnConflict() throws Exception {
 
                 QuizCreateRequestDto quizCreateDto = new QuizCreateRequestDto(testUser.getId(),
                                 testUser.getUsername(),
@@ -289,26 +294,17 @@ public class QuizControllerIntegrationTest {
                                 testUser.getId())
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(quizCreateDtoJson))
-                                .andExpect(status().isCreated());
-
-                // await the creation of quiz
-                await()
-                                .atMost(120, TimeUnit.SECONDS)
-                                .pollInterval(2, TimeUnit.SECONDS)
-                                .until(() -> isPresentAndTerminated.test(quizRequestService.getRequestByQuizRequestId(
-                                                testUser.getId(), quizCreateRequestDto.quizName())));
+                                .andExpect(status().isConflict());
 
                 // check that no new user was created
                 assertThat(userService.getAll().size()).isEqualTo(1);
 
-                // check that QuizRequest has failed
+                // check that the QuizRequest of the existing quiz was left untouched
                 QuizRequest quizRequestRow = quizRequestService
                                 .getRequestByQuizRequestId(testUser.getId(), quizCreateRequestDto.quizName())
                                 .orElseThrow();
 
-                assertThat(quizRequestRow.getStatus()).isEqualTo(QuizRequest.Status.FAILED);
-                assertThat(quizRequestRow.getMessageInternal()).contains("already exists");
-                assertThat(quizRequestRow.getMessageExternal()).contains("already exists");
+                assertThat(quizRequestRow.getStatus()).isEqualTo(QuizRequest.Status.FINISHED);
         }
 
         @Test
@@ -382,6 +378,44 @@ public class QuizControllerIntegrationTest {
 
         @Test
         @Order(7)
+        public void testUpdateQuiz_whenAttemptsAreRecordedConcurrently_shouldCountEveryAttempt() throws Exception {
+
+                int attempts = 2000;
+                UserQuiz before = userQuizRepository
+                                .findById_UserIdAndId_QuizId(testUser.getId(), quizOutboundData.quizId())
+                                .orElseThrow();
+                String quizUpdateDtoJson = objectMapper.writeValueAsString(
+                                new QuizUpdateDto(testUser.getId(), quizOutboundData.quizId(), 1, null));
+
+                ExecutorService executor = Executors.newFixedThreadPool(32);
+                try {
+                        List<Future<Integer>> statuses = new ArrayList<>();
+                        for (int i = 0; i < attempts; i++) {
+                                statuses.add(executor.submit(() -> mockMvc
+                                                .perform(MockMvcRequestBuilders.put("/users/{userId}/quizzes",
+                                                                testUser.getId())
+                                                                .contentType(MediaType.APPLICATION_JSON)
+                                                                .content(quizUpdateDtoJson))
+                                                .andReturn()
+                                                .getResponse()
+                                                .getStatus()));
+                        }
+                        for (Future<Integer> status : statuses) {
+                                assertThat(status.get(60, TimeUnit.SECONDS)).isEqualTo(200);
+                        }
+                } finally {
+                        executor.shutdown();
+                }
+
+                UserQuiz after = userQuizRepository
+                                .findById_UserIdAndId_QuizId(testUser.getId(), quizOutboundData.quizId())
+                                .orElseThrow();
+                assertThat(after.getNumTries()).isEqualTo(before.getNumTries() + attempts);
+                assertThat(after.getNumCorrect()).isEqualTo(before.getNumCorrect() + attempts);
+        }
+
+        @Test
+        @Order(8)
         public void testGetQuizDetails_whenValidUserQuizIdProvided_shouldFetchQuizDetails() throws Exception {
 
                 String response = mockMvc
@@ -410,7 +444,7 @@ public class QuizControllerIntegrationTest {
         }
 
         @Test
-        @Order(8)
+        @Order(9)
         public void testDeleteQuiz_whenValidUserQuizIdProvided_shouldDeleteQuiz() throws Exception {
 
                 // delete quiz
@@ -434,7 +468,7 @@ public class QuizControllerIntegrationTest {
         }
 
         @Test
-        @Order(9)
+        @Order(10)
         public void testGetAllQuizRequests_whenValidUserIdProvided_shouldFetchQuizRequestHistory() throws Exception {
 
                 String response = mockMvc
@@ -458,7 +492,7 @@ public class QuizControllerIntegrationTest {
         }
 
         @Test
-        @Order(10)
+        @Order(11)
         public void testGetFinishedQuizRequests_whenValidUserIdAndStatusParamProvided_shouldFetchFinishedQuizRequests()
                         throws Exception {
 
@@ -487,7 +521,7 @@ public class QuizControllerIntegrationTest {
         }
 
         @Test
-        @Order(11)
+        @Order(12)
         public void testGetFailedQuizRequests_whenValidUserIdAndStatusParamProvided_shouldFetchFailedQuizRequests()
                         throws Exception {
 
@@ -0,0 +1,147 @@
+package app.quizstream.controller;
+
+import app.quizstream.dto.quiz.QuizQuestionDetailsDto;
+import app.quizstream.dto.user.UserRegisterDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.UserQuizRepository;
+import app.quizstream.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the questions are streamed on another thread after the request returned, so the test data has to be committed
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+public class QuizDetailsStreamIntegrationTest {
+
+        private static final int NUM_QUESTIONS = 3;
+
+        private final MockMvc mockMvc;
+        private final JdbcTemplate jdbcTemplate;
+        private final UserService userService;
+        private final UserQuizRepository userQuizRepository;
+        private final LangchainPGCollectionRepository langchainPGCollectionRepository;
+        private final ObjectMapper objectMapper;
+
+        private UUID userId;
+        private UUID quizId;
+
+        @Autowired
+        public QuizDetailsStreamIntegrationTest(MockMvc mockMvc, JdbcTemplate jdbcTemplate, UserService userService,
+                        UserQuizRepository userQuizRepository,
+                        LangchainPGCollectionRepository langchainPGCollectionRepository, ObjectMapper objectMapper) {
+                this.mockMvc = mockMvc;
+                this.jdbcTemplate = jdbcTemplate;
+                this.userService = userService;
+                this.userQuizRepository = userQuizRepository;
+                this.langchainPGCollectionRepository = langchainPGCollectionRepository;
+                this.objectMapper = objectMapper;
+        }
+
+        @BeforeEach
+        public void setUp() {
+                this.userId = UUID.randomUUID();
+                String username = "details_" + userId.toString()
+                                .substring(0, 8);
+                userService.create(new UserRegisterDto(userId, username, username + "@mail.com"));
+
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setName("details quiz " + userId);
+                langchainPGCollectionRepository.save(collection);
+                this.quizId = collection.getUuid();
+
+                User user = new User();
+                user.setId(userId);
+                UserQuiz userQuiz = new UserQuiz();
+                userQuiz.setId(new UserQuizId(userId, quizId));
+                userQuiz.setUser(user);
+                userQuiz.setLangchainCollection(collection);
+                userQuiz.setNumQuestions(NUM_QUESTIONS);
+                userQuiz.setDateCreated(LocalDateTime.now());
+                userQuizRepository.save(userQuiz);
+
+                for (int i = 0; i < NUM_QUESTIONS; i++) {
+                        jdbcTemplate.update("INSERT INTO langchain_pg_embedding (id, collection_id, document, cmetadata) " +
+                                        "VALUES (?, ?, ?, CAST(? AS jsonb))", UUID.randomUUID()
+                                                        .toString(),
+                                        quizId, "question " + i,
+                                        "{\"id\": \"" + i + "\", \"context\": \"context " + i + "\", " +
+                                                        "\"answers\": {\"correct_answer\": \"correct " + i + "\", " +
+                                                        "\"wrong_answers\": [\"a\", \"b\", \"c\"]}, " +
+                                                        "\"start_index\": 0, \"end_index\": 10}");
+                }
+        }
+
+        @AfterEach
+        public void tearDown() {
+                userService.delete(userId);
+        }
+
+        @Test
+        public void testStreamQuizDetails_whenUserOwnsQuiz_shouldWriteOneQuestionPerLine() throws Exception {
+                // given
+                MvcResult stream = mockMvc.perform(MockMvcRequestBuilders
+                                .get("/users/{userId}/quizzes/{quizId}/details", userId, quizId)
+                                .accept(MediaType.APPLICATION_NDJSON))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                // when
+                String body = mockMvc.perform(asyncDispatch(stream))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                                .andReturn()
+                                .getResponse()
+                                .getContentAsString();
+
+                // then
+                List<String> lines = body.lines()
+                                .toList();
+                assertThat(body).endsWith("\n");
+                assertThat(lines).hasSize(NUM_QUESTIONS);
+                for (String line : lines) {
+                        QuizQuestionDetailsDto question = objectMapper.readValue(line, QuizQuestionDetailsDto.class);
+                        assertThat(question.question()).startsWith("question ");
+                        assertThat(question.correctAnswer()).startsWith("correct ");
+                        assertThat(question.wrongAnswers()).containsExactly("a", "b", "c");
+                        assertThat(question.context()).startsWith("context ");
+                }
+        }
+
+        @Test
+        public void testStreamQuizDetails_whenQuizBelongsToOtherUser_shouldReturnNotFoundBeforeStreaming()
+                        throws Exception {
+                mockMvc.perform(MockMvcRequestBuilders
+                                .get("/users/{userId}/quizzes/{quizId}/details", UUID.randomUUID(), quizId)
+                                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                                .andExpect(request().asyncNotStarted())
+                                .andExpect(status().isNotFound());
+        }
+}
@@ -0,0 +1,120 @@
+package app.quizstream.controller;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.dto.user.UserRegisterDto;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.service.QuizRequestService;
+import app.quizstream.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// status changes written by another application only reach the stream through the trigger and the LISTEN loop
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+public class QuizRequestEventsIntegrationTest {
+
+        private final MockMvc mockMvc;
+        private final JdbcTemplate jdbcTemplate;
+        private final UserService userService;
+        private final QuizRequestService quizRequestService;
+
+        private UUID userId;
+
+        private QuizRequest quizRequest;
+
+        @Autowired
+        public QuizRequestEventsIntegrationTest(MockMvc mockMvc, JdbcTemplate jdbcTemplate, UserService userService,
+                        QuizRequestService quizRequestService) {
+                this.mockMvc = mockMvc;
+                this.jdbcTemplate = jdbcTemplate;
+                this.userService = userService;
+                this.quizRequestService = quizRequestService;
+        }
+
+        @BeforeEach
+        public void setUp() {
+                this.userId = UUID.randomUUID();
+                String username = "events_" + userId.toString()
+                                .substring(0, 8);
+                userService.create(new UserRegisterDto(userId, username, username + "@mail.com"));
+                this.quizRequest = quizRequestService.createQuizRequest(new QuizCreateRequestDto(userId, username,
+                                "events quiz", "https://www.youtube.com/watch?v=IFx8eABfivg",
+                                Map.of("OPENAI_API_KEY", "key"), UserQuiz.Language.EN,
+                                UserQuiz.Type.MULTIPLE_CHOICE, UserQuiz.Difficulty.HARD));
+
+                // installed by the listener once hibernate created quiz_requests
+                await().atMost(30, TimeUnit.SECONDS)
+                                .until(() -> jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_trigger " +
+                                                "WHERE tgname = 'tr_quiz_requests_status')", Boolean.class));
+        }
+
+        @Test
+        public void testStreamQuizRequestEvents_whenStatusIsWrittenByOtherApplication_shouldSendEvent()
+                        throws Exception {
+                // given
+                MvcResult stream = subscribe();
+
+                // when
+                jdbcTemplate.update("UPDATE quiz_requests SET status = 'PROCESSING' " +
+                                "WHERE user_id = ? AND quiz_name = ?", userId, quizRequest.getId()
+                                                .getQuizName());
+
+                // then
+                await().atMost(30, TimeUnit.SECONDS)
+                                .until(() -> countEvents(stream, "PROCESSING") == 1);
+        }
+
+        @Test
+        public void testStreamQuizRequestEvents_whenStatusIsChangedByThisService_shouldSendEventOnce()
+                        throws Exception {
+                // given
+                MvcResult stream = subscribe();
+
+                // when, published in-process and notified by the trigger as well
+                quizRequest.updateRequestState(QuizRequest.Status.FAILED, null, "error", "Failed");
+                quizRequestService.updateQuizRequest(quizRequest);
+
+                // then
+                await().atMost(30, TimeUnit.SECONDS)
+                                .until(() -> countEvents(stream, "FAILED") == 1);
+                await().during(2, TimeUnit.SECONDS)
+                                .atMost(5, TimeUnit.SECONDS)
+                                .until(() -> countEvents(stream, "FAILED") == 1);
+        }
+
+        private MvcResult subscribe() throws Exception {
+                return mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}/quizzes/requests/events", userId)
+                                .accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+        }
+
+        private long countEvents(MvcResult stream, String status) throws Exception {
+                return stream.getResponse()
+                                .getContentAsString()
+                                .lines()
+                                .filter(line -> line.startsWith("data:"))
+                                .filter(line -> line.contains("\"status\":\"" + status + "\""))
+                                .count();
+        }
+}
@@ -0,0 +1,125 @@
+package app.quizstream.controller;
+
+import app.quizstream.dto.quiz.QuizSearchRequestDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.UserQuizRepository;
+import app.quizstream.repository.UserRepository;
+import app.quizstream.util.vector.PgVector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the test data is rolled back after each test, the requests run in the transaction of the test
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+public class QuizSearchControllerIntegrationTest {
+
+        private final MockMvc mockMvc;
+        private final JdbcTemplate jdbcTemplate;
+        private final UserRepository userRepository;
+        private final UserQuizRepository userQuizRepository;
+        private final LangchainPGCollectionRepository langchainPGCollectionRepository;
+        private final ObjectMapper objectMapper;
+
+        @Value("${quizstream.search.embedding-dimensions}")
+        private int embeddingDimensions;
+
+        private UUID userId;
+        private String otherUsersQuestionId;
+
+        @Autowired
+        public QuizSearchControllerIntegrationTest(MockMvc mockMvc, JdbcTemplate jdbcTemplate,
+                        UserRepository userRepository, UserQuizRepository userQuizRepository,
+                        LangchainPGCollectionRepository langchainPGCollectionRepository, ObjectMapper objectMapper) {
+                this.mockMvc = mockMvc;
+                this.jdbcTemplate = jdbcTemplate;
+                this.userRepository = userRepository;
+                this.userQuizRepository = userQuizRepository;
+                this.langchainPGCollectionRepository = langchainPGCollectionRepository;
+                this.objectMapper = objectMapper;
+        }
+
+        @BeforeEach
+        public void setUp() {
+                this.userId = UUID.randomUUID();
+
+                User otherUser = new User();
+                otherUser.setId(UUID.randomUUID());
+                String username = "search_" + otherUser.getId()
+                                .toString()
+                                .substring(0, 8);
+                otherUser.setUsername(username);
+                otherUser.setEmail(username + "@mail.com");
+                userRepository.save(otherUser);
+
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setName("search quiz " + otherUser.getId());
+                langchainPGCollectionRepository.save(collection);
+
+                UserQuiz userQuiz = new UserQuiz();
+                userQuiz.setId(new UserQuizId(otherUser.getId(), collection.getUuid()));
+                userQuiz.setUser(otherUser);
+                userQuiz.setLangchainCollection(collection);
+                userQuiz.setNumQuestions(1);
+                userQuiz.setDateCreated(LocalDateTime.now());
+                userQuizRepository.saveAndFlush(userQuiz);
+
+                this.otherUsersQuestionId = UUID.randomUUID()
+                                .toString();
+                jdbcTemplate.update("INSERT INTO langchain_pg_embedding (id, collection_id, embedding, document) " +
+                                "VALUES (?, ?, CAST(? AS vector), ?)", otherUsersQuestionId, collection.getUuid(),
+                                PgVector.format(new float[embeddingDimensions]), "question");
+        }
+
+        @Test
+        public void testSearchQuizzes_whenVectorAndQuestionIdAreBothGiven_shouldReturnBadRequest() throws Exception {
+                search(new QuizSearchRequestDto(new float[embeddingDimensions], otherUsersQuestionId, null))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        public void testSearchQuizzes_whenVectorAndQuestionIdAreMissing_shouldReturnBadRequest() throws Exception {
+                search(new QuizSearchRequestDto(null, null, null)).andExpect(status().isBadRequest());
+        }
+
+        @Test
+        public void testSearchQuizzes_whenVectorHasWrongDimension_shouldReturnBadRequest() throws Exception {
+                search(new QuizSearchRequestDto(new float[] { 1, 2, 3 }, null, null))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        public void testSearchQuizzes_whenQuestionBelongsToOtherUser_shouldReturnNotFound() throws Exception {
+                search(new QuizSearchRequestDto(null, otherUsersQuestionId, null)).andExpect(status().isNotFound());
+        }
+
+        private ResultActions search(QuizSearchRequestDto searchDto) throws Exception {
+                return mockMvc.perform(MockMvcRequestBuilders.post("/users/{userId}/quizzes/search", userId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(searchDto)));
+        }
+}
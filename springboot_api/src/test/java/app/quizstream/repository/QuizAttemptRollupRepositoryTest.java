@@ -0,0 +1,127 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.QuizProgressPointDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.attempt.QuizAttempt;
+import app.quizstream.entity.attempt.QuizAttemptRollup;
+import app.quizstream.service.QuizAttemptLog;
+import app.quizstream.service.QuizProgressService;
+import app.quizstream.util.mapper.QuizMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// the JDBC time zone differs from the JVM zone, buckets must neither be shifted on write nor on read
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.jdbc.time_zone=America/Santiago")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+@Import({ QuizAttemptLog.class, QuizProgressService.class, QuizMapper.class, SimpleMeterRegistry.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class QuizAttemptRollupRepositoryTest {
+
+        @Autowired
+        private TestEntityManager testEntityManager;
+
+        @Autowired
+        private QuizAttemptRepository quizAttemptRepository;
+
+        @Autowired
+        private QuizAttemptRollupRepository quizAttemptRollupRepository;
+
+        @Autowired
+        private QuizAttemptLog quizAttemptLog;
+
+        @Autowired
+        private QuizProgressService quizProgressService;
+
+        private User user;
+
+        @BeforeEach
+        public void setUp() {
+                user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername("progressUser");
+                user.setEmail("progressuser@mail.com");
+                testEntityManager.persistAndFlush(user);
+
+                quizAttemptLog.record(user.getId(), UUID.randomUUID(), 3, 5);
+                quizAttemptLog.record(user.getId(), UUID.randomUUID(), 4, 5);
+                quizAttemptLog.flush();
+                testEntityManager.clear();
+        }
+
+        @Test
+        public void testGetProgress_whenAttemptsAreWrittenByAttemptLog_shouldReturnCurrentBucket() {
+                // given
+                LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+                // when
+                List<QuizProgressPointDto> hourly = quizProgressService.getProgress(user.getId(),
+                                QuizAttemptRollup.Granularity.HOUR, null, null);
+                List<QuizProgressPointDto> daily = quizProgressService.getProgress(user.getId(),
+                                QuizAttemptRollup.Granularity.DAY, null, null);
+
+                // then
+                assertThat(hourly).singleElement()
+                                .satisfies(point -> {
+                                        assertThat(point.bucketStart())
+                                                        .isEqualTo(QuizAttemptRollup.Granularity.HOUR.bucketOf(now));
+                                        assertThat(point.numberAttempts()).isEqualTo(2L);
+                                        assertThat(point.numberCorrectAnswers()).isEqualTo(7L);
+                                        assertThat(point.numberQuestions()).isEqualTo(10L);
+                                });
+                assertThat(daily).singleElement()
+                                .extracting(QuizProgressPointDto::bucketStart)
+                                .isEqualTo(QuizAttemptRollup.Granularity.DAY.bucketOf(now));
+        }
+
+        @Test
+        public void testFindSeries_whenRangeEndsBeforeCurrentBucket_shouldNotReturnIt() {
+                // given
+                LocalDateTime bucketStart = QuizAttemptRollup.Granularity.HOUR
+                                .bucketOf(LocalDateTime.now(ZoneOffset.UTC));
+
+                // when
+                List<QuizAttemptRollup> before = quizAttemptRollupRepository.findSeries(user.getId(),
+                                QuizAttemptRollup.Granularity.HOUR, bucketStart.minusHours(5), bucketStart);
+                List<QuizAttemptRollup> including = quizAttemptRollupRepository.findSeries(user.getId(),
+                                QuizAttemptRollup.Granularity.HOUR, bucketStart, bucketStart.plusHours(1));
+
+                // then
+                assertThat(before).isEmpty();
+                assertThat(including).hasSize(1);
+        }
+
+        @Test
+        public void testFindAll_whenAttemptsAreWrittenByAttemptLog_shouldReadUnshiftedAttemptTimes() {
+                // when
+                List<QuizAttempt> attempts = quizAttemptRepository.findAll()
+                                .stream()
+                                .filter(attempt -> attempt.getUserId()
+                                                .equals(user.getId()))
+                                .toList();
+
+                // then
+                assertThat(attempts).hasSize(2)
+                                .allSatisfy(attempt -> assertThat(attempt.getAttemptedAt())
+                                                .isCloseTo(LocalDateTime.now(ZoneOffset.UTC),
+                                                                within(1, ChronoUnit.MINUTES)));
+        }
+}
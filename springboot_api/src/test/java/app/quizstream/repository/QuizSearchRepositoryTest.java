@@ -0,0 +1,139 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.QuizSearchResultDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.service.DeferredSchemaInstaller;
+import app.quizstream.util.vector.PgVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the HNSW index is shared by all users, a user with few questions must still get a full page of results,
+// it is created by the installer once Hibernate created the table
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+@Import(DeferredSchemaInstaller.class)
+public class QuizSearchRepositoryTest {
+
+        private static final int MAJORITY_QUESTIONS = 400;
+        private static final int MINORITY_QUESTIONS = 5;
+
+        @Autowired
+        private TestEntityManager testEntityManager;
+
+        @Autowired
+        private LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+
+        @Value("${quizstream.search.embedding-dimensions}")
+        private int embeddingDimensions;
+
+        private final Random random = new Random(42);
+
+        private User minorityUser;
+
+        private UUID minorityQuizId;
+
+        @BeforeEach
+        public void setUp() {
+                User majorityUser = persistUser("majorityUser");
+                minorityUser = persistUser("minorityUser");
+
+                // the majority user's questions are all closer to the query than any question of the minority user
+                UUID majorityQuizId = persistQuiz(majorityUser, "majority quiz");
+                for (int i = 0; i < MAJORITY_QUESTIONS; i++) {
+                        persistQuestion(majorityQuizId, vectorNear(0));
+                }
+                minorityQuizId = persistQuiz(minorityUser, "minority quiz");
+                for (int i = 0; i < MINORITY_QUESTIONS; i++) {
+                        persistQuestion(minorityQuizId, vectorNear(1));
+                }
+
+                // forces the index scan on this small table
+                testEntityManager.getEntityManager()
+                                .createNativeQuery("SELECT set_config('enable_seqscan', 'off', true), " +
+                                                "set_config('enable_sort', 'off', true)")
+                                .getSingleResult();
+        }
+
+        @Test
+        public void testFindNearestQuestions_whenUserOwnsFewQuestions_shouldReturnFullPage() {
+                // given
+                assertThat(testEntityManager.getEntityManager()
+                                .createNativeQuery("SELECT to_regclass('ix_langchain_pg_embedding_hnsw') IS NOT NULL")
+                                .getSingleResult()).isEqualTo(true);
+
+                // when
+                List<QuizSearchResultDto> results = langchainPGEmbeddingRepository.findNearestQuestions(
+                                minorityUser.getId(), vectorNear(0), null, MINORITY_QUESTIONS);
+
+                // then
+                assertThat(results).hasSize(MINORITY_QUESTIONS)
+                                .allSatisfy(result -> assertThat(result.quizId()).isEqualTo(minorityQuizId))
+                                .isSortedAccordingTo(Comparator.comparing(QuizSearchResultDto::distance));
+        }
+
+        private User persistUser(String username) {
+                User user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername(username);
+                user.setEmail(username + "@mail.com");
+                return testEntityManager.persist(user);
+        }
+
+        private UUID persistQuiz(User user, String name) {
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setName(name + "_" + user.getId());
+                testEntityManager.persist(collection);
+
+                UserQuiz userQuiz = new UserQuiz();
+                userQuiz.setId(new UserQuizId(user.getId(), collection.getUuid()));
+                userQuiz.setUser(user);
+                userQuiz.setLangchainCollection(collection);
+                userQuiz.setNumQuestions(1);
+                userQuiz.setDateCreated(LocalDateTime.now());
+                testEntityManager.persistAndFlush(userQuiz);
+
+                return collection.getUuid();
+        }
+
+        private void persistQuestion(UUID quizId, float[] vector) {
+                testEntityManager.getEntityManager()
+                                .createNativeQuery("INSERT INTO langchain_pg_embedding " +
+                                                "(id, collection_id, embedding, document) " +
+                                                "VALUES (:id, :collectionId, CAST(:embedding AS vector), :document)")
+                                .setParameter("id", UUID.randomUUID()
+                                                .toString())
+                                .setParameter("collectionId", quizId)
+                                .setParameter("embedding", PgVector.format(vector))
+                                .setParameter("document", "question")
+                                .executeUpdate();
+        }
+
+        // unit vector along the given axis with a little noise
+        private float[] vectorNear(int axis) {
+                float[] vector = new float[embeddingDimensions];
+                for (int i = 0; i < vector.length; i++) {
+                        vector[i] = random.nextFloat() * 0.01f;
+                }
+                vector[axis] = 1;
+                return vector;
+        }
+}
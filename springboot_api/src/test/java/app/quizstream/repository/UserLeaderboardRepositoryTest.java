@@ -0,0 +1,165 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.service.LeaderboardIndex;
+import app.quizstream.service.LeaderboardService;
+import app.quizstream.util.mapper.QuizMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the totals written by the backfill and the refreshes, and the removals other instances leave behind
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+@Import({ LeaderboardService.class, LeaderboardIndex.class, QuizMapper.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class UserLeaderboardRepositoryTest {
+
+        @Autowired
+        private TestEntityManager testEntityManager;
+
+        @Autowired
+        private UserLeaderboardRepository userLeaderboardRepository;
+
+        @Autowired
+        private LeaderboardService leaderboardService;
+
+        @Autowired
+        private LeaderboardIndex leaderboardIndex;
+
+        private User user;
+
+        @BeforeEach
+        public void setUp() {
+                user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername("leaderboardUser");
+                user.setEmail("leaderboarduser@mail.com");
+                testEntityManager.persist(user);
+
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setName("leaderboard quiz " + user.getId());
+                testEntityManager.persist(collection);
+
+                UserQuiz userQuiz = new UserQuiz();
+                userQuiz.setId(new UserQuizId(user.getId(), collection.getUuid()));
+                userQuiz.setUser(user);
+                userQuiz.setLangchainCollection(collection);
+                userQuiz.setNumTries(1);
+                userQuiz.setNumCorrect(3);
+                userQuiz.setNumQuestions(5);
+                userQuiz.setDateCreated(LocalDateTime.now());
+                testEntityManager.persistAndFlush(userQuiz);
+
+                // the index is only updated once a refresh committed, so it is built from the refreshed totals
+                leaderboardService.refreshUser(user.getId());
+                leaderboardService.initializeLeaderboard();
+        }
+
+        @Test
+        public void testRefreshUser_whenTransactionIsRolledBack_shouldNotUpdateIndex() {
+                // given
+                testEntityManager.getEntityManager()
+                                .createNativeQuery("UPDATE user_quiz SET num_correct = 5 WHERE user_id = :userId")
+                                .setParameter("userId", user.getId())
+                                .executeUpdate();
+
+                // when
+                leaderboardService.refreshUser(user.getId());
+                TestTransaction.flagForRollback();
+                TestTransaction.end();
+
+                // then
+                assertThat(leaderboardIndex.get(user.getId())).hasValueSatisfying(
+                                totals -> assertThat(totals.numCorrect()).isEqualTo(3));
+        }
+
+        @Test
+        public void testInitializeLeaderboard_whenTotalsAreEmpty_shouldBackfillProjectedTotals() {
+                // given, rolled back with the test
+                testEntityManager.getEntityManager()
+                                .createNativeQuery("DELETE FROM user_leaderboard")
+                                .executeUpdate();
+                testEntityManager.clear();
+
+                // when
+                leaderboardService.initializeLeaderboard();
+                testEntityManager.clear();
+
+                // then
+                assertThat(userLeaderboardRepository.findById(user.getId())).hasValueSatisfying(row -> {
+                        assertThat(row.getUsername()).isEqualTo("leaderboardUser");
+                        assertThat(row.getNumQuizzes()).isEqualTo(1);
+                        assertThat(row.getNumAttempts()).isEqualTo(1);
+                        assertThat(row.getNumCorrect()).isEqualTo(3);
+                        assertThat(row.getNumQuestions()).isEqualTo(5);
+                        assertThat(row.getScore()).isEqualTo(60.0);
+                });
+                assertThat(leaderboardIndex.get(user.getId())).isPresent();
+        }
+
+        @Test
+        public void testSyncIndex_whenUserWasRemovedByOtherInstance_shouldRemoveUserFromIndex() {
+                // given
+                assertThat(leaderboardIndex.get(user.getId())).isPresent();
+
+                // when
+                userLeaderboardRepository.markDeleted(user.getId());
+                testEntityManager.clear();
+                leaderboardService.syncIndex();
+
+                // then
+                assertThat(leaderboardIndex.get(user.getId())).isEmpty();
+        }
+
+        @Test
+        public void testRefreshForUser_whenUserWasMarkedDeleted_shouldClearTombstone() {
+                // given
+                userLeaderboardRepository.markDeleted(user.getId());
+
+                // when
+                userLeaderboardRepository.refreshForUser(user.getId());
+                testEntityManager.clear();
+
+                // then
+                assertThat(userLeaderboardRepository.findById(user.getId())).hasValueSatisfying(row -> {
+                        assertThat(row.isDeleted()).isFalse();
+                        assertThat(row.getNumCorrect()).isEqualTo(3);
+                });
+        }
+
+        @Test
+        public void testDeleteTombstones_whenTombstoneIsOlderThanRetention_shouldDeleteIt() {
+                // given
+                userLeaderboardRepository.markDeleted(user.getId());
+                testEntityManager.getEntityManager()
+                                .createNativeQuery("UPDATE user_leaderboard " +
+                                                "SET date_modified = now() - interval '2 days' WHERE user_id = :userId")
+                                .setParameter("userId", user.getId())
+                                .executeUpdate();
+
+                // when
+                userLeaderboardRepository.deleteTombstones(86400);
+                testEntityManager.clear();
+
+                // then
+                assertThat(userLeaderboardRepository.findById(user.getId())).isEmpty();
+        }
+}
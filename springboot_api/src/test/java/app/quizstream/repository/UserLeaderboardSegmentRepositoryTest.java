@@ -0,0 +1,203 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.entity.leaderboard.UserLeaderboardSegment;
+import app.quizstream.entity.leaderboard.UserLeaderboardSegmentId;
+import app.quizstream.service.LeaderboardIndex;
+import app.quizstream.service.LeaderboardService;
+import app.quizstream.util.mapper.QuizMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+@Import({ LeaderboardService.class, LeaderboardIndex.class, QuizMapper.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class UserLeaderboardSegmentRepositoryTest {
+
+        @Autowired
+        private TestEntityManager testEntityManager;
+
+        @Autowired
+        private UserLeaderboardSegmentRepository userLeaderboardSegmentRepository;
+
+        @Autowired
+        private UserLeaderboardRepository userLeaderboardRepository;
+
+        @Autowired
+        private LeaderboardService leaderboardService;
+
+        private User user;
+
+        @BeforeEach
+        public void setUp() {
+                user = persistUser("segmentUser");
+        }
+
+        @Test
+        public void testRefreshForUsers_whenUserHasQuizzesInSeveralSegments_shouldUpsertEveryGroupingSet() {
+                // given
+                persistQuiz(user, UserQuiz.Language.EN, UserQuiz.Difficulty.HARD, 2, 3, 5);
+                persistQuiz(user, UserQuiz.Language.DE, UserQuiz.Difficulty.HARD, 1, 1, 4);
+
+                // when
+                userLeaderboardSegmentRepository.refreshForUsers(List.of(user.getId()));
+                testEntityManager.clear();
+
+                // then
+                assertThat(segmentKeysOf(user)).containsExactlyInAnyOrder("EN/HARD", "DE/HARD", "EN/ANY", "DE/ANY",
+                                "ANY/HARD");
+                assertThat(segment(user, UserLeaderboardSegment.ANY, "HARD")).satisfies(segment -> {
+                        assertThat(segment.getNumQuizzes()).isEqualTo(2);
+                        assertThat(segment.getNumAttempts()).isEqualTo(3);
+                        assertThat(segment.getNumCorrect()).isEqualTo(4);
+                        assertThat(segment.getNumQuestions()).isEqualTo(9);
+                        assertThat(segment.getScore()).isCloseTo(400.0 / 9, within(1e-9));
+                });
+                assertThat(segment(user, "EN", UserLeaderboardSegment.ANY).getNumQuizzes()).isEqualTo(1);
+        }
+
+        @Test
+        public void testDeleteStaleForUsers_whenRefreshedInSameTransaction_shouldOnlyDeleteSegmentsWithoutQuizzes() {
+                // given, a segment the user had quizzes in before
+                persistQuiz(user, UserQuiz.Language.EN, UserQuiz.Difficulty.HARD, 2, 3, 5);
+                UserLeaderboardSegment stale = new UserLeaderboardSegment();
+                stale.setId(new UserLeaderboardSegmentId("ES", "EASY", user.getId()));
+                stale.setUsername(user.getUsername());
+                stale.setNumQuizzes(1);
+                stale.setDateModified(LocalDateTime.now()
+                                .minusDays(1));
+                testEntityManager.persistAndFlush(stale);
+
+                // when
+                userLeaderboardSegmentRepository.refreshForUsers(List.of(user.getId()));
+                int deleted = userLeaderboardSegmentRepository.deleteStaleForUsers(List.of(user.getId()));
+                testEntityManager.clear();
+
+                // then
+                assertThat(deleted).isEqualTo(1);
+                assertThat(segmentKeysOf(user)).containsExactlyInAnyOrder("EN/HARD", "EN/ANY", "ANY/HARD");
+        }
+
+        @Test
+        public void testGetLeaderboard_whenFilteredByLanguageAndDifficulty_shouldRankOnlyQuizzesOfThatSegment() {
+                // given
+                User other = persistUser("otherSegmentUser");
+                persistQuiz(user, UserQuiz.Language.ES, UserQuiz.Difficulty.MEDIUM, 1, 1, 4);
+                persistQuiz(user, UserQuiz.Language.EN, UserQuiz.Difficulty.MEDIUM, 1, 4, 4);
+                persistQuiz(other, UserQuiz.Language.ES, UserQuiz.Difficulty.MEDIUM, 1, 3, 4);
+                leaderboardService.refreshUsers(List.of(user.getId(), other.getId()));
+                testEntityManager.clear();
+
+                // when
+                Page<QuizLeaderboardEntry> page = leaderboardService.getLeaderboard(UserQuiz.Language.ES,
+                                UserQuiz.Difficulty.MEDIUM, PageRequest.of(0, 100));
+
+                // then
+                assertThat(page.getContent()).filteredOn(entry -> Set.of("segmentUser", "otherSegmentUser")
+                                .contains(entry.username()))
+                                .extracting(QuizLeaderboardEntry::username, QuizLeaderboardEntry::numberCorrectAnswers)
+                                .containsExactly(tuple("otherSegmentUser", 3L),
+                                                tuple("segmentUser", 1L));
+        }
+
+        @Test
+        public void testInitializeLeaderboard_whenTotalsExist_shouldOnlyBackfillUsersWithoutSegments() {
+                // given, the first user was ranked and segmented before, the second one is missing its segments
+                User unsegmented = persistUser("unsegmentedUser");
+                persistQuiz(user, UserQuiz.Language.EN, UserQuiz.Difficulty.HARD, 2, 3, 5);
+                persistQuiz(unsegmented, UserQuiz.Language.DE, UserQuiz.Difficulty.EASY, 1, 2, 5);
+                userLeaderboardRepository.refreshForUsers(List.of(user.getId(), unsegmented.getId()));
+
+                UserLeaderboardSegment existing = new UserLeaderboardSegment();
+                existing.setId(new UserLeaderboardSegmentId("EN", "HARD", user.getId()));
+                existing.setUsername(user.getUsername());
+                existing.setNumQuizzes(7);
+                existing.setDateModified(LocalDateTime.now()
+                                .minusDays(1));
+                testEntityManager.persistAndFlush(existing);
+
+                // when
+                leaderboardService.initializeLeaderboard();
+                testEntityManager.clear();
+
+                // then
+                assertThat(segmentsOf(user)).singleElement()
+                                .satisfies(segment -> assertThat(segment.getNumQuizzes()).isEqualTo(7));
+                assertThat(segmentKeysOf(unsegmented)).containsExactlyInAnyOrder("DE/EASY", "DE/ANY", "ANY/EASY");
+        }
+
+        private List<UserLeaderboardSegment> segmentsOf(User owner) {
+                return userLeaderboardSegmentRepository.findAll()
+                                .stream()
+                                .filter(segment -> segment.getId()
+                                                .getUserId()
+                                                .equals(owner.getId()))
+                                .toList();
+        }
+
+        private List<String> segmentKeysOf(User owner) {
+                return segmentsOf(owner).stream()
+                                .map(segment -> segment.getId()
+                                                .getLanguage() + "/" + segment.getId()
+                                                                .getDifficulty())
+                                .toList();
+        }
+
+        private UserLeaderboardSegment segment(User owner, String language, String difficulty) {
+                return userLeaderboardSegmentRepository.findById(
+                                new UserLeaderboardSegmentId(language, difficulty, owner.getId()))
+                                .orElseThrow();
+        }
+
+        private User persistUser(String username) {
+                User newUser = new User();
+                newUser.setId(UUID.randomUUID());
+                newUser.setUsername(username);
+                newUser.setEmail(username.toLowerCase() + "@mail.com");
+                return testEntityManager.persist(newUser);
+        }
+
+        private void persistQuiz(User owner, UserQuiz.Language language, UserQuiz.Difficulty difficulty, int numTries,
+                        int numCorrect, int numQuestions) {
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setName("segment quiz " + UUID.randomUUID());
+                testEntityManager.persist(collection);
+
+                UserQuiz userQuiz = new UserQuiz();
+                userQuiz.setId(new UserQuizId(owner.getId(), collection.getUuid()));
+                userQuiz.setUser(owner);
+                userQuiz.setLangchainCollection(collection);
+                userQuiz.setLanguage(language);
+                userQuiz.setDifficulty(difficulty);
+                userQuiz.setNumTries(numTries);
+                userQuiz.setNumCorrect(numCorrect);
+                userQuiz.setNumQuestions(numQuestions);
+                userQuiz.setDateCreated(LocalDateTime.now());
+                testEntityManager.persistAndFlush(userQuiz);
+        }
+}
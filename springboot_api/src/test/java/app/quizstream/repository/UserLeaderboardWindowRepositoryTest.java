@@ -0,0 +1,113 @@
+package app.quizstream.repository;
+
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import app.quizstream.entity.User;
+import app.quizstream.entity.leaderboard.LeaderboardWindow;
+import app.quizstream.entity.leaderboard.UserLeaderboardWindow;
+import app.quizstream.entity.leaderboard.UserLeaderboardWindowId;
+import app.quizstream.service.LeaderboardIndex;
+import app.quizstream.service.LeaderboardService;
+import app.quizstream.service.QuizAttemptLog;
+import app.quizstream.util.mapper.QuizMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the JDBC time zone differs from the JVM zone, window starts must neither be shifted on write nor on read
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.jdbc.time_zone=America/Santiago")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+@Import({ QuizAttemptLog.class, LeaderboardService.class, LeaderboardIndex.class, QuizMapper.class,
+                SimpleMeterRegistry.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class UserLeaderboardWindowRepositoryTest {
+
+        @Autowired
+        private TestEntityManager testEntityManager;
+
+        @Autowired
+        private UserLeaderboardWindowRepository userLeaderboardWindowRepository;
+
+        @Autowired
+        private QuizAttemptLog quizAttemptLog;
+
+        @Autowired
+        private LeaderboardService leaderboardService;
+
+        private User user;
+
+        @BeforeEach
+        public void setUp() {
+                user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername("windowUser");
+                user.setEmail("windowuser@mail.com");
+                testEntityManager.persistAndFlush(user);
+        }
+
+        @Test
+        public void testGetLeaderboard_whenAttemptsAreWrittenByAttemptLog_shouldServeThemInCurrentWindow() {
+                // given
+                quizAttemptLog.record(user.getId(), UUID.randomUUID(), 3, 5);
+                quizAttemptLog.flush();
+                testEntityManager.clear();
+
+                // when
+                Page<QuizLeaderboardEntry> daily = leaderboardService.getLeaderboard(LeaderboardWindow.DAILY,
+                                PageRequest.of(0, 10));
+                Page<QuizLeaderboardEntry> weekly = leaderboardService.getLeaderboard(LeaderboardWindow.WEEKLY,
+                                PageRequest.of(0, 10));
+
+                // then
+                assertThat(daily.getContent()).singleElement()
+                                .satisfies(entry -> {
+                                        assertThat(entry.username()).isEqualTo("windowUser");
+                                        assertThat(entry.numberQuizzes()).isEqualTo(1L);
+                                        assertThat(entry.numberCorrectAnswers()).isEqualTo(3L);
+                                        assertThat(entry.numberQuestions()).isEqualTo(5L);
+                                });
+                assertThat(daily.getTotalElements()).isEqualTo(1);
+                assertThat(weekly.getContent()).hasSize(1);
+        }
+
+        @Test
+        public void testPurgeExpiredWindows_whenPreviousWindowExists_shouldOnlyDeletePreviousWindow() {
+                // given
+                quizAttemptLog.record(user.getId(), UUID.randomUUID(), 3, 5);
+                quizAttemptLog.flush();
+
+                LocalDateTime currentStart = LeaderboardWindow.DAILY.startOf(LocalDateTime.now(ZoneOffset.UTC));
+                UserLeaderboardWindowId previousId = new UserLeaderboardWindowId(LeaderboardWindow.DAILY,
+                                currentStart.minusDays(1), user.getId());
+                UserLeaderboardWindow previous = new UserLeaderboardWindow();
+                previous.setId(previousId);
+                previous.setUsername(user.getUsername());
+                previous.setNumCorrect(1);
+                testEntityManager.persistAndFlush(previous);
+                testEntityManager.clear();
+
+                // when
+                leaderboardService.purgeExpiredWindows();
+
+                // then
+                assertThat(userLeaderboardWindowRepository.findById(previousId)).isEmpty();
+                assertThat(userLeaderboardWindowRepository.findById(new UserLeaderboardWindowId(
+                                LeaderboardWindow.DAILY, currentStart, user.getId()))).isPresent();
+        }
+}
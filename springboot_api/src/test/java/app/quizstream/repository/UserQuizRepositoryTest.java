@@ -0,0 +1,114 @@
+package app.quizstream.repository;
+
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("integration-test")
+public class UserQuizRepositoryTest {
+
+        private static final int NUM_QUIZZES = 30;
+
+        @Autowired
+        private TestEntityManager testEntityManager;
+
+        @Autowired
+        private UserQuizRepository userQuizRepository;
+
+        private Statistics statistics;
+
+        private User user;
+
+        private UUID quizId;
+
+        @BeforeEach
+        public void setUp() {
+                user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername("quizUser");
+                user.setEmail("quizuser@mail.com");
+                testEntityManager.persist(user);
+
+                for (int i = 0; i < NUM_QUIZZES; i++) {
+                        LangchainPGCollection collection = new LangchainPGCollection();
+                        collection.setName("quiz_" + i + "_" + user.getId());
+                        testEntityManager.persist(collection);
+
+                        UserQuiz userQuiz = new UserQuiz();
+                        userQuiz.setId(new UserQuizId(user.getId(), collection.getUuid()));
+                        userQuiz.setUser(user);
+                        userQuiz.setLangchainCollection(collection);
+                        userQuiz.setNumQuestions(10);
+                        userQuiz.setDateCreated(LocalDateTime.now());
+                        testEntityManager.persist(userQuiz);
+
+                        quizId = collection.getUuid();
+                }
+
+                testEntityManager.flush();
+                testEntityManager.clear();
+
+                statistics = testEntityManager.getEntityManager()
+                                .getEntityManagerFactory()
+                                .unwrap(SessionFactory.class)
+                                .getStatistics();
+        }
+
+        @Test
+        public void testFindByUserId_whenCollectionAccessed_shouldNotIssueStatementPerQuiz() {
+                // when
+                long statementsSmallPage = countStatementsForPage(5);
+                long statementsLargePage = countStatementsForPage(20);
+
+                // then
+                assertThat(statementsSmallPage).isEqualTo(statementsLargePage);
+        }
+
+        @Test
+        public void testFindByUserQuizId_whenCollectionAccessed_shouldFetchQuizInSingleStatement() {
+                // given
+                statistics.clear();
+
+                // when
+                UserQuiz userQuiz = userQuizRepository.findById_UserIdAndId_QuizId(user.getId(), quizId)
+                                .orElseThrow();
+
+                // then
+                assertThat(userQuiz.getLangchainCollection()
+                                .getName()).startsWith("quiz_");
+                assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        }
+
+        private long countStatementsForPage(int pageSize) {
+                testEntityManager.clear();
+                statistics.clear();
+
+                Page<UserQuiz> page = userQuizRepository.findByUser_Id(user.getId(), PageRequest.of(0, pageSize));
+
+                assertThat(page.getContent()).hasSize(pageSize);
+                page.getContent()
+                                .forEach(userQuiz -> assertThat(userQuiz.getLangchainCollection()
+                                                .getName()).startsWith("quiz_"));
+
+                return statistics.getPrepareStatementCount();
+        }
+}
@@ -0,0 +1,120 @@
+package app.quizstream.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AttemptWriteBehindBufferTest {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private TransactionTemplate transactionTemplate;
+
+        @Mock
+        private LeaderboardService leaderboardService;
+
+        @Captor
+        private ArgumentCaptor<List<Object[]>> rowsCaptor;
+
+        private AttemptWriteBehindBuffer attemptWriteBehindBuffer;
+
+        private final UUID userId = UUID.randomUUID();
+
+        private final UUID quizId = UUID.randomUUID();
+
+        @BeforeEach
+        public void setUp() {
+                this.attemptWriteBehindBuffer = new AttemptWriteBehindBuffer(jdbcTemplate, transactionTemplate,
+                                leaderboardService, new SimpleMeterRegistry(), true, 1000);
+
+                lenient().doAnswer(invocation -> {
+                        invocation.<Consumer<TransactionStatus>>getArgument(0)
+                                        .accept(null);
+                        return null;
+                }).when(transactionTemplate)
+                                .executeWithoutResult(any());
+        }
+
+        @Test
+        public void testFlush_whenAttemptsAreBuffered_shouldWriteOneRowPerQuiz() {
+                // given
+                attemptWriteBehindBuffer.record(userId, quizId, 2);
+                attemptWriteBehindBuffer.record(userId, quizId, 1);
+
+                // when
+                attemptWriteBehindBuffer.flush();
+
+                // then
+                verify(jdbcTemplate).batchUpdate(eq(AttemptWriteBehindBuffer.FLUSH_SQL), rowsCaptor.capture());
+                assertThat(rowsCaptor.getValue()).singleElement()
+                                .isEqualTo(new Object[] { 2, 3, userId, quizId });
+                verify(leaderboardService).refreshUsers(Set.of(userId));
+                assertThat(attemptWriteBehindBuffer.pending(userId, quizId)
+                                .isEmpty()).isTrue();
+        }
+
+        @Test
+        public void testFlush_whenWriteFails_shouldKeepAttemptsForNextFlush() {
+                // given
+                attemptWriteBehindBuffer.record(userId, quizId, 2);
+                when(jdbcTemplate.batchUpdate(eq(AttemptWriteBehindBuffer.FLUSH_SQL), anyList()))
+                                .thenThrow(new QueryTimeoutException("timeout"))
+                                .thenReturn(new int[] { 1 });
+
+                // when
+                attemptWriteBehindBuffer.flush();
+                attemptWriteBehindBuffer.record(userId, quizId, 1);
+
+                // then
+                assertThat(attemptWriteBehindBuffer.pending(userId, quizId))
+                                .isEqualTo(new AttemptWriteBehindBuffer.Attempts(2, 3));
+                verify(leaderboardService, never()).refreshUsers(any());
+
+                attemptWriteBehindBuffer.flush();
+                verify(jdbcTemplate, times(2)).batchUpdate(eq(AttemptWriteBehindBuffer.FLUSH_SQL),
+                                rowsCaptor.capture());
+                assertThat(rowsCaptor.getValue()).singleElement()
+                                .isEqualTo(new Object[] { 2, 3, userId, quizId });
+        }
+
+        @Test
+        public void testRead_whenAttemptsArePending_shouldMergeThemIntoStoredCounts() {
+                // given
+                attemptWriteBehindBuffer.record(userId, quizId, 1);
+
+                // when
+                int numTries = attemptWriteBehindBuffer.read(() -> 4,
+                                stored -> stored + attemptWriteBehindBuffer.pending(userId, quizId)
+                                                .numTries());
+
+                // then
+                assertThat(numTries).isEqualTo(5);
+        }
+}
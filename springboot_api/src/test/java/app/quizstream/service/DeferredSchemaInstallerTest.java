@@ -0,0 +1,135 @@
+package app.quizstream.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DeferredSchemaInstallerTest {
+
+        private static final int EMBEDDING_DIMENSIONS = 1536;
+
+        @Mock
+        private DataSource dataSource;
+
+        @Mock
+        private Connection connection;
+
+        @Mock
+        private Statement statement;
+
+        private DeferredSchemaInstaller deferredSchemaInstaller;
+
+        private final List<DeferredSchemaInstaller.SchemaChange> schemaChanges = DeferredSchemaInstaller
+                        .schemaChanges(EMBEDDING_DIMENSIONS);
+
+        @BeforeEach
+        public void setUp() throws Exception {
+                this.deferredSchemaInstaller = new DeferredSchemaInstaller(dataSource, EMBEDDING_DIMENSIONS);
+                lenient().when(connection.createStatement()).thenReturn(statement);
+        }
+
+        @Test
+        public void testInstall_whenTablesDoNotExist_shouldRetryLater() throws Exception {
+                // given
+                givenLock(true);
+                for (DeferredSchemaInstaller.SchemaChange schemaChange : schemaChanges) {
+                        givenState(schemaChange, false, false);
+                }
+
+                // when
+                boolean installed = deferredSchemaInstaller.install(connection);
+
+                // then
+                assertThat(installed).isFalse();
+                verify(statement).execute(DeferredSchemaInstaller.UNLOCK_SQL);
+                verify(statement, never()).execute(schemaChanges.getFirst()
+                                .statements()
+                                .getFirst());
+        }
+
+        @Test
+        public void testInstall_whenChangesAreMissing_shouldApplyThem() throws Exception {
+                // given
+                givenLock(true);
+                for (DeferredSchemaInstaller.SchemaChange schemaChange : schemaChanges) {
+                        givenState(schemaChange, true, false);
+                }
+
+                // when
+                boolean installed = deferredSchemaInstaller.install(connection);
+
+                // then
+                assertThat(installed).isTrue();
+                for (DeferredSchemaInstaller.SchemaChange schemaChange : schemaChanges) {
+                        for (String sql : schemaChange.statements()) {
+                                verify(statement).execute(sql);
+                        }
+                }
+                verify(statement).execute(DeferredSchemaInstaller.UNLOCK_SQL);
+        }
+
+        @Test
+        public void testInstall_whenChangesAreApplied_shouldNotRunDdl() throws Exception {
+                // given
+                givenLock(true);
+                for (DeferredSchemaInstaller.SchemaChange schemaChange : schemaChanges) {
+                        givenState(schemaChange, true, true);
+                }
+
+                // when
+                boolean installed = deferredSchemaInstaller.install(connection);
+
+                // then
+                assertThat(installed).isTrue();
+                verify(statement).execute(DeferredSchemaInstaller.UNLOCK_SQL);
+                verify(statement, never()).execute(schemaChanges.getFirst()
+                                .statements()
+                                .getFirst());
+        }
+
+        @Test
+        public void testInstall_whenLockIsHeldByOtherInstance_shouldRetryLater() throws Exception {
+                // given
+                givenLock(false);
+
+                // when
+                boolean installed = deferredSchemaInstaller.install(connection);
+
+                // then
+                assertThat(installed).isFalse();
+                verify(statement, never()).execute(anyString());
+        }
+
+        private void givenLock(boolean acquired) throws Exception {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(statement.executeQuery(DeferredSchemaInstaller.LOCK_SQL)).thenReturn(resultSet);
+                when(resultSet.next()).thenReturn(true);
+                when(resultSet.getBoolean(1)).thenReturn(acquired);
+        }
+
+        private void givenState(DeferredSchemaInstaller.SchemaChange schemaChange, boolean tableExists,
+                        boolean applied) throws Exception {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(statement.executeQuery(schemaChange.stateSql())).thenReturn(resultSet);
+                when(resultSet.next()).thenReturn(true);
+                when(resultSet.getBoolean(1)).thenReturn(tableExists);
+                lenient().when(resultSet.getBoolean(2)).thenReturn(applied);
+        }
+}
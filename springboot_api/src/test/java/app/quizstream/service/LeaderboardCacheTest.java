@@ -0,0 +1,96 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaderboardCacheTest {
+
+        @Mock
+        private LeaderboardService leaderboardService;
+
+        private LeaderboardCache leaderboardCache;
+
+        private final Page<QuizLeaderboardEntry> page = new PageImpl<>(List.of());
+
+        @BeforeEach
+        public void setUp() {
+                this.leaderboardCache = new LeaderboardCache(leaderboardService, new SimpleMeterRegistry(), 500, 300,
+                                30, 0);
+        }
+
+        @Test
+        public void testInvalidate_whenPagesAreCached_shouldNotReloadThemEagerly() {
+                // given
+                when(leaderboardService.getLeaderboard(any(Pageable.class))).thenReturn(page);
+                for (int pageNumber = 0; pageNumber < 10; pageNumber++) {
+                        leaderboardCache.get(PageRequest.of(pageNumber, 10));
+                }
+
+                // when
+                leaderboardCache.invalidate();
+
+                // then
+                verify(leaderboardService, times(10)).getLeaderboard(any(Pageable.class));
+                verifyNoMoreInteractions(leaderboardService);
+        }
+
+        @Test
+        public void testGet_whenPageWasInvalidated_shouldServeItAndReloadInBackground() {
+                // given
+                Pageable pageable = PageRequest.of(0, 10);
+                Page<QuizLeaderboardEntry> reloaded = new PageImpl<>(List.of());
+                when(leaderboardService.getLeaderboard(pageable)).thenReturn(page, reloaded);
+                leaderboardCache.get(pageable);
+
+                // when
+                leaderboardCache.invalidate();
+                Page<QuizLeaderboardEntry> served = leaderboardCache.get(pageable);
+
+                // then
+                assertThat(served).isSameAs(page);
+                verify(leaderboardService, timeout(1000).times(2)).getLeaderboard(pageable);
+                await().atMost(1, TimeUnit.SECONDS)
+                                .untilAsserted(() -> assertThat(leaderboardCache.get(pageable)).isSameAs(reloaded));
+        }
+
+        @Test
+        public void testGet_whenInvalidatedRepeatedlyWithinMinReloadInterval_shouldNotReloadAgain() {
+                // given
+                LeaderboardCache coalescingCache = new LeaderboardCache(leaderboardService, new SimpleMeterRegistry(),
+                                500, 300, 30, 60_000);
+                Pageable pageable = PageRequest.of(0, 10);
+                when(leaderboardService.getLeaderboard(pageable)).thenReturn(page);
+                coalescingCache.get(pageable);
+
+                // when
+                for (int attempt = 0; attempt < 10; attempt++) {
+                        coalescingCache.invalidate();
+                        coalescingCache.get(pageable);
+                }
+
+                // then
+                verify(leaderboardService, times(1)).getLeaderboard(pageable);
+        }
+}
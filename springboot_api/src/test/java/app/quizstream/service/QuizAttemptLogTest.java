@@ -0,0 +1,76 @@
+package app.quizstream.service;
+
+import app.quizstream.entity.attempt.QuizAttemptRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class QuizAttemptLogTest {
+
+        private final UUID userId = UUID.randomUUID();
+
+        @Test
+        public void testRollUp_whenAttemptsShareBuckets_shouldSumThemPerUserAndBucket() {
+                // given
+                List<QuizAttemptLog.Attempt> attempts = List.of(
+                                attempt(LocalDateTime.of(2025, 3, 1, 9, 15), 3),
+                                attempt(LocalDateTime.of(2025, 3, 1, 9, 45), 4),
+                                attempt(LocalDateTime.of(2025, 3, 1, 10, 5), 5));
+
+                // when
+                List<Object[]> rollups = QuizAttemptLog.rollUp(attempts);
+
+                // then
+                assertThat(rollups).containsExactlyInAnyOrder(
+                                row(QuizAttemptRollup.Granularity.HOUR, LocalDateTime.of(2025, 3, 1, 9, 0), 2, 7),
+                                row(QuizAttemptRollup.Granularity.HOUR, LocalDateTime.of(2025, 3, 1, 10, 0), 1, 5),
+                                row(QuizAttemptRollup.Granularity.DAY, LocalDateTime.of(2025, 3, 1, 0, 0), 3, 12));
+        }
+
+        @Test
+        public void testWindowTotals_whenQuizIsAttemptedTwice_shouldCountItOncePerWindow() {
+                // given, a Sunday and the following Monday
+                UUID quizId = UUID.randomUUID();
+                List<QuizAttemptLog.Attempt> attempts = List.of(
+                                attempt(quizId, LocalDateTime.of(2025, 3, 2, 23, 30), 3),
+                                attempt(quizId, LocalDateTime.of(2025, 3, 3, 8, 0), 4),
+                                attempt(quizId, LocalDateTime.of(2025, 3, 3, 9, 0), 5));
+
+                // when
+                List<SqlParameterSource> windows = List.of(QuizAttemptLog.windowTotals(attempts));
+
+                // then
+                assertThat(windows).extracting(window -> window.getValue("window"),
+                                window -> window.getValue("windowStart"), window -> window.getValue("quizIds"),
+                                window -> window.getValue("numAttempts"), window -> window.getValue("numCorrect"))
+                                .containsExactlyInAnyOrder(
+                                                tuple("DAILY", LocalDateTime.of(2025, 3, 2, 0, 0),
+                                                                quizId.toString(), 1L, 3L),
+                                                tuple("WEEKLY", LocalDateTime.of(2025, 2, 24, 0, 0),
+                                                                quizId.toString(), 1L, 3L),
+                                                tuple("DAILY", LocalDateTime.of(2025, 3, 3, 0, 0),
+                                                                quizId.toString(), 2L, 9L),
+                                                tuple("WEEKLY", LocalDateTime.of(2025, 3, 3, 0, 0),
+                                                                quizId.toString(), 2L, 9L));
+        }
+
+        private QuizAttemptLog.Attempt attempt(LocalDateTime attemptedAt, int numCorrect) {
+                return attempt(UUID.randomUUID(), attemptedAt, numCorrect);
+        }
+
+        private QuizAttemptLog.Attempt attempt(UUID quizId, LocalDateTime attemptedAt, int numCorrect) {
+                return new QuizAttemptLog.Attempt(userId, quizId, attemptedAt, numCorrect, 5);
+        }
+
+        private Object[] row(QuizAttemptRollup.Granularity granularity, LocalDateTime bucketStart, long numAttempts,
+                        long numCorrect) {
+                return new Object[] { userId, granularity.name(), bucketStart, numAttempts,
+                                numCorrect, numAttempts * 5 };
+        }
+}
@@ -0,0 +1,124 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.security.config.EnvConfigs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QuizCreationSQSAsyncTest {
+
+        @Mock
+        private EnvConfigs envConfigs;
+
+        @Mock
+        private SqsAsyncClient sqsAsyncClient;
+
+        @Mock
+        private QuizRequestRepository quizRequestRepository;
+
+        private QuizCreationSQSAsync quizCreationSQSAsync;
+
+        private User user;
+
+        @BeforeEach
+        public void setUp() {
+                this.quizCreationSQSAsync = new QuizCreationSQSAsync(envConfigs, new ObjectMapper(), sqsAsyncClient,
+                                quizRequestRepository, 1);
+                ReflectionTestUtils.setField(quizCreationSQSAsync, "acquireTimeoutMs", 10L);
+
+                this.user = new User();
+                user.setId(UUID.randomUUID());
+        }
+
+        @Test
+        public void testInitiate_whenSendSucceeds_shouldQueueRequestWithoutWaiting() {
+                // given
+                CompletableFuture<SendMessageResponse> pending = new CompletableFuture<>();
+                when(sqsAsyncClient.sendMessage(any(SendMessageRequest.class))).thenReturn(pending);
+                QuizRequest quizJob = quizJob("quiz");
+
+                // when
+                CompletableFuture<Void> sent = quizCreationSQSAsync.initiate(quizCreateDto("quiz"), quizJob);
+
+                // then
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.QUEUED);
+                assertThat(sent).isNotDone();
+                pending.complete(SendMessageResponse.builder()
+                                .messageId("id")
+                                .build());
+                assertThat(sent).isCompleted();
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.QUEUED);
+        }
+
+        @Test
+        public void testInitiate_whenSendFails_shouldFailFutureAndReleasePermit() {
+                // given
+                when(sqsAsyncClient.sendMessage(any(SendMessageRequest.class)))
+                                .thenReturn(CompletableFuture.failedFuture(SqsException.builder()
+                                                .message("unavailable")
+                                                .build()));
+                QuizRequest quizJob = quizJob("quiz");
+
+                // when
+                CompletableFuture<Void> sent = quizCreationSQSAsync.initiate(quizCreateDto("quiz"), quizJob);
+
+                // then, the outbox retries the request
+                assertThat(sent).isCompletedExceptionally();
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.QUEUED);
+                assertThat(quizCreationSQSAsync.isSaturated()).isFalse();
+        }
+
+        @Test
+        public void testInitiate_whenNoPermitAvailable_shouldRejectRequest() {
+                // given
+                when(sqsAsyncClient.sendMessage(any(SendMessageRequest.class))).thenReturn(new CompletableFuture<>());
+                quizCreationSQSAsync.initiate(quizCreateDto("first"), quizJob("first"));
+                QuizRequest rejected = quizJob("second");
+
+                // when, then
+                assertThatThrownBy(() -> quizCreationSQSAsync.initiate(quizCreateDto("second"), rejected))
+                                .isInstanceOf(RejectedExecutionException.class);
+                assertThat(rejected.getStatus()).isEqualTo(QuizRequest.Status.CREATING);
+                verify(sqsAsyncClient, times(1)).sendMessage(any(SendMessageRequest.class));
+        }
+
+        private QuizRequest quizJob(String quizName) {
+                return QuizRequest.builder()
+                                .id(new QuizRequestId(user.getId(), quizName))
+                                .user(user)
+                                .build();
+        }
+
+        private QuizCreateRequestDto quizCreateDto(String quizName) {
+                return new QuizCreateRequestDto(user.getId(), "testUser", quizName, "https://youtu.be/IFx8eABfivg",
+                                Map.of("OPENAI_API_KEY", "key"), UserQuiz.Language.EN, UserQuiz.Type.MULTIPLE_CHOICE,
+                                UserQuiz.Difficulty.HARD);
+        }
+}
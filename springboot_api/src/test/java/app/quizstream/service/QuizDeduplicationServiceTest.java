@@ -0,0 +1,157 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.LangchainPGEmbeddingRepository;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.repository.UserQuizRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QuizDeduplicationServiceTest {
+
+        @Mock
+        private QuizRequestRepository quizRequestRepository;
+
+        @Mock
+        private LangchainPGCollectionRepository langchainPGCollectionRepository;
+
+        @Mock
+        private UserQuizRepository userQuizRepository;
+
+        @Mock
+        private LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+
+        private SimpleMeterRegistry meterRegistry;
+
+        private QuizDeduplicationService quizDeduplicationService;
+
+        private QuizCreateRequestDto quizCreateDto;
+
+        @BeforeEach
+        public void setUp() {
+                this.meterRegistry = new SimpleMeterRegistry();
+                this.quizDeduplicationService = new QuizDeduplicationService(quizRequestRepository,
+                                langchainPGCollectionRepository, userQuizRepository, langchainPGEmbeddingRepository, meterRegistry);
+                ReflectionTestUtils.setField(quizDeduplicationService, "enabled", true);
+
+                this.quizCreateDto = new QuizCreateRequestDto(UUID.randomUUID(), "testUser", "my quiz",
+                                "https://youtu.be/IFx8eABfivg?t=10", Map.of("OPENAI_API_KEY", "key"),
+                                UserQuiz.Language.EN, UserQuiz.Type.MULTIPLE_CHOICE, UserQuiz.Difficulty.HARD);
+        }
+
+        @Test
+        public void testReuseExistingQuiz_whenFinishedQuizWithSameSettingsExists_shouldShareQuiz() {
+
+                UUID sourceQuizId = UUID.randomUUID();
+                when(quizRequestRepository.findFinishedQuizIdByRequestMetadata(
+                                "https://www.youtube.com/watch?v=IFx8eABfivg", "EN", "HARD", "MULTIPLE_CHOICE"))
+                                .thenReturn(Optional.of(sourceQuizId));
+                when(langchainPGCollectionRepository.lockForUpdate(sourceQuizId)).thenReturn(Optional.of(sourceQuizId));
+                when(langchainPGEmbeddingRepository.countByCollectionId(sourceQuizId)).thenReturn(10L);
+
+                Optional<UUID> quizId = quizDeduplicationService.reuseExistingQuiz(quizCreateDto);
+
+                assertThat(quizId).contains(sourceQuizId);
+                verify(userQuizRepository).pinQuizNames(sourceQuizId);
+                verify(langchainPGCollectionRepository).rename(sourceQuizId, "shared:" + sourceQuizId);
+                verify(userQuizRepository).insertUserQuiz(eq(quizCreateDto.userId()), eq(sourceQuizId),
+                                eq(quizCreateDto.quizName()), eq(10), eq("EN"), eq("MULTIPLE_CHOICE"), eq("HARD"),
+                                any());
+                verify(langchainPGCollectionRepository, never()).copyEmbeddings(any(), any());
+                assertThat(meterRegistry.get("quizstream.quiz.dedupe")
+                                .tag("result", "hit")
+                                .counter()
+                                .count()).isEqualTo(1);
+        }
+
+        @Test
+        public void testReuseExistingQuiz_whenUserAlreadyHasSameQuiz_shouldCopyQuiz() {
+
+                UUID sourceQuizId = UUID.randomUUID();
+                when(quizRequestRepository.findFinishedQuizIdByRequestMetadata(anyString(), anyString(), anyString(),
+                                anyString())).thenReturn(Optional.of(sourceQuizId));
+                when(langchainPGCollectionRepository.lockForUpdate(sourceQuizId)).thenReturn(Optional.of(sourceQuizId));
+                when(userQuizRepository.existsById_UserIdAndId_QuizId(quizCreateDto.userId(), sourceQuizId))
+                                .thenReturn(true);
+                when(langchainPGCollectionRepository.copyEmbeddings(eq(sourceQuizId), any())).thenReturn(10);
+
+                Optional<UUID> quizId = quizDeduplicationService.reuseExistingQuiz(quizCreateDto);
+
+                assertThat(quizId).isPresent();
+                assertThat(quizId.get()).isNotEqualTo(sourceQuizId);
+                verify(langchainPGCollectionRepository).copyCollection(sourceQuizId, quizId.get(),
+                                quizCreateDto.quizName());
+                verify(userQuizRepository).insertUserQuiz(eq(quizCreateDto.userId()), eq(quizId.get()), eq(null),
+                                eq(10), eq("EN"), eq("MULTIPLE_CHOICE"), eq("HARD"), any());
+        }
+
+        @Test
+        public void testReuseExistingQuiz_whenSameQuizIsCreatedConcurrently_shouldThrowConflict() {
+
+                UUID sourceQuizId = UUID.randomUUID();
+                when(quizRequestRepository.findFinishedQuizIdByRequestMetadata(anyString(), anyString(), anyString(),
+                                anyString())).thenReturn(Optional.of(sourceQuizId));
+                when(langchainPGCollectionRepository.lockForUpdate(sourceQuizId)).thenReturn(Optional.of(sourceQuizId));
+                when(userQuizRepository.existsById_UserIdAndId_QuizId(quizCreateDto.userId(), sourceQuizId))
+                                .thenReturn(true);
+                when(langchainPGCollectionRepository.copyCollection(eq(sourceQuizId), any(),
+                                eq(quizCreateDto.quizName())))
+                                .thenThrow(new DataIntegrityViolationException("langchain_pg_collection_name_key"));
+
+                assertThatThrownBy(() -> quizDeduplicationService.reuseExistingQuiz(quizCreateDto))
+                                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                                                .isEqualTo(HttpStatus.CONFLICT));
+                verify(userQuizRepository, never()).insertUserQuiz(any(), any(), any(), anyInt(), any(), any(),
+                                any(), any());
+        }
+
+        @Test
+        public void testCopyExistingQuiz_whenNoFinishedQuizExists_shouldReturnEmpty() {
+
+                when(quizRequestRepository.findFinishedQuizIdByRequestMetadata(anyString(), anyString(), anyString(),
+                                anyString())).thenReturn(Optional.empty());
+
+                assertThat(quizDeduplicationService.reuseExistingQuiz(quizCreateDto)).isEmpty();
+                verify(userQuizRepository, never()).insertUserQuiz(any(), any(), any(), anyInt(), any(), any(),
+                                any(), any());
+                assertThat(meterRegistry.get("quizstream.quiz.dedupe")
+                                .tag("result", "miss")
+                                .counter()
+                                .count()).isEqualTo(1);
+        }
+
+        @Test
+        public void testCopyExistingQuiz_whenQuizNameAlreadyExists_shouldReturnEmpty() {
+
+                when(langchainPGCollectionRepository.existsByName(quizCreateDto.quizName())).thenReturn(true);
+
+                assertThat(quizDeduplicationService.reuseExistingQuiz(quizCreateDto)).isEmpty();
+                verify(quizRequestRepository, never()).findFinishedQuizIdByRequestMetadata(any(), any(), any(),
+                                any());
+        }
+}
@@ -0,0 +1,83 @@
+package app.quizstream.service;
+
+import app.quizstream.util.mapper.QuizRequestMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QuizRequestEventServiceTest {
+
+        private QuizRequestEventService quizRequestEventService;
+
+        @BeforeEach
+        public void setUp() {
+                this.quizRequestEventService = new QuizRequestEventService(new QuizRequestMapper(),
+                                new SimpleMeterRegistry());
+        }
+
+        @AfterEach
+        public void tearDown() {
+                quizRequestEventService.close();
+        }
+
+        @Test
+        public void testSendInOrder_whenEarlierSendIsSlow_shouldKeepOrderOfUser() throws Exception {
+                // given
+                UUID userId = UUID.randomUUID();
+                List<Integer> sent = new CopyOnWriteArrayList<>();
+                CountDownLatch done = new CountDownLatch(3);
+
+                // when
+                quizRequestEventService.sendInOrder(userId, () -> {
+                        sleep(100);
+                        sent.add(1);
+                        done.countDown();
+                });
+                quizRequestEventService.sendInOrder(userId, () -> {
+                        sent.add(2);
+                        done.countDown();
+                });
+                quizRequestEventService.sendInOrder(userId, () -> {
+                        sent.add(3);
+                        done.countDown();
+                });
+
+                // then
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(sent).containsExactly(1, 2, 3);
+        }
+
+        @Test
+        public void testSendInOrder_whenEarlierSendFailed_shouldStillSendNextEvent() throws Exception {
+                // given
+                UUID userId = UUID.randomUUID();
+                CountDownLatch done = new CountDownLatch(1);
+
+                // when
+                quizRequestEventService.sendInOrder(userId, () -> {
+                        throw new IllegalStateException("emitter failed");
+                });
+                quizRequestEventService.sendInOrder(userId, done::countDown);
+
+                // then
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        private static void sleep(long millis) {
+                try {
+                        Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                        Thread.currentThread()
+                                        .interrupt();
+                }
+        }
+}
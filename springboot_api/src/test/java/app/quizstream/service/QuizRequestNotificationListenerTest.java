@@ -0,0 +1,170 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizRequestDto;
+import app.quizstream.entity.User;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.entity.request.RequestMetadata;
+import app.quizstream.repository.QuizRequestRepository;
+import app.quizstream.util.mapper.QuizRequestMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QuizRequestNotificationListenerTest {
+
+        @Mock
+        private DataSource dataSource;
+
+        @Mock
+        private QuizRequestRepository quizRequestRepository;
+
+        @Spy
+        private QuizRequestMapper quizRequestMapper;
+
+        @Mock
+        private QuizRequestEventService quizRequestEventService;
+
+        @Mock
+        private Statement statement;
+
+        @Mock
+        private ResultSet resultSet;
+
+        private QuizRequestNotificationListener quizRequestNotificationListener;
+
+        private QuizRequest quizRequest;
+
+        @BeforeEach
+        public void setUp() {
+                this.quizRequestNotificationListener = new QuizRequestNotificationListener(dataSource,
+                                quizRequestRepository, quizRequestMapper, quizRequestEventService,
+                                new ObjectMapper());
+
+                User user = new User();
+                user.setId(UUID.randomUUID());
+                this.quizRequest = QuizRequest.builder()
+                                .id(new QuizRequestId(user.getId(), "my quiz"))
+                                .user(user)
+                                .requestMetadata(new RequestMetadata("https://www.youtube.com/watch?v=IFx8eABfivg",
+                                                UserQuiz.Language.EN, UserQuiz.Difficulty.HARD,
+                                                UserQuiz.Type.MULTIPLE_CHOICE))
+                                .build();
+        }
+
+        @Test
+        public void testHandle_whenNotifiedOfRequest_shouldPublishItsCurrentState() {
+                // given
+                quizRequest.updateRequestState(QuizRequest.Status.PROCESSING, null, null, null);
+                when(quizRequestRepository.findById(quizRequest.getId())).thenReturn(Optional.of(quizRequest));
+                ArgumentCaptor<QuizRequestDto> captor = ArgumentCaptor.forClass(QuizRequestDto.class);
+
+                // when
+                quizRequestNotificationListener.handle("{\"user_id\": \"" + quizRequest.getId()
+                                .getUserId() + "\", \"quiz_name\": \"my quiz\"}");
+
+                // then
+                verify(quizRequestEventService).publish(captor.capture());
+                assertThat(captor.getValue()
+                                .status()).isEqualTo(QuizRequest.Status.PROCESSING);
+        }
+
+        @Test
+        public void testHandle_whenPayloadIsMalformed_shouldIgnoreIt() {
+                // when
+                quizRequestNotificationListener.handle("not json");
+
+                // then
+                verify(quizRequestRepository, never()).findById(any());
+                verify(quizRequestEventService, never()).publish(any());
+        }
+
+        @Test
+        public void testInstallTrigger_whenTableDoesNotExist_shouldRetryLater() throws Exception {
+                // given
+                givenTriggerState(false, false, false);
+
+                // when
+                boolean installed = quizRequestNotificationListener.installTrigger(statement);
+
+                // then
+                assertThat(installed).isFalse();
+                verify(statement, never()).execute(anyString());
+        }
+
+        @Test
+        public void testInstallTrigger_whenTriggerIsMissing_shouldCreateFunctionAndTriggerUnderLock() throws Exception {
+                // given
+                givenTriggerState(true, false, false);
+
+                // when
+                boolean installed = quizRequestNotificationListener.installTrigger(statement);
+
+                // then
+                assertThat(installed).isTrue();
+                InOrder order = inOrder(statement);
+                order.verify(statement).execute(QuizRequestNotificationListener.LOCK_SQL);
+                order.verify(statement).execute(QuizRequestNotificationListener.CREATE_FUNCTION_SQL);
+                order.verify(statement).execute(QuizRequestNotificationListener.CREATE_TRIGGER_SQL);
+                order.verify(statement).execute(QuizRequestNotificationListener.UNLOCK_SQL);
+        }
+
+        @Test
+        public void testInstallTrigger_whenFunctionIsOutdated_shouldOnlyReplaceFunction() throws Exception {
+                // given
+                givenTriggerState(true, false, true);
+
+                // when
+                boolean installed = quizRequestNotificationListener.installTrigger(statement);
+
+                // then
+                assertThat(installed).isTrue();
+                verify(statement).execute(QuizRequestNotificationListener.CREATE_FUNCTION_SQL);
+                verify(statement, never()).execute(QuizRequestNotificationListener.CREATE_TRIGGER_SQL);
+        }
+
+        @Test
+        public void testInstallTrigger_whenFunctionAndTriggerAreInstalled_shouldNotRunDdl() throws Exception {
+                // given
+                givenTriggerState(true, true, true);
+
+                // when
+                boolean installed = quizRequestNotificationListener.installTrigger(statement);
+
+                // then
+                assertThat(installed).isTrue();
+                verify(statement, never()).execute(anyString());
+        }
+
+        private void givenTriggerState(boolean tableExists, boolean functionCurrent, boolean triggerExists)
+                        throws Exception {
+                when(statement.executeQuery(QuizRequestNotificationListener.TRIGGER_STATE_SQL)).thenReturn(resultSet);
+                when(resultSet.next()).thenReturn(true);
+                when(resultSet.getBoolean(1)).thenReturn(tableExists);
+                lenient().when(resultSet.getBoolean(2)).thenReturn(functionCurrent);
+                lenient().when(resultSet.getBoolean(3)).thenReturn(triggerExists);
+        }
+}
@@ -0,0 +1,249 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizCreateRequestDto;
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.outbox.QuizRequestOutbox;
+import app.quizstream.entity.request.QuizRequest;
+import app.quizstream.entity.request.QuizRequestId;
+import app.quizstream.repository.QuizRequestOutboxRepository;
+import app.quizstream.repository.QuizRequestRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QuizRequestOutboxRelayTest {
+
+        @Mock
+        private QuizRequestOutboxRepository quizRequestOutboxRepository;
+
+        @Mock
+        private QuizRequestRepository quizRequestRepository;
+
+        @Mock
+        private IQuizCreationInitiator quizCreationInitiator;
+
+        @Mock
+        private TransactionTemplate transactionTemplate;
+
+        private static final String ENCRYPTION_KEY = Base64.getEncoder()
+                        .encodeToString(new byte[32]);
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        private QuizRequestOutboxRelay quizRequestOutboxRelay;
+
+        private QuizCreateRequestDto quizCreateDto;
+
+        private QuizRequest quizJob;
+
+        private QuizRequestOutbox entry;
+
+        @BeforeEach
+        public void setUp() throws Exception {
+                this.quizRequestOutboxRelay = new QuizRequestOutboxRelay(quizRequestOutboxRepository,
+                                quizRequestRepository, quizCreationInitiator, objectMapper, transactionTemplate,
+                                new MockEnvironment(), ENCRYPTION_KEY);
+                ReflectionTestUtils.setField(quizRequestOutboxRelay, "batchSize", 20);
+                ReflectionTestUtils.setField(quizRequestOutboxRelay, "maxAttempts", 3);
+                ReflectionTestUtils.setField(quizRequestOutboxRelay, "leaseSeconds", 60L);
+
+                this.quizCreateDto = new QuizCreateRequestDto(UUID.randomUUID(), "testUser", "my quiz",
+                                "https://youtu.be/IFx8eABfivg", Map.of("OPENAI_API_KEY", "sk-secret"),
+                                UserQuiz.Language.EN, UserQuiz.Type.MULTIPLE_CHOICE, UserQuiz.Difficulty.HARD);
+                this.quizJob = QuizRequest.builder()
+                                .id(new QuizRequestId(quizCreateDto.userId(), "my quiz"))
+                                .build();
+                this.entry = enqueuedEntry(quizRequestOutboxRelay);
+                entry.setId(1L);
+
+                lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                                invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+                lenient().when(quizRequestOutboxRepository.lockDueEntries(any(LocalDateTime.class), anyInt()))
+                                .thenReturn(List.of(entry));
+                lenient().when(quizRequestOutboxRepository.saveAll(any()))
+                                .thenAnswer(invocation -> invocation.getArgument(0));
+        }
+
+        @Test
+        public void testRelay_whenSendIsAcknowledged_shouldDeleteEntry() {
+                // given
+                CompletableFuture<Void> sent = new CompletableFuture<>();
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+                when(quizCreationInitiator.initiate(any(), any())).thenReturn(sent);
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                verify(quizCreationInitiator).initiate(eq(quizCreateDto), eq(quizJob));
+                verify(quizRequestOutboxRepository, never()).deleteById(1L);
+
+                sent.complete(null);
+                verify(quizRequestOutboxRepository).deleteById(1L);
+        }
+
+        @Test
+        public void testRelay_whenSendFailsAfterQueueing_shouldKeepEntryAndSendAgain() {
+                // given
+                quizJob.updateRequestState(QuizRequest.Status.QUEUED, null, null, null);
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+                when(quizCreationInitiator.initiate(any(), any()))
+                                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unavailable")));
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                verify(quizCreationInitiator).initiate(eq(quizCreateDto), eq(quizJob));
+                assertThat(entry.getAttempts()).isEqualTo(1);
+                assertThat(entry.getLastError()).isEqualTo("unavailable");
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.QUEUED);
+                verify(quizRequestOutboxRepository).save(entry);
+                verify(quizRequestOutboxRepository, never()).deleteById(1L);
+        }
+
+        @Test
+        public void testEnqueue_whenRequestHasApiKeys_shouldOnlyStoreThemEncrypted() {
+                // then
+                assertThat(entry.getPayload()).doesNotContain("sk-secret");
+                assertThat(entry.getApiKeys()).isNotNull()
+                                .doesNotContain("sk-secret");
+        }
+
+        @Test
+        public void testRelay_whenApiKeysWereEncryptedWithOtherKey_shouldFailRequestAndDeleteEntry() {
+                // given
+                QuizRequestOutbox foreign = enqueuedEntry(new QuizRequestOutboxRelay(quizRequestOutboxRepository,
+                                quizRequestRepository, quizCreationInitiator, objectMapper, transactionTemplate,
+                                new MockEnvironment(), ""));
+                foreign.setId(2L);
+                when(quizRequestOutboxRepository.lockDueEntries(any(LocalDateTime.class), anyInt()))
+                                .thenReturn(List.of(foreign));
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                verify(quizCreationInitiator, never()).initiate(any(), any());
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.FAILED);
+                verify(quizRequestOutboxRepository).deleteById(2L);
+        }
+
+        @Test
+        public void testRelay_whenRequestWasProcessed_shouldDeleteEntryWithoutInitiating() {
+                // given
+                quizJob.updateRequestState(QuizRequest.Status.PROCESSING, null, null, null);
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                verify(quizCreationInitiator, never()).initiate(any(), any());
+                verify(quizRequestOutboxRepository).deleteById(1L);
+        }
+
+        @Test
+        public void testRelay_whenInitiatorFails_shouldRetryWithBackoff() {
+                // given
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+                when(quizCreationInitiator.initiate(any(), any()))
+                                .thenThrow(new IllegalStateException("unavailable"));
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                assertThat(entry.getAttempts()).isEqualTo(1);
+                assertThat(entry.getLastError()).isEqualTo("unavailable");
+                assertThat(entry.getNextAttemptAt()).isAfter(LocalDateTime.now());
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.CREATING);
+                verify(quizRequestOutboxRepository).save(entry);
+                verify(quizRequestOutboxRepository, never()).deleteById(1L);
+        }
+
+        @Test
+        public void testRelay_whenInitiatorIsAtCapacity_shouldRetryWithoutCountingAttempt() {
+                // given
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+                when(quizCreationInitiator.initiate(any(), any()))
+                                .thenThrow(new RejectedExecutionException("queue full"));
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                assertThat(entry.getAttempts()).isZero();
+                assertThat(entry.getNextAttemptAt()).isBefore(LocalDateTime.now()
+                                .plusSeconds(300));
+                verify(quizRequestOutboxRepository).save(entry);
+                verify(quizRequestOutboxRepository, never()).deleteById(1L);
+        }
+
+        @Test
+        public void testRelay_whenMaxAttemptsReached_shouldFailRequest() {
+                // given
+                entry.setAttempts(2);
+                when(quizRequestRepository.findById(quizJob.getId())).thenReturn(Optional.of(quizJob));
+                when(quizCreationInitiator.initiate(any(), any()))
+                                .thenThrow(new IllegalStateException("unavailable"));
+
+                // when
+                quizRequestOutboxRelay.relay();
+
+                // then
+                assertThat(quizJob.getStatus()).isEqualTo(QuizRequest.Status.FAILED);
+                verify(quizRequestRepository).save(quizJob);
+                verify(quizRequestOutboxRepository).deleteById(1L);
+        }
+
+        @Test
+        public void testConstructor_whenEncryptionKeyIsMissingInProduction_shouldFailStartup() {
+                // given
+                MockEnvironment environment = new MockEnvironment();
+                environment.setActiveProfiles("prod");
+
+                // then
+                assertThatThrownBy(() -> new QuizRequestOutboxRelay(quizRequestOutboxRepository,
+                                quizRequestRepository, quizCreationInitiator, objectMapper, transactionTemplate,
+                                environment, "")).isInstanceOf(IllegalStateException.class);
+        }
+
+        private QuizRequestOutbox enqueuedEntry(QuizRequestOutboxRelay relay) {
+                relay.enqueue(quizCreateDto, quizJob);
+                ArgumentCaptor<QuizRequestOutbox> captor = ArgumentCaptor.forClass(QuizRequestOutbox.class);
+                verify(quizRequestOutboxRepository).save(captor.capture());
+                clearInvocations(quizRequestOutboxRepository);
+                return captor.getValue();
+        }
+}
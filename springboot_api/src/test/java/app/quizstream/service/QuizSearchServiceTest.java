@@ -0,0 +1,115 @@
+package app.quizstream.service;
+
+import app.quizstream.dto.quiz.QuizSearchRequestDto;
+import app.quizstream.exception.EntityNotFoundException;
+import app.quizstream.repository.LangchainPGEmbeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QuizSearchServiceTest {
+
+        private static final int EMBEDDING_DIMENSIONS = 4;
+
+        @Mock
+        private LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+
+        @InjectMocks
+        private QuizSearchService quizSearchService;
+
+        private final UUID userId = UUID.randomUUID();
+
+        @BeforeEach
+        public void setUp() {
+                ReflectionTestUtils.setField(quizSearchService, "embeddingDimensions", EMBEDDING_DIMENSIONS);
+        }
+
+        @Test
+        public void testSearchQuestions_whenVectorAndQuestionIdAreMissing_shouldReturnBadRequest() {
+                // given
+                QuizSearchRequestDto searchDto = new QuizSearchRequestDto(null, null, null);
+
+                // when, then
+                assertBadRequest(searchDto, "Exactly one of queryVector and questionId");
+        }
+
+        @Test
+        public void testSearchQuestions_whenVectorAndQuestionIdAreBothGiven_shouldReturnBadRequest() {
+                // given
+                QuizSearchRequestDto searchDto = new QuizSearchRequestDto(new float[EMBEDDING_DIMENSIONS],
+                                "question", null);
+
+                // when, then
+                assertBadRequest(searchDto, "Exactly one of queryVector and questionId");
+                verify(langchainPGEmbeddingRepository, never()).findQuestionVector(any(), anyString());
+        }
+
+        @Test
+        public void testSearchQuestions_whenVectorHasWrongDimension_shouldReturnBadRequest() {
+                // given
+                QuizSearchRequestDto searchDto = new QuizSearchRequestDto(new float[EMBEDDING_DIMENSIONS + 1], null,
+                                null);
+
+                // when, then
+                assertBadRequest(searchDto, EMBEDDING_DIMENSIONS + " dimensions");
+        }
+
+        @Test
+        public void testSearchQuestions_whenQuestionBelongsToOtherUser_shouldThrowEntityNotFoundException() {
+                // given, the vector is only found among the questions of the user
+                when(langchainPGEmbeddingRepository.findQuestionVector(userId, "other users question"))
+                                .thenReturn(Optional.empty());
+                QuizSearchRequestDto searchDto = new QuizSearchRequestDto(null, "other users question", null);
+
+                // when, then
+                assertThatThrownBy(() -> quizSearchService.searchQuestions(userId, searchDto))
+                                .isInstanceOf(EntityNotFoundException.class);
+                verify(langchainPGEmbeddingRepository, never()).findNearestQuestions(any(), any(), any(), anyInt());
+        }
+
+        @Test
+        public void testSearchQuestions_whenQuestionIdIsGiven_shouldSearchWithItsVectorAndExcludeIt() {
+                // given
+                float[] vector = new float[EMBEDDING_DIMENSIONS];
+                when(langchainPGEmbeddingRepository.findQuestionVector(userId, "question")).thenReturn(
+                                Optional.of(vector));
+                when(langchainPGEmbeddingRepository.findNearestQuestions(userId, vector, "question", 10))
+                                .thenReturn(List.of());
+
+                // when
+                var results = quizSearchService.searchQuestions(userId, new QuizSearchRequestDto(null, "question",
+                                null));
+
+                // then
+                assertThat(results).isEmpty();
+        }
+
+        private void assertBadRequest(QuizSearchRequestDto searchDto, String message) {
+                assertThatThrownBy(() -> quizSearchService.searchQuestions(userId, searchDto))
+                                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                                        assertThat(e.getReason()).contains(message);
+                                });
+                verify(langchainPGEmbeddingRepository, never()).findNearestQuestions(any(), any(), any(), anyInt());
+        }
+}
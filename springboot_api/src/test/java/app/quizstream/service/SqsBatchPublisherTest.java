@@ -0,0 +1,168 @@
+package app.quizstream.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SqsBatchPublisherTest {
+
+        private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/000000000000/quiz.fifo";
+
+        @Mock
+        private SqsClient sqsClient;
+
+        private SqsBatchPublisher sqsBatchPublisher;
+
+        @AfterEach
+        public void tearDown() {
+                if (sqsBatchPublisher != null) {
+                        sqsBatchPublisher.close();
+                }
+        }
+
+        @Test
+        public void testPublish_whenBatchIsFull_shouldSendSingleBatchInOrder() throws Exception {
+                // given
+                sqsBatchPublisher = new SqsBatchPublisher(sqsClient, QUEUE_URL, 10, Duration.ofMinutes(1));
+                when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                                .thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+
+                // when
+                List<CompletableFuture<String>> results = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                        results.add(sqsBatchPublisher.publish("message-" + i, "user", "request-" + i));
+                }
+
+                // then
+                CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                                .get(5, TimeUnit.SECONDS);
+
+                ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+                verify(sqsClient, times(1)).sendMessageBatch(captor.capture());
+                assertThat(captor.getValue()
+                                .queueUrl()).isEqualTo(QUEUE_URL);
+                assertThat(captor.getValue()
+                                .entries()).extracting(SendMessageBatchRequestEntry::messageBody)
+                                .containsExactly("message-0", "message-1", "message-2", "message-3", "message-4",
+                                                "message-5", "message-6", "message-7", "message-8", "message-9");
+                assertThat(results.get(3)
+                                .get()).isEqualTo("id-3");
+        }
+
+        @Test
+        public void testPublish_whenBatchIsNotFull_shouldSendAfterMaxDelay() throws Exception {
+                // given
+                sqsBatchPublisher = new SqsBatchPublisher(sqsClient, QUEUE_URL, 10, Duration.ofMillis(20));
+                when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                                .thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+
+                // when
+                CompletableFuture<String> first = sqsBatchPublisher.publish("message-0", "user", "request-0");
+                CompletableFuture<String> second = sqsBatchPublisher.publish("message-1", "user", "request-1");
+
+                // then
+                assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("id-0");
+                assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("id-1");
+                verify(sqsClient, timeout(1000).times(1)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        }
+
+        @Test
+        public void testPublish_whenEntryFails_shouldFailOnlyThatMessage() throws Exception {
+                // given
+                sqsBatchPublisher = new SqsBatchPublisher(sqsClient, QUEUE_URL, 2, Duration.ofMinutes(1));
+                when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                                .thenReturn(SendMessageBatchResponse.builder()
+                                                .successful(SendMessageBatchResultEntry.builder()
+                                                                .id("0")
+                                                                .messageId("id-0")
+                                                                .build())
+                                                .failed(BatchResultErrorEntry.builder()
+                                                                .id("1")
+                                                                .code("InvalidParameterValue")
+                                                                .message("invalid")
+                                                                .senderFault(true)
+                                                                .build())
+                                                .build());
+
+                // when
+                CompletableFuture<String> first = sqsBatchPublisher.publish("message-0", "user", "request-0");
+                CompletableFuture<String> second = sqsBatchPublisher.publish("message-1", "user", "request-1");
+
+                // then
+                assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("id-0");
+                assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                                .hasCauseInstanceOf(SqsBatchPublisher.BatchEntryFailedException.class);
+        }
+
+        @Test
+        public void testPublish_whenBatchCallFails_shouldFailAllMessages() {
+                // given
+                sqsBatchPublisher = new SqsBatchPublisher(sqsClient, QUEUE_URL, 2, Duration.ofMinutes(1));
+                when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                                .thenThrow(SqsException.builder()
+                                                .message("unavailable")
+                                                .build());
+
+                // when
+                CompletableFuture<String> first = sqsBatchPublisher.publish("message-0", "user", "request-0");
+                CompletableFuture<String> second = sqsBatchPublisher.publish("message-1", "user", "request-1");
+
+                // then
+                assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(SqsException.class);
+                assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(SqsException.class);
+        }
+
+        @Test
+        public void testClose_whenMessagesArePending_shouldSendThem() throws Exception {
+                // given
+                sqsBatchPublisher = new SqsBatchPublisher(sqsClient, QUEUE_URL, 10, Duration.ofMinutes(1));
+                when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                                .thenAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+                CompletableFuture<String> pending = sqsBatchPublisher.publish("message-0", "user", "request-0");
+
+                // when
+                sqsBatchPublisher.close();
+
+                // then
+                assertThat(pending.get(5, TimeUnit.SECONDS)).isEqualTo("id-0");
+                assertThat(sqsBatchPublisher.publish("message-1", "user", "request-1")).isCompletedExceptionally();
+        }
+
+        private static SendMessageBatchResponse succeedAll(SendMessageBatchRequest request) {
+                return SendMessageBatchResponse.builder()
+                                .successful(request.entries()
+                                                .stream()
+                                                .map(entry -> SendMessageBatchResultEntry.builder()
+                                                                .id(entry.id())
+                                                                .messageId("id-" + entry.id())
+                                                                .build())
+                                                .toList())
+                                .build();
+        }
+}
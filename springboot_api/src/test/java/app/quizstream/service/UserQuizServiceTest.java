@@ -0,0 +1,129 @@
+package app.quizstream.service;
+
+import app.quizstream.entity.UserQuiz;
+import app.quizstream.entity.UserQuizId;
+import app.quizstream.entity.collection.LangchainPGCollection;
+import app.quizstream.repository.LangchainPGCollectionRepository;
+import app.quizstream.repository.LangchainPGEmbeddingRepository;
+import app.quizstream.repository.UserQuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserQuizServiceTest {
+
+        @Mock
+        private UserQuizRepository userQuizRepository;
+
+        @Mock
+        private LangchainPGEmbeddingRepository langchainPGEmbeddingRepository;
+
+        @Mock
+        private LangchainPGCollectionRepository langchainPGCollectionRepository;
+
+        @Mock
+        private LeaderboardService leaderboardService;
+
+        @InjectMocks
+        private UserQuizService userQuizService;
+
+        private UUID userId;
+        private UUID quizId;
+        private UserQuiz userQuiz;
+
+        @BeforeEach
+        public void setUp() {
+                this.userId = UUID.randomUUID();
+                this.quizId = UUID.randomUUID();
+
+                LangchainPGCollection collection = new LangchainPGCollection();
+                collection.setUuid(quizId);
+                collection.setName("shared quiz");
+
+                this.userQuiz = new UserQuiz();
+                this.userQuiz.setId(new UserQuizId(userId, quizId));
+                this.userQuiz.setLangchainCollection(collection);
+        }
+
+        @Test
+        public void testDeleteByUserQuizId_whenQuizIsSharedWithOtherUser_shouldKeepCollection() {
+                // given
+                when(userQuizRepository.countById_QuizId(quizId)).thenReturn(1L);
+
+                // when
+                userQuizService.deleteByUserQuizId(userId, quizId);
+
+                // then
+                InOrder order = inOrder(langchainPGCollectionRepository, userQuizRepository);
+                order.verify(langchainPGCollectionRepository).lockForUpdate(quizId);
+                order.verify(userQuizRepository).deleteById(new UserQuizId(userId, quizId));
+                order.verify(userQuizRepository).countById_QuizId(quizId);
+                verify(langchainPGCollectionRepository, never()).deleteEmbeddings(any());
+                verify(langchainPGCollectionRepository, never()).deleteCollection(any());
+                verify(leaderboardService).refreshUser(userId);
+        }
+
+        @Test
+        public void testDeleteByUserQuizId_whenUserIsLastHolder_shouldDeleteCollectionWithEmbeddings() {
+                // given
+                when(userQuizRepository.countById_QuizId(quizId)).thenReturn(0L);
+
+                // when
+                userQuizService.deleteByUserQuizId(userId, quizId);
+
+                // then
+                InOrder order = inOrder(langchainPGCollectionRepository, userQuizRepository);
+                order.verify(langchainPGCollectionRepository).lockForUpdate(quizId);
+                order.verify(userQuizRepository).deleteById(new UserQuizId(userId, quizId));
+                order.verify(userQuizRepository).flush();
+                order.verify(langchainPGCollectionRepository).deleteEmbeddings(quizId);
+                order.verify(langchainPGCollectionRepository).deleteCollection(quizId);
+                verify(leaderboardService).refreshUser(userId);
+        }
+
+        @Test
+        public void testRenameUserQuiz_whenQuizIsShared_shouldOnlyRenameQuizOfUser() {
+                // given
+                when(userQuizRepository.findById_UserIdAndId_QuizId(userId, quizId)).thenReturn(Optional.of(userQuiz));
+                when(userQuizRepository.countById_QuizId(quizId)).thenReturn(2L);
+
+                // when
+                userQuizService.renameUserQuiz(userId, quizId, "my copy");
+
+                // then
+                verify(langchainPGCollectionRepository).lockForUpdate(quizId);
+                assertThat(userQuiz.getQuizName()).isEqualTo("my copy");
+                assertThat(userQuiz.getLangchainCollection()
+                                .getName()).isEqualTo("shared quiz");
+        }
+
+        @Test
+        public void testRenameUserQuiz_whenQuizIsNotShared_shouldRenameCollection() {
+                // given
+                when(userQuizRepository.findById_UserIdAndId_QuizId(userId, quizId)).thenReturn(Optional.of(userQuiz));
+                when(userQuizRepository.countById_QuizId(quizId)).thenReturn(1L);
+
+                // when
+                userQuizService.renameUserQuiz(userId, quizId, "renamed quiz");
+
+                // then
+                assertThat(userQuiz.getQuizName()).isNull();
+                assertThat(userQuiz.getLangchainCollection()
+                                .getName()).isEqualTo("renamed quiz");
+        }
+}
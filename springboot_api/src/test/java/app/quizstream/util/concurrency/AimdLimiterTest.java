@@ -0,0 +1,74 @@
+package app.quizstream.util.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AimdLimiterTest {
+
+        private static final long THRESHOLD = TimeUnit.SECONDS.toNanos(10);
+
+        @Test
+        public void testTryAcquire_whenLimitReached_shouldReject() {
+                // given
+                AimdLimiter limiter = new AimdLimiter(2, 1, 4, 0.5, THRESHOLD);
+
+                // when, then
+                assertThat(limiter.tryAcquire()).isTrue();
+                assertThat(limiter.tryAcquire()).isTrue();
+                assertThat(limiter.tryAcquire()).isFalse();
+                assertThat(limiter.getInFlight()).isEqualTo(2);
+        }
+
+        @Test
+        public void testOnSuccess_whenLimitInUse_shouldGrowAdditively() {
+                // given
+                AimdLimiter limiter = new AimdLimiter(2, 1, 4, 0.5, THRESHOLD);
+
+                // when, grows by 1 / limit per fast success at full use: 2, 2.5, 2.9, 3.24
+                for (int i = 0; i < 3; i++) {
+                        limiter.tryAcquire();
+                        limiter.tryAcquire();
+                        limiter.onSuccess(1);
+                        limiter.onIgnored();
+                }
+
+                // then
+                assertThat(limiter.getLimit()).isEqualTo(3);
+        }
+
+        @Test
+        public void testOnSuccess_whenLimitNotInUse_shouldKeepLimit() {
+                // given
+                AimdLimiter limiter = new AimdLimiter(4, 1, 8, 0.5, THRESHOLD);
+
+                // when
+                for (int i = 0; i < 20; i++) {
+                        limiter.tryAcquire();
+                        limiter.onSuccess(1);
+                }
+
+                // then
+                assertThat(limiter.getLimit()).isEqualTo(4);
+        }
+
+        @Test
+        public void testOnDropped_whenCalled_shouldShrinkMultiplicativelyDownToMin() {
+                // given
+                AimdLimiter limiter = new AimdLimiter(4, 1, 4, 0.5, THRESHOLD);
+
+                // when, then
+                limiter.tryAcquire();
+                limiter.onDropped();
+                assertThat(limiter.getLimit()).isEqualTo(2);
+
+                limiter.tryAcquire();
+                limiter.onSuccess(THRESHOLD + 1);
+                limiter.tryAcquire();
+                limiter.onDropped();
+                assertThat(limiter.getLimit()).isEqualTo(1);
+                assertThat(limiter.getInFlight()).isZero();
+        }
+}
@@ -0,0 +1,89 @@
+package app.quizstream.util.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+        private final AtomicLong now = new AtomicLong();
+
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, 1_000, now::get);
+
+        @Test
+        public void testOnFailure_whenThresholdReached_shouldOpen() {
+                // when
+                for (int i = 0; i < 3; i++) {
+                        assertThat(circuitBreaker.tryAcquire()).isTrue();
+                        circuitBreaker.onFailure();
+                }
+
+                // then
+                assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+                assertThat(circuitBreaker.tryAcquire()).isFalse();
+        }
+
+        @Test
+        public void testOnSuccess_whenFailuresNotConsecutive_shouldStayClosed() {
+                // when
+                circuitBreaker.onFailure();
+                circuitBreaker.onFailure();
+                circuitBreaker.onSuccess();
+                circuitBreaker.onFailure();
+
+                // then
+                assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        public void testTryAcquire_whenOpenDurationPassed_shouldLetSingleTrialThrough() {
+                // given
+                open();
+                now.addAndGet(1_000);
+
+                // when, then
+                assertThat(circuitBreaker.tryAcquire()).isTrue();
+                assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+                assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+                circuitBreaker.onSuccess();
+                assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        public void testOnFailure_whenTrialFails_shouldOpenAgain() {
+                // given
+                open();
+                now.addAndGet(1_000);
+                circuitBreaker.tryAcquire();
+
+                // when
+                circuitBreaker.onFailure();
+
+                // then
+                assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+                assertThat(circuitBreaker.tryAcquire()).isFalse();
+        }
+
+        @Test
+        public void testRelease_whenTrialNotMade_shouldAllowNextTrial() {
+                // given
+                open();
+                now.addAndGet(1_000);
+                circuitBreaker.tryAcquire();
+
+                // when
+                circuitBreaker.release();
+
+                // then
+                assertThat(circuitBreaker.tryAcquire()).isTrue();
+        }
+
+        private void open() {
+                for (int i = 0; i < 3; i++) {
+                        circuitBreaker.onFailure();
+                }
+        }
+}
@@ -0,0 +1,55 @@
+package app.quizstream.util.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SecretCipherTest {
+
+        private static final String KEY = Base64.getEncoder()
+                        .encodeToString(new byte[32]);
+
+        @Test
+        public void testDecrypt_whenEncryptedWithSameKey_shouldReturnPlaintext() {
+                // given
+                SecretCipher secretCipher = SecretCipher.fromBase64Key(KEY);
+
+                // when
+                String encrypted = secretCipher.encrypt("{\"OPENAI_API_KEY\":\"sk-test\"}");
+
+                // then
+                assertThat(encrypted).doesNotContain("sk-test");
+                assertThat(SecretCipher.fromBase64Key(KEY)
+                                .decrypt(encrypted)).isEqualTo("{\"OPENAI_API_KEY\":\"sk-test\"}");
+        }
+
+        @Test
+        public void testEncrypt_whenSamePlaintextEncryptedTwice_shouldUseDifferentIvs() {
+                // given
+                SecretCipher secretCipher = SecretCipher.fromBase64Key(KEY);
+
+                // when, then
+                assertThat(secretCipher.encrypt("sk-test")).isNotEqualTo(secretCipher.encrypt("sk-test"));
+        }
+
+        @Test
+        public void testDecrypt_whenEncryptedWithOtherKey_shouldThrow() {
+                // given
+                String encrypted = SecretCipher.withRandomKey()
+                                .encrypt("sk-test");
+
+                // when, then
+                assertThatThrownBy(() -> SecretCipher.fromBase64Key(KEY)
+                                .decrypt(encrypted)).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        public void testFromBase64Key_whenKeyHasInvalidLength_shouldThrow() {
+                // when, then
+                assertThatThrownBy(() -> SecretCipher.fromBase64Key(Base64.getEncoder()
+                                .encodeToString(new byte[10]))).isInstanceOf(IllegalArgumentException.class);
+        }
+}
@@ -0,0 +1,37 @@
+package app.quizstream.util.json;
+
+import app.quizstream.dto.quiz.QuizLeaderboardEntry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoreSerializerTest {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @Test
+        public void testSerialize_whenLeaderboardEntryWritten_shouldFormatScoreWithTwoDecimals() throws Exception {
+                // given
+                QuizLeaderboardEntry entry = new QuizLeaderboardEntry("testUser", 2L, 3L, 20L, 7L, 7.0 / 20 * 100.0);
+
+                // when
+                JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(entry));
+
+                // then
+                assertThat(json.get("score")
+                                .isTextual()).isTrue();
+                assertThat(json.get("score")
+                                .asText()).isEqualTo("35.00");
+        }
+
+        @Test
+        public void testFormat_whenScoreNeedsRounding_shouldRoundHalfUp() {
+                // when, then
+                assertThat(ScoreSerializer.format(100.0)).isEqualTo("100.00");
+                assertThat(ScoreSerializer.format(2.0 / 3 * 100.0)).isEqualTo("66.67");
+                assertThat(ScoreSerializer.format(12.345)).isEqualTo("12.35");
+                assertThat(ScoreSerializer.format(0.0)).isEqualTo("0.00");
+        }
+}
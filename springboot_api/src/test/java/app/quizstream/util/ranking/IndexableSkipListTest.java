@@ -0,0 +1,83 @@
+package app.quizstream.util.ranking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IndexableSkipListTest {
+
+        private IndexableSkipList<Integer> skipList;
+        private List<Integer> expected;
+
+        @BeforeEach
+        public void setUp() {
+                skipList = new IndexableSkipList<>(Comparator.naturalOrder());
+                expected = new ArrayList<>();
+
+                Random random = new Random(42);
+                while (expected.size() < 2_000) {
+                        int value = random.nextInt(1_000_000);
+                        if (!expected.contains(value)) {
+                                expected.add(value);
+                                skipList.insert(value);
+                        }
+                }
+                Collections.sort(expected);
+        }
+
+        @Test
+        public void testRankOf_whenValuesInserted_shouldReturnAscendingPosition() {
+                // when, then
+                assertThat(skipList.size()).isEqualTo(expected.size());
+
+                for (int i = 0; i < expected.size(); i++) {
+                        assertThat(skipList.rankOf(expected.get(i))).isEqualTo(i + 1);
+                        assertThat(skipList.getByRank(i + 1)).isEqualTo(expected.get(i));
+                }
+
+                assertThat(skipList.rankOf(-1)).isZero();
+                assertThat(skipList.getByRank(0)).isNull();
+                assertThat(skipList.getByRank(expected.size() + 1)).isNull();
+        }
+
+        @Test
+        public void testRemove_whenValuesRemoved_shouldKeepRanksConsistent() {
+                // when
+                for (int i = 0; i < expected.size(); i += 3) {
+                        assertThat(skipList.remove(expected.get(i))).isTrue();
+                }
+                for (int i = expected.size() - 1; i >= 0; i--) {
+                        if (i % 3 == 0) {
+                                expected.remove(i);
+                        }
+                }
+
+                // then
+                assertThat(skipList.remove(-1)).isFalse();
+                assertThat(skipList.size()).isEqualTo(expected.size());
+
+                for (int i = 0; i < expected.size(); i++) {
+                        assertThat(skipList.rankOf(expected.get(i))).isEqualTo(i + 1);
+                }
+        }
+
+        @Test
+        public void testSlice_whenWalkingBothDirections_shouldReturnPage() {
+                // when, then
+                assertThat(skipList.slice(10, 20, false)).isEqualTo(expected.subList(10, 30));
+
+                List<Integer> descending = new ArrayList<>(expected);
+                Collections.reverse(descending);
+                assertThat(skipList.slice(10, 20, true)).isEqualTo(descending.subList(10, 30));
+
+                assertThat(skipList.slice(expected.size() - 5, 20, false)).hasSize(5);
+                assertThat(skipList.slice(expected.size(), 20, false)).isEmpty();
+        }
+}
@@ -0,0 +1,28 @@
+package app.quizstream.util.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeaderboardComparatorsTest {
+
+        @Test
+        public void testByUserId_whenHighBitIsSet_shouldOrderLikePostgres() {
+                // given, sorted like Postgres compares the bytes
+                UUID low = UUID.fromString("00000000-0000-0000-0000-000000000001");
+                UUID middle = UUID.fromString("7fffffff-ffff-ffff-0000-000000000000");
+                UUID highBit = UUID.fromString("80000000-0000-0000-0000-000000000000");
+                UUID highBitInLeastSignificant = UUID.fromString("80000000-0000-0000-8000-000000000000");
+                List<UUID> userIds = new ArrayList<>(List.of(highBitInLeastSignificant, highBit, middle, low));
+
+                // when
+                userIds.sort(LeaderboardComparators.BY_USER_ID);
+
+                // then
+                assertThat(userIds).containsExactly(low, middle, highBit, highBitInLeastSignificant);
+        }
+}
@@ -0,0 +1,47 @@
+package app.quizstream.util.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PgVectorTest {
+
+        @Test
+        public void testParse_whenVectorLiteralProvided_shouldReturnComponents() {
+                // when
+                float[] vector = PgVector.parse(" [1, -2.5 ,3e2,1.5e-07,0.0123] ");
+
+                // then
+                assertThat(vector).containsExactly(1f, -2.5f, 300f, 1.5e-7f, 0.0123f);
+        }
+
+        @Test
+        public void testParse_whenVectorEmpty_shouldReturnEmptyArray() {
+                // when, then
+                assertThat(PgVector.parse("[]")).isEmpty();
+        }
+
+        @Test
+        public void testParse_whenFormattedVectorProvided_shouldRoundTripExactly() {
+                // given
+                Random random = new Random(42);
+                float[] vector = new float[1536];
+                for (int i = 0; i < vector.length; i++) {
+                        vector[i] = i % 2 == 0 ? (float) (random.nextGaussian() * 0.05)
+                                        : Float.intBitsToFloat(random.nextInt());
+                }
+
+                // when, then
+                assertThat(PgVector.parse(PgVector.format(vector))).containsExactly(vector);
+        }
+
+        @Test
+        public void testParse_whenLiteralInvalid_shouldThrowException() {
+                // when, then
+                assertThatThrownBy(() -> PgVector.parse("1,2,3")).isInstanceOf(IllegalArgumentException.class);
+                assertThatThrownBy(() -> PgVector.parse("[1,x,3]")).isInstanceOf(IllegalArgumentException.class);
+        }
+}
@@ -0,0 +1,34 @@
+package app.quizstream.util.video;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VideoUrlsTest {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                        "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+                        "https://youtube.com/watch?v=dQw4w9WgXcQ&list=PL123&index=2",
+                        "http://m.youtube.com/watch?feature=share&v=dQw4w9WgXcQ",
+                        "https://youtu.be/dQw4w9WgXcQ?t=42",
+                        "youtu.be/dQw4w9WgXcQ",
+                        "https://www.youtube.com/shorts/dQw4w9WgXcQ",
+                        "https://www.youtube.com/embed/dQw4w9WgXcQ",
+                        "  https://WWW.YOUTUBE.COM/watch?v=dQw4w9WgXcQ  " })
+        public void testCanonicalize_whenYoutubeUrlProvided_shouldReturnWatchUrl(String videoUrl) {
+                // when, then
+                assertThat(VideoUrls.canonicalize(videoUrl)).isEqualTo("https://www.youtube.com/watch?v=dQw4w9WgXcQ");
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                        "https://vimeo.com/123456",
+                        "https://www.youtube.com/watch?v=short",
+                        "https://www.youtube.com/@channel" })
+        public void testCanonicalize_whenNoYoutubeVideoUrlProvided_shouldReturnUrlUnchanged(String videoUrl) {
+                // when, then
+                assertThat(VideoUrls.canonicalize(videoUrl)).isEqualTo(videoUrl);
+        }
+}